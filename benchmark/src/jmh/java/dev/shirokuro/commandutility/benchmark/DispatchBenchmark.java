@@ -0,0 +1,117 @@
+package dev.shirokuro.commandutility.benchmark;
+
+import dev.shirokuro.commandutility.BranchNode;
+import dev.shirokuro.commandutility.Command;
+import dev.shirokuro.commandutility.CommandGroup;
+import dev.shirokuro.commandutility.ParsedArgs;
+import dev.shirokuro.commandutility.platform.CompletingPosition;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.bukkit.command.CommandSender;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures walk, parse, execution and completion against synthetic trees.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DispatchBenchmark {
+
+    private static final int LINES = 1024;
+
+    @Param({"10", "1000", "100000"})
+    public int commands;
+
+    @Param({"1", "3"})
+    public int depth;
+
+    @Param({"false", "true"})
+    public boolean frozen;
+
+    @Param({"false", "true"})
+    public boolean ignoreCase;
+
+    private final CommandSender sender = new NoOpSender();
+    private CommandGroup group;
+    private List<String>[] executeLines;
+    private List<String>[] sectionLines;
+    private List<String>[] argumentLines;
+    private Command command;
+    private List<String> args;
+    private int index;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        final List<List<String>> sections = Trees.sections(commands, depth);
+        group = Trees.group(sections, ignoreCase);
+        if (frozen) {
+            group.freeze();
+        }
+        final Random random = new Random(0);
+        executeLines = new List[LINES];
+        sectionLines = new List[LINES];
+        argumentLines = new List[LINES];
+        for (int i = 0; i < LINES; i++) {
+            final List<String> picked = sections.get(random.nextInt(sections.size()));
+            final List<String> line = new ArrayList<>(picked);
+            argumentLines[i] = new ArrayList<>(line);
+            line.add("10");
+            line.add("because");
+            executeLines[i] = line;
+            final List<String> typing = new ArrayList<>(picked);
+            final String last = typing.remove(typing.size() - 1);
+            typing.add(last.substring(0, 2));
+            sectionLines[i] = typing;
+        }
+        command = group.getRoot().walk(executeLines[0]).getCommand().get().getCommand();
+        args = Arrays.asList("10", "because", "of", "benchmark");
+    }
+
+    private int next() {
+        index = (index + 1) & (LINES - 1);
+        return index;
+    }
+
+    @Benchmark
+    public BranchNode.WalkResult walk() {
+        return group.getRoot().walk(executeLines[next()]);
+    }
+
+    @Benchmark
+    public Map<String, String> parseArgs() throws Command.ArgumentNotEnoughException {
+        return command.parseArgs(args, false);
+    }
+
+    @Benchmark
+    public ParsedArgs parse() throws Command.ArgumentNotEnoughException {
+        return command.parse(args, false);
+    }
+
+    @Benchmark
+    public void execute() {
+        group.execute(sender, executeLines[next()]);
+    }
+
+    @Benchmark
+    public List<String> completeSection() {
+        return group.complete(sender, CompletingPosition.CURRENT, sectionLines[next()]);
+    }
+
+    @Benchmark
+    public List<String> completeArgument() {
+        return group.complete(sender, CompletingPosition.NEXT, argumentLines[next()]);
+    }
+}
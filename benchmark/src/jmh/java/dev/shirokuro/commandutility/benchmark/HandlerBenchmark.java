@@ -0,0 +1,60 @@
+package dev.shirokuro.commandutility.benchmark;
+
+import dev.shirokuro.commandutility.CommandGroup;
+import dev.shirokuro.commandutility.ExecutionData;
+import dev.shirokuro.commandutility.annotation.Executor;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.bukkit.command.CommandSender;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares reflected handlers registered by {@code addAll} with lambda handlers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HandlerBenchmark {
+
+    private static final List<String> REFLECTED_LINE = Arrays.asList("bench", "reflected", "10");
+    private static final List<String> LAMBDA_LINE = Arrays.asList("bench", "lambda", "10");
+
+    private final CommandSender sender = new NoOpSender();
+    private final Counter counter = new Counter();
+    private CommandGroup group;
+
+    @Setup
+    public void setup() {
+        group = new CommandGroup(new NoOpPlatform())
+                .addAll(counter)
+                .add(counter::count, "bench lambda <amount>", null);
+    }
+
+    @Benchmark
+    public int reflected() {
+        group.execute(sender, REFLECTED_LINE);
+        return counter.value;
+    }
+
+    @Benchmark
+    public int lambda() {
+        group.execute(sender, LAMBDA_LINE);
+        return counter.value;
+    }
+
+    public static final class Counter {
+        private int value;
+
+        @Executor("bench reflected <amount>")
+        public void count(ExecutionData data) {
+            value++;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package dev.shirokuro.commandutility.benchmark;
+
+import dev.shirokuro.commandutility.CommandCompleter;
+import dev.shirokuro.commandutility.platform.Platform;
+import dev.shirokuro.commandutility.platform.PlatformCommandHandler;
+import java.util.Collections;
+import java.util.Map;
+
+final class NoOpPlatform implements Platform {
+
+    @Override
+    public void registerHandler(final String command, final PlatformCommandHandler handler) {
+    }
+
+    @Override
+    public Map<String, CommandCompleter> defaultCompleters() {
+        return Collections.emptyMap();
+    }
+}
@@ -0,0 +1,82 @@
+package dev.shirokuro.commandutility.benchmark;
+
+import dev.shirokuro.commandutility.Command;
+import dev.shirokuro.commandutility.CommandGroup;
+import dev.shirokuro.commandutility.ExecutionData;
+import dev.shirokuro.commandutility.annotation.Executor;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures building trees with {@code add} and {@code addAll}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RegistrationBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int commands;
+
+    @Param({"1", "3"})
+    public int depth;
+
+    private List<List<String>> sections;
+    private List<Command> batch;
+
+    @Setup
+    public void setup() {
+        sections = Trees.sections(commands, depth);
+        batch = new ArrayList<>(sections.size());
+        for (final List<String> command : sections) {
+            batch.add(Command.fromString(Trees.NOOP_HANDLER, Trees.spec(command), null));
+        }
+    }
+
+    @Benchmark
+    public CommandGroup add() {
+        return Trees.group(sections);
+    }
+
+    @Benchmark
+    public CommandGroup addCommands() {
+        return new CommandGroup(new NoOpPlatform()).addCommands(batch);
+    }
+
+    @Benchmark
+    public CommandGroup addAndFreeze() {
+        return Trees.group(sections).freeze();
+    }
+
+    @Benchmark
+    public CommandGroup addAllReflected() {
+        return new CommandGroup(new NoOpPlatform()).addAll(new AnnotatedHandler());
+    }
+
+    public static final class AnnotatedHandler {
+        @Executor("bench a <amount>")
+        public void a(ExecutionData data) {
+        }
+
+        @Executor("bench b <amount>")
+        public void b(ExecutionData data) {
+        }
+
+        @Executor("bench c d <amount> [reason]")
+        public void cd(ExecutionData data) {
+        }
+
+        @Executor("bench c e <amount> [reason]")
+        public void ce(ExecutionData data) {
+        }
+    }
+}
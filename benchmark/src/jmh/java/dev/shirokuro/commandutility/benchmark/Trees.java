@@ -0,0 +1,55 @@
+package dev.shirokuro.commandutility.benchmark;
+
+import dev.shirokuro.commandutility.CommandGroup;
+import dev.shirokuro.commandutility.CommandHandler;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds synthetic command trees for benchmarks.
+ */
+final class Trees {
+
+    static final String ROOT = "bench";
+    static final CommandHandler NOOP_HANDLER = data -> {
+    };
+
+    private Trees() {
+    }
+
+    /**
+     * Returns sections of {@code count} commands. Each command has {@code depth} sections after root section,
+     * and each branch has at most {@code ceil(count^(1/depth))} children.
+     */
+    static List<List<String>> sections(final int count, final int depth) {
+        final int width = Math.max(2, (int) Math.ceil(Math.pow(count, 1.0 / depth)));
+        final List<List<String>> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final List<String> sections = new ArrayList<>(depth + 1);
+            sections.add(ROOT);
+            int rest = i;
+            for (int level = 0; level < depth; level++) {
+                sections.add("s" + (rest % width));
+                rest /= width;
+            }
+            result.add(sections);
+        }
+        return result;
+    }
+
+    static String spec(final List<String> sections) {
+        return String.join(" ", sections) + " <amount> [reason]";
+    }
+
+    static CommandGroup group(final List<List<String>> sections) {
+        return group(sections, false);
+    }
+
+    static CommandGroup group(final List<List<String>> sections, final boolean ignoreCase) {
+        final CommandGroup group = new CommandGroup(new NoOpPlatform()).setIgnoreCase(ignoreCase);
+        for (final List<String> command : sections) {
+            group.add(NOOP_HANDLER, spec(command), null);
+        }
+        return group;
+    }
+}
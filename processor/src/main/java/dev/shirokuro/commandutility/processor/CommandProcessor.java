@@ -0,0 +1,354 @@
+package dev.shirokuro.commandutility.processor;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+
+/**
+ * Generates {@code CommandRegistration} for each type that has methods annotated
+ * with {@code @Executor} or {@code @Completer}, and reports invalid declarations as compile errors.
+ */
+public final class CommandProcessor extends AbstractProcessor {
+
+    private static final String BASE_PACKAGE = "dev.shirokuro.commandutility";
+    private static final String EXECUTOR = BASE_PACKAGE + ".annotation.Executor";
+    private static final String COMPLETER = BASE_PACKAGE + ".annotation.Completer";
+    private static final String DESCRIPTION = BASE_PACKAGE + ".annotation.Description";
+    private static final String ASYNC = BASE_PACKAGE + ".annotation.Async";
+    private static final String PERMISSION = BASE_PACKAGE + ".annotation.Permission";
+    private static final String COOLDOWN = BASE_PACKAGE + ".annotation.Cooldown";
+    private static final String EXECUTION_DATA = BASE_PACKAGE + ".ExecutionData";
+    private static final String COMPLETION_DATA = BASE_PACKAGE + ".CompletionData";
+    private static final String CLASS_NAME_SUFFIX = "$$CommandRegistration";
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        final Set<String> types = new HashSet<>();
+        types.add(EXECUTOR);
+        types.add(COMPLETER);
+        return Collections.unmodifiableSet(types);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+        final Map<TypeElement, HandlerType> handlerTypes = new LinkedHashMap<>();
+        for (final TypeElement annotation : annotations) {
+            for (final Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() != ElementKind.METHOD) {
+                    continue;
+                }
+                final TypeElement owner = (TypeElement) element.getEnclosingElement();
+                handlerTypes.computeIfAbsent(owner, HandlerType::new);
+            }
+        }
+        for (final HandlerType handlerType : handlerTypes.values()) {
+            if (collect(handlerType) && isAccessible(handlerType.type)) {
+                write(handlerType);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Collects and validates annotated methods in {@code handlerType}.
+     *
+     * @return {@code true} if no errors found
+     */
+    private boolean collect(final HandlerType handlerType) {
+        boolean valid = true;
+        for (final Element element : handlerType.type.getEnclosedElements()) {
+            if (element.getKind() != ElementKind.METHOD) {
+                continue;
+            }
+            final ExecutableElement method = (ExecutableElement) element;
+            final String executor = annotationValue(method, EXECUTOR);
+            final String completer = annotationValue(method, COMPLETER);
+            if (executor != null) {
+                valid &= validateMethod(method, "@Executor", EXECUTION_DATA);
+                final HandlerMethods methods = handlerType.methods(executor);
+                if (methods.executor != null) {
+                    error(method, "Command '" + executor + "' already has @Executor");
+                    valid = false;
+                }
+                methods.executor = method;
+                methods.description = annotationValue(method, DESCRIPTION);
+                methods.permission = annotationValue(method, PERMISSION);
+                methods.rateLimit = rateLimit(method);
+                methods.async = hasAnnotation(method, ASYNC);
+            } else if (completer != null) {
+                valid &= validateMethod(method, "@Completer", COMPLETION_DATA);
+                if (!isListOfString(method.getReturnType())) {
+                    error(method, "Method annotated @Completer must return List<String>");
+                    valid = false;
+                }
+                final HandlerMethods methods = handlerType.methods(completer);
+                if (methods.completer != null) {
+                    error(method, "Command '" + completer + "' already has @Completer");
+                    valid = false;
+                }
+                methods.completer = method;
+            }
+        }
+        for (final Map.Entry<String, HandlerMethods> entry : handlerType.methodsMap.entrySet()) {
+            final HandlerMethods methods = entry.getValue();
+            if (methods.executor == null) {
+                error(methods.completer, "Cannot find executor for '" + entry.getKey() + "'");
+                valid = false;
+                continue;
+            }
+            try {
+                methods.spec = CommandSpec.parse(entry.getKey());
+            } catch (final IllegalArgumentException e) {
+                error(methods.executor, "Invalid command '" + entry.getKey() + "': " + e.getMessage());
+                valid = false;
+            }
+        }
+        return valid;
+    }
+
+    private boolean validateMethod(final ExecutableElement method, final String annotationName, final String parameterType) {
+        boolean valid = true;
+        if (!method.getModifiers().contains(Modifier.PUBLIC)) {
+            error(method, "Method annotated " + annotationName + " must be public");
+            valid = false;
+        }
+        final List<? extends Element> parameters = method.getParameters();
+        if (parameters.size() != 1 ||
+            !processingEnv.getTypeUtils().erasure(parameters.get(0).asType()).toString().equals(parameterType)) {
+            error(method, "Method is annotated " + annotationName + ", but method parameters are incorrect!");
+            valid = false;
+        }
+        return valid;
+    }
+
+    private boolean isListOfString(final TypeMirror type) {
+        final TypeElement list = processingEnv.getElementUtils().getTypeElement("java.util.List");
+        final TypeElement string = processingEnv.getElementUtils().getTypeElement("java.lang.String");
+        final TypeMirror listOfString = processingEnv.getTypeUtils().getDeclaredType(list, string.asType());
+        return processingEnv.getTypeUtils().isAssignable(type, listOfString);
+    }
+
+    /**
+     * Returns {@code true} if generated class in same package can refer {@code type}.
+     */
+    private static boolean isAccessible(final TypeElement type) {
+        for (Element current = type; current instanceof TypeElement; current = current.getEnclosingElement()) {
+            if (current.getModifiers().contains(Modifier.PRIVATE)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean hasAnnotation(final Element element, final String annotationName) {
+        return element.getAnnotationMirrors().stream()
+            .map(mirror -> (TypeElement) mirror.getAnnotationType().asElement())
+            .anyMatch(annotationType -> annotationType.getQualifiedName().contentEquals(annotationName));
+    }
+
+    private static String annotationValue(final Element element, final String annotationName) {
+        for (final AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            final TypeElement annotationType = (TypeElement) mirror.getAnnotationType().asElement();
+            if (!annotationType.getQualifiedName().contentEquals(annotationName)) {
+                continue;
+            }
+            for (final Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+                    : mirror.getElementValues().entrySet()) {
+                if (entry.getKey().getSimpleName().contentEquals("value")) {
+                    return entry.getValue().getValue().toString();
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns expression of {@code RateLimit} declared by {@code @Cooldown}.
+     *
+     * @return expression or {@code null} if not annotated
+     */
+    private String rateLimit(final Element element) {
+        for (final AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            final TypeElement annotationType = (TypeElement) mirror.getAnnotationType().asElement();
+            if (!annotationType.getQualifiedName().contentEquals(COOLDOWN)) {
+                continue;
+            }
+            final Map<String, String> values = new HashMap<>();
+            processingEnv.getElementUtils().getElementValuesWithDefaults(mirror).forEach((key, value) ->
+                values.put(key.getSimpleName().toString(), value.getValue().toString()));
+            return BASE_PACKAGE + ".RateLimit.of(" + values.get("permits") + ", " + values.get("value") + "L, "
+                + "java.util.concurrent.TimeUnit." + values.get("unit") + ")";
+        }
+        return null;
+    }
+
+    private void write(final HandlerType handlerType) {
+        final TypeElement type = handlerType.type;
+        final PackageElement pkg = processingEnv.getElementUtils().getPackageOf(type);
+        final String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+        final String packageName = pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+        final String simpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1))
+            + CLASS_NAME_SUFFIX;
+        final String handlerName = type.getQualifiedName().toString();
+        try (Writer writer = processingEnv.getFiler()
+                .createSourceFile(binaryName + CLASS_NAME_SUFFIX, type)
+                .openWriter();
+             PrintWriter out = new PrintWriter(writer)) {
+            if (!packageName.isEmpty()) {
+                out.println("package " + packageName + ";");
+                out.println();
+            }
+            out.println("/**");
+            out.println(" * Generated by " + CommandProcessor.class.getName() + ". Do not edit.");
+            out.println(" */");
+            out.println("public final class " + simpleName + " implements "
+                + BASE_PACKAGE + ".CommandRegistration<" + handlerName + "> {");
+            out.println();
+            out.println("    @Override");
+            out.println("    public void register(final " + BASE_PACKAGE + ".CommandGroup group, final "
+                + handlerName + " handler) {");
+            out.println("        final java.util.List<" + BASE_PACKAGE + ".Command> commands = new java.util.ArrayList<>("
+                + handlerType.methodsMap.size() + ");");
+            for (final HandlerMethods methods : handlerType.methodsMap.values()) {
+                writeCommand(out, handlerName, methods);
+            }
+            out.println("        group.addCommands(commands);");
+            out.println("    }");
+            out.println("}");
+        } catch (final IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                "Cannot write registration of " + handlerName + ": " + e.getMessage(), type);
+        }
+    }
+
+    private void writeCommand(final PrintWriter out, final String handlerName, final HandlerMethods methods) {
+        final CommandSpec spec = methods.spec;
+        out.println("        commands.add(new " + BASE_PACKAGE + ".Command(");
+        out.print("            java.util.Arrays.<String>asList(");
+        for (int i = 0; i < spec.getSections().size(); i++) {
+            out.print((i == 0 ? "" : ", ") + literal(spec.getSections().get(i)));
+        }
+        out.println("),");
+        out.print("            java.util.Arrays.<" + BASE_PACKAGE + ".Parameter>asList(");
+        for (int i = 0; i < spec.getParameters().size(); i++) {
+            final CommandSpec.ParameterSpec parameter = spec.getParameters().get(i);
+            out.print((i == 0 ? "" : ", ") + "new " + BASE_PACKAGE + ".Parameter(" +
+                literal(parameter.getName()) + ", " +
+                literal(parameter.getCompleterName()) + ", " +
+                parameter.isRequired() + ")");
+        }
+        out.println("),");
+        final String handlerType = methods.async ? "AsyncCommandHandler" : "CommandHandler";
+        out.println("            new " + BASE_PACKAGE + "." + handlerType + "() {");
+        out.println("                @Override");
+        out.println("                public void execute(final " + EXECUTION_DATA + " data) throws "
+            + BASE_PACKAGE + ".CommandExecutionException {");
+        out.println("                    " + receiver(handlerName, methods.executor) + "."
+            + methods.executor.getSimpleName() + "(data);");
+        out.println("                }");
+        if (methods.completer != null) {
+            out.println();
+            out.println("                @Override");
+            out.println("                @SuppressWarnings(\"unchecked\")");
+            out.println("                public java.util.List<String> complete(final " + COMPLETION_DATA + " data) {");
+            out.println("                    return " + receiver(handlerName, methods.completer) + "."
+                + methods.completer.getSimpleName() + "(data);");
+            out.println("                }");
+        }
+        out.println("            },");
+        out.println("            " + literal(methods.description) + ",");
+        out.println("            " + literal(methods.permission) + ")"
+            + (methods.rateLimit != null ? ".withRateLimit(" + methods.rateLimit + ")" : "") + ");");
+    }
+
+    private static String receiver(final String handlerName, final ExecutableElement method) {
+        return method.getModifiers().contains(Modifier.STATIC)
+            ? handlerName
+            : "handler";
+    }
+
+    private static String literal(final String value) {
+        if (value == null) {
+            return "null";
+        }
+        final StringBuilder sb = new StringBuilder("\"");
+        for (final char c : value.toCharArray()) {
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    private void error(final Element element, final String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private static final class HandlerType {
+        private final TypeElement type;
+        private final Map<String, HandlerMethods> methodsMap = new LinkedHashMap<>();
+
+        private HandlerType(final TypeElement type) {
+            this.type = type;
+        }
+
+        private HandlerMethods methods(final String command) {
+            return methodsMap.computeIfAbsent(command, key -> new HandlerMethods());
+        }
+    }
+
+    private static final class HandlerMethods {
+        private ExecutableElement executor;
+        private ExecutableElement completer;
+        private String description;
+        private String permission;
+        private String rateLimit;
+        private boolean async;
+        private CommandSpec spec;
+    }
+}
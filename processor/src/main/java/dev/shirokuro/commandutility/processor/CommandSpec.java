@@ -0,0 +1,95 @@
+package dev.shirokuro.commandutility.processor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parsed command string like {@code foo bar <hoge:players> [piyo]}.
+ * Parsing rules are same as {@code Command.fromString} and {@code Parameter.fromString}.
+ */
+final class CommandSpec {
+    private static final Pattern PARAMETER_PATTERN =
+            Pattern.compile("^[<\\[](.*?)(?::(.*))?[>\\]]$");
+
+    private final List<String> sections;
+    private final List<ParameterSpec> parameters;
+
+    private CommandSpec(final List<String> sections, final List<ParameterSpec> parameters) {
+        this.sections = Collections.unmodifiableList(sections);
+        this.parameters = Collections.unmodifiableList(parameters);
+    }
+
+    /**
+     * Parses command string.
+     *
+     * @param command command string
+     * @return parsed spec
+     * @throws IllegalArgumentException if {@code command} is invalid
+     */
+    static CommandSpec parse(final String command) {
+        if (command.trim().isEmpty()) {
+            throw new IllegalArgumentException("command is empty!");
+        }
+        final List<String> sections = new ArrayList<>();
+        final List<ParameterSpec> parameters = new ArrayList<>();
+        for (final String part : command.split(" ", -1)) {
+            final Matcher m = PARAMETER_PATTERN.matcher(part);
+            if (m.find()) {
+                final ParameterSpec parameter = new ParameterSpec(m.group(1), m.group(2), part.charAt(0) == '<');
+                if (parameter.required && !parameters.isEmpty() && !parameters.get(parameters.size() - 1).required) {
+                    throw new IllegalArgumentException("Found a required parameter after optional parameters");
+                }
+                parameters.add(parameter);
+            } else {
+                if (!parameters.isEmpty()) {
+                    throw new IllegalArgumentException("Found command part after parameter part");
+                }
+                sections.add(part);
+            }
+        }
+        if (sections.isEmpty()) {
+            throw new IllegalArgumentException("Section is empty!");
+        }
+        return new CommandSpec(sections, parameters);
+    }
+
+    List<String> getSections() {
+        return sections;
+    }
+
+    List<ParameterSpec> getParameters() {
+        return parameters;
+    }
+
+    static final class ParameterSpec {
+        private final String name;
+        private final String completerName;
+        private final boolean required;
+
+        private ParameterSpec(final String name, final String completerName, final boolean required) {
+            this.name = name;
+            this.completerName = completerName;
+            this.required = required;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        /**
+         * Returns completer name.
+         *
+         * @return completer name or {@code null}
+         */
+        String getCompleterName() {
+            return completerName;
+        }
+
+        boolean isRequired() {
+            return required;
+        }
+    }
+}
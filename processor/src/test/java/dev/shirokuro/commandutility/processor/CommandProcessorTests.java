@@ -0,0 +1,133 @@
+package dev.shirokuro.commandutility.processor;
+
+import dev.shirokuro.commandutility.CommandCompleter;
+import dev.shirokuro.commandutility.CommandGroup;
+import dev.shirokuro.commandutility.platform.Platform;
+import dev.shirokuro.commandutility.platform.PlatformCommandHandler;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class CommandProcessorTests {
+
+    @Test
+    public void processTestGeneratesRegistration() throws IOException {
+        final Path output = Files.createTempDirectory("processor");
+        final DiagnosticCollector<JavaFileObject> diagnostics = compile(output,
+                "package foo;\n" +
+                "import dev.shirokuro.commandutility.*;\n" +
+                "import dev.shirokuro.commandutility.annotation.*;\n" +
+                "public class Handler {\n" +
+                "    @Executor(\"foo bar <hoge>\")\n" +
+                "    public void fooBar(ExecutionData data) {}\n" +
+                "}\n");
+        assertTrue(diagnostics.getDiagnostics().stream().noneMatch(d -> d.getKind() == Diagnostic.Kind.ERROR),
+                () -> diagnostics.getDiagnostics().toString());
+        assertTrue(Files.exists(output.resolve("foo/Handler$$CommandRegistration.class")));
+    }
+
+    @Test
+    public void processTestReportsInvalidParameterOrder() throws IOException {
+        final Path output = Files.createTempDirectory("processor");
+        final DiagnosticCollector<JavaFileObject> diagnostics = compile(output,
+                "package foo;\n" +
+                "import dev.shirokuro.commandutility.*;\n" +
+                "import dev.shirokuro.commandutility.annotation.*;\n" +
+                "public class Handler {\n" +
+                "    @Executor(\"foo [bar] <hoge>\")\n" +
+                "    public void fooBar(ExecutionData data) {}\n" +
+                "}\n");
+        final String errors = diagnostics.getDiagnostics().stream()
+                .filter(d -> d.getKind() == Diagnostic.Kind.ERROR)
+                .map(d -> d.getMessage(Locale.ENGLISH))
+                .collect(Collectors.joining("\n"));
+        assertTrue(errors.contains("Found a required parameter after optional parameters"), errors);
+    }
+
+    @Test
+    public void addAllTestGeneratedAndReflectedConflictAlike() throws Exception {
+        final String source =
+                "package foo;\n" +
+                "import dev.shirokuro.commandutility.*;\n" +
+                "import dev.shirokuro.commandutility.annotation.*;\n" +
+                "public class Handler {\n" +
+                "    @Executor(\"warp\")\n" +
+                "    public void warp(ExecutionData data) {}\n" +
+                "    @Executor(\"spawn\")\n" +
+                "    public void spawn(ExecutionData data) {}\n" +
+                "}\n";
+        final Path generated = Files.createTempDirectory("processor");
+        compile(generated, source, true);
+        assertTrue(Files.exists(generated.resolve("foo/Handler$$CommandRegistration.class")));
+        final Path reflected = Files.createTempDirectory("processor");
+        compile(reflected, source, false);
+        assertFalse(Files.exists(reflected.resolve("foo/Handler$$CommandRegistration.class")));
+        // "warp" conflicts with the existing branch, so neither path adds anything
+        final String generatedMessage = assertConflicts(generated);
+        final String reflectedMessage = assertConflicts(reflected);
+        assertEquals(generatedMessage, reflectedMessage);
+    }
+
+    private static String assertConflicts(final Path output) throws Exception {
+        final CommandGroup group = new CommandGroup(new Platform() {
+            @Override
+            public void registerHandler(final String firstCommand, final PlatformCommandHandler handler) {
+            }
+
+            @Override
+            public Map<String, CommandCompleter> defaultCompleters() {
+                return Collections.emptyMap();
+            }
+        }).add(data -> { }, "warp set", null);
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{output.toUri().toURL()},
+                CommandProcessorTests.class.getClassLoader())) {
+            final Object handler = loader.loadClass("foo.Handler").getConstructor().newInstance();
+            final IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> group.addAll(handler));
+            assertEquals(Collections.singletonList("warp"), group.getRoot().childNamesStartingWith(""));
+            return e.getMessage();
+        }
+    }
+
+    private static DiagnosticCollector<JavaFileObject> compile(final Path output, final String source) throws IOException {
+        return compile(output, source, true);
+    }
+
+    private static DiagnosticCollector<JavaFileObject> compile(final Path output, final String source,
+            final boolean process) throws IOException {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null)) {
+            final JavaFileObject file = new SimpleJavaFileObject(URI.create("string:///foo/Handler.java"), JavaFileObject.Kind.SOURCE) {
+                @Override
+                public CharSequence getCharContent(final boolean ignoreEncodingErrors) {
+                    return source;
+                }
+            };
+            final JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics,
+                    Arrays.asList("-d", output.toString(), "-classpath", System.getProperty("java.class.path")),
+                    null, Collections.singletonList(file));
+            task.setProcessors(process
+                    ? Collections.singletonList(new CommandProcessor())
+                    : Collections.emptyList());
+            task.call();
+        }
+        return diagnostics;
+    }
+}
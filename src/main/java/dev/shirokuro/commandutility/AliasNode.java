@@ -1,25 +1,55 @@
 package dev.shirokuro.commandutility;
 
+import com.google.common.collect.ImmutableList;
 import lombok.NonNull;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
+/**
+ * Alias of a node. Target is a path of sections from the parent of the alias, like {@code "teleport here"}.
+ * <p>
+ * Chains of aliases are flattened when the alias is resolved, and the resolved nodes are cached
+ * until the parent branch or its descendants are modified, so walking through an alias costs
+ * same as a normal child lookup.
+ * </p>
+ */
 public final class AliasNode implements Node {
 
     private final Node parent;
     private final String name;
     private final String aliasOf;
+    private final List<String> target;
+    private volatile Resolved resolved;
 
     public AliasNode(final @NonNull Node parent, final @NonNull String name, final @NonNull String aliasOf) {
         this.parent = parent;
         this.name = name;
         this.aliasOf = aliasOf;
+        this.target = ImmutableList.copyOf(aliasOf.split(" "));
+        if (target.isEmpty()) {
+            throw new IllegalArgumentException("Target of alias '" + name + "' is empty");
+        }
     }
 
     public String getAliasOf() {
         return aliasOf;
     }
 
+    /**
+     * Returns sections of the target.
+     *
+     * @return read-only list of sections from the parent of this alias
+     */
+    public List<String> getTarget() {
+        return target;
+    }
+
     @Override
     public String getName() {
         return name;
@@ -29,4 +59,120 @@ public final class AliasNode implements Node {
     public Optional<Node> getParent() {
         return Optional.of(parent);
     }
+
+    /**
+     * Returns nodes from the parent of this alias to the target. Cached until the parent is modified.
+     *
+     * @return nodes whose last element is the target and others are branches,
+     *     or {@code null} if the target doesn't exist or this alias is cyclic
+     */
+    Node[] resolvedPath() {
+        if (!(parent instanceof BranchNode)) {
+            return null;
+        }
+        final long version = ((BranchNode) parent).getVersion();
+        final Resolved current = resolved;
+        if (current != null && current.version == version) {
+            return current.path;
+        }
+        Node[] path;
+        try {
+            path = resolve();
+        } catch (final IllegalStateException e) {
+            path = null;
+        }
+        // Racy but idempotent. A modification during resolving changes the version
+        resolved = new Resolved(version, path);
+        return path;
+    }
+
+    /**
+     * Resolves the target without cache.
+     *
+     * @return same as {@link #resolvedPath()}, except for cycles
+     * @throws IllegalStateException if this alias is cyclic
+     */
+    Node[] resolve() {
+        if (!(parent instanceof BranchNode)) {
+            return null;
+        }
+        final Set<AliasNode> visiting = Collections.newSetFromMap(new IdentityHashMap<>());
+        visiting.add(this);
+        return resolve((BranchNode) parent, target, null, null, visiting);
+    }
+
+    /**
+     * Checks that alias of {@code name} to {@code target} in {@code branch} is not cyclic,
+     * before it is added.
+     *
+     * @throws IllegalArgumentException if the alias would be cyclic
+     */
+    static void checkAcyclic(final BranchNode branch, final String name, final List<String> target) {
+        try {
+            resolve(branch, target, branch, name, Collections.newSetFromMap(new IdentityHashMap<>()));
+        } catch (final IllegalStateException e) {
+            throw new IllegalArgumentException("Alias '" + name + "' to '" + String.join(" ", target) + "' is cyclic", e);
+        }
+    }
+
+    /**
+     * Resolves {@code target} from {@code from}, resolving aliases on the way.
+     *
+     * @param adding branch of the alias being added, which is not in the tree yet. Nullable
+     * @param addingName name of the alias being added. Nullable
+     * @param visiting aliases being resolved
+     * @return nodes, or {@code null} if not exists
+     * @throws IllegalStateException if cyclic
+     */
+    private static Node[] resolve(
+            final BranchNode from,
+            final List<String> target,
+            final BranchNode adding,
+            final String addingName,
+            final Set<AliasNode> visiting) {
+        final List<Node> path = new ArrayList<>(target.size());
+        BranchNode current = from;
+        for (int i = 0; i < target.size(); i++) {
+            final String section = target.get(i);
+            if (current == adding && (current.isIgnoreCase() ? section.equalsIgnoreCase(addingName) : section.equals(addingName))) {
+                throw new IllegalStateException("Alias '" + addingName + "' is cyclic");
+            }
+            Node child = current.getChild(section);
+            if (child instanceof AliasNode) {
+                final AliasNode alias = (AliasNode) child;
+                if (!visiting.add(alias)) {
+                    throw new IllegalStateException("Alias '" + alias.name + "' is cyclic");
+                }
+                final Node[] aliasPath = resolve(current, alias.target, adding, addingName, visiting);
+                visiting.remove(alias);
+                if (aliasPath == null) {
+                    return null;
+                }
+                path.addAll(Arrays.asList(aliasPath));
+                child = aliasPath[aliasPath.length - 1];
+            } else if (child != null) {
+                path.add(child);
+            } else {
+                return null;
+            }
+            if (i < target.size() - 1) {
+                if (!(child instanceof BranchNode)) {
+                    return null;
+                }
+                current = (BranchNode) child;
+            }
+        }
+        return path.toArray(new Node[0]);
+    }
+
+    private static final class Resolved {
+
+        private final long version;
+        private final Node[] path;
+
+        private Resolved(final long version, final Node[] path) {
+            this.version = version;
+            this.path = path;
+        }
+    }
 }
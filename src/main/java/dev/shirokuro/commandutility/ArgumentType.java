@@ -0,0 +1,104 @@
+package dev.shirokuro.commandutility;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * {@code ArgumentType} converts an argument to typed value.
+ * <p>
+ * Types are registered to {@link CommandGroup} by name, and used by parameters like {@code <amount:int>}.
+ * Arguments are converted once before {@link CommandHandler#execute} is called,
+ * and converted values can be read with {@link ExecutionData#getValue ExecutionData.getValue}.
+ * If conversion failed, {@link ErrorHandler#onArgumentConversionFailed} is called instead of the handler.
+ * Also, type completes its parameter unless a completer with same name is registered.
+ * </p>
+ * <pre>
+ *     group.addArgumentType("gamemode", ArgumentType.ofEnum(GameMode.class));
+ *     group.add(data -&gt; {
+ *         GameMode mode = data.getValueOrFail("mode", GameMode.class);
+ *     }, "gm &lt;mode:gamemode&gt;", null);
+ * </pre>
+ *
+ * @param <T> type of converted value
+ */
+@FunctionalInterface
+public interface ArgumentType<T> extends CommandCompleter {
+
+    /**
+     * Type that converts arguments to {@code Integer}.
+     */
+    ArgumentType<Integer> INT = value -> CommandUtils.toInt(value, null);
+
+    /**
+     * Type that converts arguments to {@code Double}.
+     */
+    ArgumentType<Double> DOUBLE = value -> CommandUtils.toDouble(value, null);
+
+    /**
+     * Converts {@code value}.
+     *
+     * @param value argument to convert. Not null
+     * @return converted value. Not null
+     * @throws CommandExecutionException if {@code value} cannot be converted.
+     *                                   Message of the exception should describe why
+     */
+    T convert(String value) throws CommandExecutionException;
+
+    /**
+     * Completes argument of this type. Default implementation returns empty list.
+     */
+    @Override
+    default List<String> complete(final CompletionData data) {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Returns type that converts with {@code type} and completes with {@code completer}.
+     *
+     * @param type type to convert
+     * @param completer completer
+     * @param <T> type of converted value
+     * @return type
+     */
+    static <T> ArgumentType<T> of(final ArgumentType<T> type, final CommandCompleter completer) {
+        Objects.requireNonNull(type, "type");
+        Objects.requireNonNull(completer, "completer");
+        return new ArgumentType<T>() {
+            @Override
+            public T convert(final String value) throws CommandExecutionException {
+                return type.convert(value);
+            }
+
+            @Override
+            public List<String> complete(final CompletionData data) {
+                return completer.complete(data);
+            }
+        };
+    }
+
+    /**
+     * Returns type that converts arguments to constant of {@code enumClass} ignoring case,
+     * and completes with lower-cased names of constants.
+     *
+     * @param enumClass class of enum
+     * @param <E> type of enum
+     * @return type
+     */
+    static <E extends Enum<E>> ArgumentType<E> ofEnum(final Class<E> enumClass) {
+        Objects.requireNonNull(enumClass, "enumClass");
+        final List<String> names = Arrays.stream(enumClass.getEnumConstants())
+            .map(constant -> constant.name().toLowerCase(Locale.ENGLISH))
+            .sorted()
+            .collect(Collectors.toList());
+        return of(value -> CommandUtils.toEnum(enumClass, value, null), data -> {
+            final String current = data.getCurrentValue().toLowerCase(Locale.ENGLISH);
+            return names.stream()
+                .filter(name -> name.startsWith(current))
+                .collect(Collectors.toList());
+        });
+    }
+}
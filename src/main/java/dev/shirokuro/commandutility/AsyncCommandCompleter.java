@@ -0,0 +1,76 @@
+package dev.shirokuro.commandutility;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code CommandCompleter} that completes asynchronously.
+ * <p>
+ * {@link CommandGroup} calls {@link #completeAsync completeAsync} on its completion executor and waits
+ * until the deadline. If the deadline passes, candidates are not offered for that request.
+ * This is useful for completers that query database or external services.
+ * The requesting thread, which is the server thread on Bukkit, is blocked while waiting,
+ * so the deadline should be a few milliseconds.
+ * </p>
+ *
+ * @see CommandGroup#setCompletionExecutor
+ * @see CommandGroup#setCompletionDeadline
+ */
+@FunctionalInterface
+public interface AsyncCommandCompleter extends CommandCompleter {
+
+    /**
+     * Wraps {@code completer} to use specified deadline instead of default deadline of {@link CommandGroup}.
+     *
+     * @param completer completer to wrap
+     * @param deadline deadline
+     * @param unit unit of {@code deadline}
+     * @return wrapped completer
+     */
+    static AsyncCommandCompleter withDeadline(final AsyncCommandCompleter completer, final long deadline, final TimeUnit unit) {
+        Objects.requireNonNull(completer, "completer");
+        Objects.requireNonNull(unit, "unit");
+        if (deadline < 0) {
+            throw new IllegalArgumentException("deadline must not be negative");
+        }
+        final long deadlineMillis = unit.toMillis(deadline);
+        return new AsyncCommandCompleter() {
+            @Override
+            public CompletableFuture<List<String>> completeAsync(final CompletionData data) {
+                return completer.completeAsync(data);
+            }
+
+            @Override
+            public long getDeadlineMillis() {
+                return deadlineMillis;
+            }
+        };
+    }
+
+    /**
+     * Completes asynchronously.
+     *
+     * @param data completion data
+     * @return future of candidates
+     */
+    CompletableFuture<List<String>> completeAsync(CompletionData data);
+
+    /**
+     * Returns deadline of this completer.
+     *
+     * @return deadline in milliseconds, or negative value to use default deadline of {@link CommandGroup}
+     */
+    default long getDeadlineMillis() {
+        return -1;
+    }
+
+    /**
+     * Completes synchronously. This method waits without deadline.
+     */
+    @Override
+    default List<String> complete(final CompletionData data) {
+        return completeAsync(data).join();
+    }
+}
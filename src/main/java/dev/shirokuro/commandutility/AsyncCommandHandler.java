@@ -0,0 +1,50 @@
+package dev.shirokuro.commandutility;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * {@code CommandHandler} that is executed off the main thread.
+ * <p>
+ * {@link CommandGroup} runs {@link #execute execute} on its execution executor,
+ * and {@link ErrorHandler} is called on the main thread.
+ * Execution is skipped if the sender disconnected before it starts,
+ * and {@link ExecutionData#isSenderConnected()} can be used to stop long running handlers.
+ * Deliver results with {@link ExecutionData#runSync}, which drops them if the sender disconnected meanwhile.
+ * Errors are dropped in the same way.
+ * </p>
+ *
+ * @see CommandGroup#setExecutionExecutor
+ */
+@FunctionalInterface
+public interface AsyncCommandHandler extends CommandHandler {
+
+    /**
+     * Wraps {@code handler} to execute it off the main thread.
+     *
+     * @param handler handler to wrap
+     * @return wrapped handler
+     */
+    static AsyncCommandHandler of(final CommandHandler handler) {
+        Objects.requireNonNull(handler, "handler");
+        if (handler instanceof AsyncCommandHandler) {
+            return (AsyncCommandHandler) handler;
+        }
+        return new AsyncCommandHandler() {
+            @Override
+            public void execute(final ExecutionData data) throws CommandExecutionException {
+                handler.execute(data);
+            }
+
+            @Override
+            public List<String> complete(final CompletionData data) {
+                return handler.complete(data);
+            }
+
+            @Override
+            public String toString() {
+                return "AsyncCommandHandler{handler='" + handler + "'}";
+            }
+        };
+    }
+}
@@ -1,11 +1,12 @@
 package dev.shirokuro.commandutility;
 
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableMap;
+import java.util.AbstractMap;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.Deque;
 import java.util.HashMap;
@@ -13,16 +14,41 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
 
+/**
+ * Branch of command tree.
+ * <p>
+ * Children are kept in an immutable snapshot, and modifications publish a new snapshot,
+ * so reading a branch is safe from any thread without locks. Modifications must not run concurrently;
+ * {@link CommandGroup} serializes them.
+ * </p>
+ */
 public final class BranchNode implements Node {
 
-    private final Map<String, Node> children = new HashMap<>();
     private final String name;
     private final Node parent;
+    private volatile Children children;
+    private final Map<String, Node> childrenView = new ChildrenView();
+    private volatile boolean frozen;
+    /**
+     * Incremented when this branch or a descendant branch is modified.
+     */
+    private volatile long version;
+    private volatile String permission;
+    private volatile RateLimiter rateLimiter;
 
+    /**
+     * Constructs {@code BranchNode}. If {@code parent} is a branch that ignores case, this branch ignores case too.
+     *
+     * @param name name of this branch
+     * @param parent parent node. Nullable
+     */
     public BranchNode(final String name, final Node parent) {
         this.name = Objects.requireNonNull(name);
         this.parent = parent;
+        this.children = Children.empty(parent instanceof BranchNode && ((BranchNode) parent).isIgnoreCase());
     }
 
     public BranchNode(final String name) {
@@ -39,12 +65,280 @@ public final class BranchNode implements Node {
         return Optional.ofNullable(parent);
     }
 
+    /**
+     * Returns children of this branch.
+     *
+     * @return read-only view of children. Changes to this branch are reflected
+     */
     public Map<String, Node> getChildren() {
-        return ImmutableMap.copyOf(children);
+        return childrenView;
+    }
+
+    /**
+     * Returns child that has specified name without copying children.
+     *
+     * @param name name of child
+     * @return child or {@code null} if not exists
+     */
+    Node getChild(final String name) {
+        return children.get(name);
     }
 
     public void addChild(final Node node) {
-        children.put(node.getName(), node);
+        assertNotFrozen();
+        putChild(node);
+    }
+
+    /**
+     * Adds {@code nodes} publishing one snapshot. Existing children of the same names are replaced.
+     *
+     * @param nodes children to add
+     */
+    void addChildren(final List<? extends Node> nodes) {
+        assertNotFrozen();
+        children = children.withAll(nodes);
+        modified();
+    }
+
+    private void putChild(final Node node) {
+        children = children.with(node);
+        modified();
+    }
+
+    /**
+     * Removes child that has specified name. If it is a branch, its descendants are removed with it.
+     *
+     * @param name name of child
+     * @return removed child or {@code null} if not exists
+     */
+    public Node removeChild(final String name) {
+        Objects.requireNonNull(name, "name");
+        assertNotFrozen();
+        final Children current = children;
+        final Node removed = current.get(name);
+        if (removed != null) {
+            children = current.without(removed);
+            modified();
+        }
+        return removed;
+    }
+
+    private void modified() {
+        Node current = this;
+        while (current instanceof BranchNode) {
+            final BranchNode branch = (BranchNode) current;
+            branch.version++;
+            current = branch.parent;
+        }
+    }
+
+    /**
+     * Returns permission required to reach children of this branch.
+     *
+     * @return permission or empty if not required
+     */
+    public Optional<String> getPermission() {
+        return Optional.ofNullable(permission);
+    }
+
+    /**
+     * Returns permission required to reach children of this branch.
+     *
+     * @return permission or {@code null}
+     */
+    String permission() {
+        return permission;
+    }
+
+    /**
+     * Sets permission. Use {@link CommandGroup#setPermission} to register it to the group.
+     */
+    void setPermission(final String permission) {
+        assertNotFrozen();
+        this.permission = permission;
+        modified();
+    }
+
+    /**
+     * Returns rate limit shared by commands under this branch.
+     *
+     * @return rate limit or empty if not limited
+     */
+    public Optional<RateLimit> getRateLimit() {
+        final RateLimiter limiter = rateLimiter;
+        return limiter != null
+            ? Optional.of(limiter.getLimit())
+            : Optional.empty();
+    }
+
+    /**
+     * Returns buckets of rate limit shared by commands under this branch.
+     *
+     * @return rate limiter or {@code null} if not limited
+     */
+    RateLimiter rateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * Sets rate limit. Buckets of previous rate limit are discarded.
+     */
+    void setRateLimit(final RateLimit rateLimit) {
+        assertNotFrozen();
+        this.rateLimiter = rateLimit != null
+            ? new RateLimiter(rateLimit)
+            : null;
+    }
+
+    /**
+     * Copies permission and rate limiter of {@code other}, so this branch shares its buckets.
+     */
+    void inheritSettings(final BranchNode other) {
+        assertNotFrozen();
+        this.permission = other.permission;
+        this.rateLimiter = other.rateLimiter;
+        modified();
+    }
+
+    /**
+     * Returns version of this subtree. It changes when this branch or a descendant branch is modified,
+     * so results computed from the subtree can be cached until it changes.
+     *
+     * @return version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns whether children of this branch are matched ignoring case.
+     *
+     * @return {@code true} if ignores case
+     */
+    public boolean isIgnoreCase() {
+        return children.isIgnoreCase();
+    }
+
+    /**
+     * Sets whether children are matched ignoring case. Branches added later inherit this.
+     *
+     * @throws IllegalStateException if this branch already has children
+     */
+    void setIgnoreCase(final boolean ignoreCase) {
+        assertNotFrozen();
+        if (children.nodes.size() != 0) {
+            throw new IllegalStateException("Branch '" + name + "' already has children");
+        }
+        this.children = Children.empty(ignoreCase);
+    }
+
+    /**
+     * Returns names of children closest to {@code section} by edit distance. Aliases are included.
+     * If this branch {@link #isIgnoreCase() ignores case}, distance is computed ignoring case.
+     * <p>
+     * Names are kept in a {@link CandidateIndex}, so this method doesn't compare {@code section} with all children.
+     * </p>
+     *
+     * @param section section to compare
+     * @param limit maximum number of names
+     * @param maxDistance maximum edit distance
+     * @return read-only list of names. Sorted by distance, then by name
+     */
+    public List<String> closestChildNames(final String section, final int limit, final int maxDistance) {
+        Objects.requireNonNull(section, "section");
+        return children.fuzzyIndex().closest(section, limit, maxDistance);
+    }
+
+    /**
+     * Returns names of children that starts with {@code prefix}. Aliases are not included.
+     * If this branch {@link #isIgnoreCase() ignores case}, {@code prefix} is matched ignoring case.
+     * <p>
+     * Names are kept sorted, so this method finds the range by binary search
+     * and returns it without copying.
+     * </p>
+     *
+     * @param prefix prefix of names
+     * @return read-only list of names. Sorted
+     */
+    public List<String> childNamesStartingWith(final String prefix) {
+        Objects.requireNonNull(prefix, "prefix");
+        final Children snapshot = children;
+        final List<String> names = snapshot.sortedNames();
+        if (prefix.isEmpty()) {
+            return names;
+        }
+        final boolean ignoreCase = snapshot.isIgnoreCase();
+        final int from = lowerBound(names, prefix, comparator(ignoreCase));
+        int low = from;
+        int high = names.size();
+        // Matched names are contiguous from the lower bound
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (names.get(mid).regionMatches(ignoreCase, 0, prefix, 0, prefix.length())) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return names.subList(from, low);
+    }
+
+    private static Comparator<String> comparator(final boolean ignoreCase) {
+        return ignoreCase
+            ? String.CASE_INSENSITIVE_ORDER
+            : Comparator.naturalOrder();
+    }
+
+    /**
+     * Returns index of first element that is not less than {@code key}.
+     */
+    private static int lowerBound(final List<String> sorted, final String key, final Comparator<String> comparator) {
+        int low = 0;
+        int high = sorted.size();
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (comparator.compare(sorted.get(mid), key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns whether this branch is frozen. Frozen branch cannot be modified.
+     *
+     * @return {@code true} if frozen
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * Freeze this branch and all descendant branches.
+     */
+    void freeze() {
+        final Deque<BranchNode> branches = new ArrayDeque<>();
+        branches.addFirst(this);
+        while (true) {
+            final BranchNode branch = branches.pollFirst();
+            if (branch == null) {
+                break;
+            }
+            branch.frozen = true;
+            branch.children.nodes.forEachValue(node -> {
+                if (node instanceof BranchNode) {
+                    branches.addLast((BranchNode) node);
+                }
+            });
+        }
+    }
+
+    private void assertNotFrozen() {
+        if (frozen) {
+            throw new IllegalStateException("Branch '" + name + "' is frozen");
+        }
     }
 
     /**
@@ -53,6 +347,17 @@ public final class BranchNode implements Node {
      * @return List of CommandNode. Sorted.
      */
     public List<CommandNode> walkNodeTree() {
+        return walkNodeTree(node -> true);
+    }
+
+    /**
+     * Walk the tree. Branches that don't match {@code filter} are skipped with their descendants.
+     *
+     * @param filter filter of branches and commands
+     * @return List of CommandNode. Sorted.
+     */
+    public List<CommandNode> walkNodeTree(final Predicate<? super Node> filter) {
+        Objects.requireNonNull(filter, "filter");
         final List<CommandNode> commands = new ArrayList<>();
         final Deque<BranchNode> branches = new ArrayDeque<>();
         branches.addFirst(this);
@@ -61,19 +366,64 @@ public final class BranchNode implements Node {
             if (branch == null) {
                 break;
             }
-            branch.children.values().stream()
-                    .sorted(Comparator.comparing(Node::getName))
-                    .forEach(node -> {
-                        if (node instanceof BranchNode) {
-                            branches.addLast((BranchNode) node);
-                        } else if (node instanceof CommandNode) {
-                            commands.add((CommandNode) node);
-                        }
-                    });
+            // Sorted names are cached until the branch is modified
+            final Children snapshot = branch.children;
+            for (final String childName : snapshot.sortedNames()) {
+                final Node node = snapshot.get(childName);
+                if (!filter.test(node)) {
+                    continue;
+                }
+                if (node instanceof BranchNode) {
+                    branches.addLast((BranchNode) node);
+                } else if (node instanceof CommandNode) {
+                    commands.add((CommandNode) node);
+                }
+            }
         }
         return commands;
     }
 
+    /**
+     * Adds command at {@code sections} under this branch, creating missing branches.
+     * Created branches are published together with the command, so readers never see them empty.
+     *
+     * @param sections sections of the command from this branch
+     * @param command command
+     * @param argumentTypes resolved argument types of the command. Nullable
+     */
+    void addCommand(final List<String> sections, final Command command, final ArgumentType<?>[] argumentTypes) {
+        BranchNode current = this;
+        int index = 0;
+        while (index < sections.size() - 1) {
+            final Node child = current.getChild(sections.get(index));
+            if (child == null) {
+                break;
+            }
+            if (!(child instanceof BranchNode)) {
+                throw new IllegalArgumentException("Node named '" + sections.get(index) + "' is not a branch.");
+            }
+            current = (BranchNode) child;
+            index++;
+        }
+        current.assertNotFrozen();
+        // Build missing branches detached from the tree
+        BranchNode top = null;
+        BranchNode last = current;
+        for (; index < sections.size() - 1; index++) {
+            final BranchNode created = new BranchNode(sections.get(index), last);
+            if (top == null) {
+                top = created;
+            } else {
+                last.putChild(created);
+            }
+            last = created;
+        }
+        last.putChild(new CommandNode(last, sections.get(sections.size() - 1), command, argumentTypes));
+        if (top != null) {
+            current.putChild(top);
+        }
+    }
+
     /**
      * Find branch by specified name. If not exists, it creates new branch.
      *
@@ -81,7 +431,12 @@ public final class BranchNode implements Node {
      * @return Branch
      */
     public BranchNode branch(final String name) {
-        final Node node = children.computeIfAbsent(name, key -> new BranchNode(name, this));
+        Node node = getChild(name);
+        if (node == null) {
+            assertNotFrozen();
+            node = new BranchNode(name, this);
+            putChild(node);
+        }
         if (node instanceof BranchNode) {
             return (BranchNode) node;
         } else {
@@ -94,26 +449,30 @@ public final class BranchNode implements Node {
     }
 
     public WalkResult walk(final List<String> paths) {
-        final Deque<String> pathQueue = new ArrayDeque<>(paths);
-        final List<BranchNode> branches = new ArrayList<>(paths.size());
+        Objects.requireNonNull(paths, "paths");
+        final int size = paths.size();
+        final List<BranchNode> branches = new ArrayList<>(size);
         CommandNode commandNode = null;
         BranchNode current = this;
-        while (true) {
-            final String path = pathQueue.peekFirst();
-            if (path == null) {
-                break;
-            }
-            Node child = current.getChildren().get(path);
-            if (child == null) {
-                break;
-            }
-            while (child instanceof AliasNode) {
-                child = current.getChildren().get(((AliasNode) child).getAliasOf());
+        int index = 0;
+        while (index < size) {
+            final String path = paths.get(index);
+            Node child = current.getChild(path);
+            if (child instanceof AliasNode) {
+                final Node[] resolved = ((AliasNode) child).resolvedPath();
+                if (resolved == null) {
+                    break;
+                }
+                // Target may be under branches of the alias's path
+                for (int i = 0; i < resolved.length - 1; i++) {
+                    branches.add((BranchNode) resolved[i]);
+                }
+                child = resolved[resolved.length - 1];
             }
             if (child == null) {
                 break;
             }
-            pathQueue.removeFirst();
+            index++;
             if (child instanceof BranchNode) {
                 final BranchNode cb = (BranchNode) child;
                 branches.add(cb);
@@ -123,7 +482,194 @@ public final class BranchNode implements Node {
                 break;
             }
         }
-        return new WalkResult(branches, pathQueue, commandNode);
+        return WalkResult.wrap(
+            Collections.unmodifiableList(branches),
+            unreachablePaths(paths, index),
+            commandNode);
+    }
+
+    /**
+     * Returns read-only {@code paths} from {@code index}.
+     * If {@code paths} is a {@link CommandLine}, which is immutable, a view of it is returned without copying.
+     * Other lists are copied, since callers may modify them later.
+     */
+    static List<String> unreachablePaths(final List<String> paths, final int index) {
+        final int size = paths.size();
+        if (index == size) {
+            return Collections.emptyList();
+        }
+        return paths instanceof CommandLine
+            ? ((CommandLine) paths).skip(index)
+            : ImmutableList.copyOf(paths.subList(index, size));
+    }
+
+    /**
+     * Read-only view of children. Each method reads the latest snapshot.
+     */
+    private final class ChildrenView extends AbstractMap<String, Node> {
+
+        @Override
+        public Set<Entry<String, Node>> entrySet() {
+            return children.byName().entrySet();
+        }
+
+        @Override
+        public int size() {
+            return children.nodes.size();
+        }
+
+        @Override
+        public boolean containsKey(final Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public Node get(final Object key) {
+            if (!(key instanceof String)) {
+                return null;
+            }
+            final Node node = children.nodes.get((String) key);
+            // Lookup may ignore case, but keys of this map don't
+            return node != null && node.getName().equals(key)
+                ? node
+                : null;
+        }
+    }
+
+    /**
+     * Immutable children of a branch. A modified branch publishes a new instance,
+     * which shares most of the trie with the previous one.
+     */
+    private static final class Children {
+
+        private final HashTrie<Node> nodes;
+        /**
+         * Children keyed by names. Built on first use.
+         */
+        private volatile Map<String, Node> byName;
+        /**
+         * Sorted names of children except aliases. Built on first use.
+         */
+        private volatile List<String> sortedNames;
+        /**
+         * Names of children for fuzzy search. Built on first search, then shared with next snapshots
+         * that update it.
+         */
+        private volatile CandidateIndex fuzzyIndex;
+
+        private Children(final HashTrie<Node> nodes) {
+            this.nodes = nodes;
+        }
+
+        private static Children empty(final boolean ignoreCase) {
+            return new Children(HashTrie.empty(ignoreCase));
+        }
+
+        private boolean isIgnoreCase() {
+            return nodes.isIgnoreCase();
+        }
+
+        private Node get(final String name) {
+            return nodes.get(name);
+        }
+
+        /**
+         * Returns copy of this with {@code node}. Existing child of the same name is replaced.
+         */
+        private Children with(final Node node) {
+            final Node previous = nodes.get(node.getName());
+            final Children next = new Children(nodes.put(node.getName(), node));
+            final CandidateIndex index = fuzzyIndex;
+            if (index != null) {
+                // Readers of this snapshot may see the change, which only affects suggestions
+                if (previous != null) {
+                    index.remove(previous.getName());
+                }
+                index.add(node.getName());
+                next.fuzzyIndex = index;
+            }
+            return next;
+        }
+
+        /**
+         * Returns copy of this with all of {@code added}.
+         */
+        private Children withAll(final List<? extends Node> added) {
+            final List<String> names = new ArrayList<>(added.size());
+            for (final Node node : added) {
+                names.add(node.getName());
+            }
+            final Children next = new Children(nodes.putAll(names, added));
+            final CandidateIndex index = fuzzyIndex;
+            if (index != null) {
+                for (final Node node : added) {
+                    final Node previous = nodes.get(node.getName());
+                    if (previous != null) {
+                        index.remove(previous.getName());
+                    }
+                }
+                for (final Node node : added) {
+                    // Skip nodes replaced by later ones of the same name
+                    if (next.get(node.getName()) == node) {
+                        index.add(node.getName());
+                    }
+                }
+                next.fuzzyIndex = index;
+            }
+            return next;
+        }
+
+        /**
+         * Returns copy of this without {@code node}.
+         */
+        private Children without(final Node node) {
+            final Children next = new Children(nodes.remove(node.getName()));
+            final CandidateIndex index = fuzzyIndex;
+            if (index != null) {
+                index.remove(node.getName());
+                next.fuzzyIndex = index;
+            }
+            return next;
+        }
+
+        private Map<String, Node> byName() {
+            Map<String, Node> map = byName;
+            if (map == null) {
+                final Map<String, Node> built = new HashMap<>();
+                nodes.forEachValue(node -> built.put(node.getName(), node));
+                map = Collections.unmodifiableMap(built);
+                byName = map;
+            }
+            return map;
+        }
+
+        private List<String> sortedNames() {
+            List<String> names = sortedNames;
+            if (names == null) {
+                final List<String> list = new ArrayList<>(nodes.size());
+                nodes.forEachValue(node -> {
+                    if (!(node instanceof AliasNode)) {
+                        list.add(node.getName());
+                    }
+                });
+                list.sort(comparator(isIgnoreCase()));
+                names = Collections.unmodifiableList(list);
+                sortedNames = names;
+            }
+            return names;
+        }
+
+        private CandidateIndex fuzzyIndex() {
+            CandidateIndex index = fuzzyIndex;
+            if (index == null) {
+                index = isIgnoreCase()
+                    ? CandidateIndex.caseInsensitive()
+                    : CandidateIndex.caseSensitive();
+                index.addAll(byName().keySet());
+                fuzzyIndex = index;
+            }
+            return index;
+        }
     }
 
     @Override
@@ -166,6 +712,20 @@ public final class BranchNode implements Node {
             this.command = command;
         }
 
+        private WalkResult(final CommandNode command, final List<BranchNode> branches, final List<String> unreachablePaths) {
+            this.branches = branches;
+            this.unreachablePaths = unreachablePaths;
+            this.command = command;
+        }
+
+        /**
+         * Creates {@code WalkResult} without copying lists.
+         * Caller must pass read-only lists that will not be modified later.
+         */
+        static WalkResult wrap(final List<BranchNode> branches, final List<String> unreachablePaths, final CommandNode command) {
+            return new WalkResult(command, branches, unreachablePaths);
+        }
+
         /**
          * Returns reached branches.
          *
@@ -0,0 +1,517 @@
+package dev.shirokuro.commandutility;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * {@code CandidateIndex} is a set of candidates that can be queried by prefix.
+ * <p>
+ * Candidates are kept in a compressed radix trie, so a prefix query only visits
+ * matched candidates instead of scanning all of them.
+ * Candidates can be added or removed one by one, and results are sorted.
+ * </p>
+ * <pre>
+ *     CandidateIndex items = CandidateIndex.caseInsensitive();
+ *     items.add("DIAMOND_SWORD");
+ *     group.addCompleter("items", items);
+ * </pre>
+ * This class is thread-safe.
+ */
+public final class CandidateIndex implements CommandCompleter {
+
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final String[] NO_VALUES = new String[0];
+    private static final int OUT_OF_BAND = Integer.MAX_VALUE / 2;
+
+    private final boolean ignoreCase;
+    private final Node root = new Node(new char[0]);
+    private int size;
+
+    private CandidateIndex(final boolean ignoreCase) {
+        this.ignoreCase = ignoreCase;
+    }
+
+    /**
+     * Creates empty index that matches prefix exactly.
+     *
+     * @return index
+     */
+    public static CandidateIndex caseSensitive() {
+        return new CandidateIndex(false);
+    }
+
+    /**
+     * Creates empty index that matches prefix ignoring case.
+     *
+     * @return index
+     */
+    public static CandidateIndex caseInsensitive() {
+        return new CandidateIndex(true);
+    }
+
+    public boolean isIgnoreCase() {
+        return ignoreCase;
+    }
+
+    /**
+     * Adds candidate.
+     *
+     * @param candidate candidate to add
+     * @return {@code true} if this index did not already contain {@code candidate}
+     */
+    public synchronized boolean add(final String candidate) {
+        Objects.requireNonNull(candidate, "candidate");
+        Node node = root;
+        int index = 0;
+        while (index < candidate.length()) {
+            final char c = fold(candidate.charAt(index));
+            final int childIndex = node.findChild(c);
+            if (childIndex < 0) {
+                final Node child = new Node(foldAll(candidate, index));
+                child.addValue(candidate);
+                node.insertChild(-childIndex - 1, child);
+                size++;
+                return true;
+            }
+            Node child = node.children[childIndex];
+            final int matched = matchLength(child.label, candidate, index);
+            if (matched < child.label.length) {
+                child = split(node, childIndex, matched);
+            }
+            node = child;
+            index += matched;
+        }
+        if (node.addValue(candidate)) {
+            size++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Adds all candidates.
+     *
+     * @param candidates candidates to add
+     */
+    public synchronized void addAll(final Collection<String> candidates) {
+        Objects.requireNonNull(candidates, "candidates");
+        for (final String candidate : candidates) {
+            add(candidate);
+        }
+    }
+
+    /**
+     * Removes candidate.
+     *
+     * @param candidate candidate to remove
+     * @return {@code true} if this index contained {@code candidate}
+     */
+    public synchronized boolean remove(final String candidate) {
+        Objects.requireNonNull(candidate, "candidate");
+        if (remove(root, candidate, 0)) {
+            size--;
+            return true;
+        }
+        return false;
+    }
+
+    private boolean remove(final Node node, final String candidate, final int index) {
+        if (index == candidate.length()) {
+            return node.removeValue(candidate);
+        }
+        final int childIndex = node.findChild(fold(candidate.charAt(index)));
+        if (childIndex < 0) {
+            return false;
+        }
+        final Node child = node.children[childIndex];
+        final int matched = matchLength(child.label, candidate, index);
+        if (matched < child.label.length || !remove(child, candidate, index + matched)) {
+            return false;
+        }
+        // Keep the trie compressed
+        if (child.valueCount == 0) {
+            if (child.childCount == 0) {
+                node.removeChild(childIndex);
+            } else if (child.childCount == 1) {
+                node.children[childIndex] = merge(child, child.children[0]);
+            }
+        }
+        return true;
+    }
+
+    public synchronized boolean contains(final String candidate) {
+        Objects.requireNonNull(candidate, "candidate");
+        Node node = root;
+        int index = 0;
+        while (index < candidate.length()) {
+            final int childIndex = node.findChild(fold(candidate.charAt(index)));
+            if (childIndex < 0) {
+                return false;
+            }
+            node = node.children[childIndex];
+            final int matched = matchLength(node.label, candidate, index);
+            if (matched < node.label.length) {
+                return false;
+            }
+            index += matched;
+        }
+        return node.indexOfValue(candidate) >= 0;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized void clear() {
+        root.children = NO_CHILDREN;
+        root.childCount = 0;
+        root.values = NO_VALUES;
+        root.valueCount = 0;
+        size = 0;
+    }
+
+    /**
+     * Finds candidates that starts with {@code prefix}.
+     *
+     * @param prefix prefix of candidates
+     * @return sorted candidates
+     */
+    public List<String> find(final String prefix) {
+        return find(prefix, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Finds candidates that starts with {@code prefix}.
+     *
+     * @param prefix prefix of candidates
+     * @param limit maximum number of candidates
+     * @return sorted candidates
+     */
+    public List<String> find(final String prefix, final int limit) {
+        final List<String> result = new ArrayList<>();
+        find(prefix, limit, result);
+        return result;
+    }
+
+    /**
+     * Finds candidates that starts with {@code prefix} and adds them to {@code result}.
+     * Candidates are added in sorted order and no other objects are allocated per candidate.
+     *
+     * @param prefix prefix of candidates
+     * @param limit maximum number of candidates
+     * @param result collection to add candidates to
+     * @return number of added candidates
+     */
+    public synchronized int find(final String prefix, final int limit, final Collection<? super String> result) {
+        Objects.requireNonNull(prefix, "prefix");
+        Objects.requireNonNull(result, "result");
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit must not be negative");
+        }
+        Node node = root;
+        int index = 0;
+        while (index < prefix.length()) {
+            final int childIndex = node.findChild(fold(prefix.charAt(index)));
+            if (childIndex < 0) {
+                return 0;
+            }
+            node = node.children[childIndex];
+            final int matched = matchLength(node.label, prefix, index);
+            if (matched < node.label.length && index + matched < prefix.length()) {
+                return 0;
+            }
+            index += matched;
+        }
+        return collect(node, limit, result);
+    }
+
+    private static int collect(final Node node, final int limit, final Collection<? super String> result) {
+        int added = 0;
+        for (int i = 0; i < node.valueCount && added < limit; i++) {
+            result.add(node.values[i]);
+            added++;
+        }
+        for (int i = 0; i < node.childCount && added < limit; i++) {
+            added += collect(node.children[i], limit - added, result);
+        }
+        return added;
+    }
+
+    /**
+     * Finds candidates closest to {@code query} by Levenshtein distance.
+     * <p>
+     * Rows of edit distance are computed while walking the trie, so candidates that share a prefix
+     * share the computation, and subtrees whose prefix is already too far from {@code query} are skipped.
+     * The bound is tightened to the distance of the {@code limit}-th closest candidate found so far.
+     * </p>
+     *
+     * @param query string to compare
+     * @param limit maximum number of candidates
+     * @param maxDistance maximum distance of candidates
+     * @return candidates sorted by distance, then by candidate
+     */
+    public synchronized List<String> closest(final String query, final int limit, final int maxDistance) {
+        Objects.requireNonNull(query, "query");
+        if (limit < 0 || maxDistance < 0) {
+            throw new IllegalArgumentException("limit and maxDistance must not be negative");
+        }
+        if (limit == 0 || size == 0) {
+            return new ArrayList<>();
+        }
+        final char[] folded = foldAll(query, 0);
+        final Matches matches = new Matches(Math.min(limit, size), maxDistance);
+        final List<int[]> rows = new ArrayList<>();
+        final int[] first = new int[folded.length + 1];
+        for (int i = 0; i < first.length; i++) {
+            first[i] = i;
+        }
+        rows.add(first);
+        closest(root, folded, 0, rows, matches);
+        return matches.toList();
+    }
+
+    /**
+     * Only cells within the bound from the diagonal are computed, since other cells always exceed the bound.
+     *
+     * @param depth number of characters from root to start of {@code node.label}
+     * @param rows rows of distance by depth. Row at {@code depth} is already computed
+     */
+    private static void closest(
+            final Node node,
+            final char[] query,
+            final int depth,
+            final List<int[]> rows,
+            final Matches matches) {
+        int current = depth;
+        for (final char c : node.label) {
+            if (rows.size() == current + 1) {
+                rows.add(new int[query.length + 1]);
+            }
+            final int[] previous = rows.get(current);
+            final int[] row = rows.get(current + 1);
+            current++;
+            final int bound = matches.bound();
+            final int low = Math.max(1, current - bound);
+            final int high = Math.min(query.length, current + bound);
+            row[0] = current;
+            if (low > 1) {
+                row[low - 1] = OUT_OF_BAND;
+            }
+            if (high < query.length) {
+                row[high + 1] = OUT_OF_BAND;
+            }
+            int min = row[0];
+            for (int j = low; j <= high; j++) {
+                final int cost = query[j - 1] == c ? 0 : 1;
+                row[j] = Math.min(Math.min(row[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                min = Math.min(min, row[j]);
+            }
+            if (min > bound) {
+                // Distance never decreases as the prefix gets longer
+                return;
+            }
+        }
+        // If length differs more than the bound, last cell is out of band
+        if (Math.abs(current - query.length) <= matches.bound()) {
+            final int distance = rows.get(current)[query.length];
+            for (int i = 0; i < node.valueCount && distance <= matches.bound(); i++) {
+                matches.offer(node.values[i], distance);
+            }
+        }
+        for (int i = 0; i < node.childCount; i++) {
+            closest(node.children[i], query, current, rows, matches);
+        }
+    }
+
+    /**
+     * Completes with candidates that starts with {@link CompletionData#getCurrentValue()}.
+     */
+    @Override
+    public List<String> complete(final CompletionData data) {
+        Objects.requireNonNull(data, "data");
+        return find(data.getCurrentValue());
+    }
+
+    /**
+     * Splits label of {@code parent.children[childIndex]} at {@code at}.
+     *
+     * @return new intermediate node
+     */
+    private static Node split(final Node parent, final int childIndex, final int at) {
+        final Node child = parent.children[childIndex];
+        final Node intermediate = new Node(Arrays.copyOfRange(child.label, 0, at));
+        child.label = Arrays.copyOfRange(child.label, at, child.label.length);
+        intermediate.insertChild(0, child);
+        parent.children[childIndex] = intermediate;
+        return intermediate;
+    }
+
+    private static Node merge(final Node parent, final Node child) {
+        final char[] label = new char[parent.label.length + child.label.length];
+        System.arraycopy(parent.label, 0, label, 0, parent.label.length);
+        System.arraycopy(child.label, 0, label, parent.label.length, child.label.length);
+        child.label = label;
+        return child;
+    }
+
+    /**
+     * Returns length of common prefix of {@code label} and {@code key} from {@code offset}.
+     */
+    private int matchLength(final char[] label, final String key, final int offset) {
+        final int max = Math.min(label.length, key.length() - offset);
+        int i = 0;
+        while (i < max && label[i] == fold(key.charAt(offset + i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private char[] foldAll(final String key, final int offset) {
+        final char[] result = new char[key.length() - offset];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = fold(key.charAt(offset + i));
+        }
+        return result;
+    }
+
+    private char fold(final char c) {
+        return ignoreCase
+            ? Character.toLowerCase(Character.toUpperCase(c))
+            : c;
+    }
+
+    /**
+     * Keeps {@code limit} closest candidates sorted by distance, then by candidate.
+     */
+    private static final class Matches {
+
+        private final String[] values;
+        private final int[] distances;
+        private final int maxDistance;
+        private int count;
+
+        private Matches(final int limit, final int maxDistance) {
+            this.values = new String[limit];
+            this.distances = new int[limit];
+            this.maxDistance = maxDistance;
+        }
+
+        private int bound() {
+            return count == values.length
+                ? Math.min(maxDistance, distances[count - 1])
+                : maxDistance;
+        }
+
+        private void offer(final String value, final int distance) {
+            int index = count;
+            while (index > 0 && (distances[index - 1] > distance ||
+                    (distances[index - 1] == distance && values[index - 1].compareTo(value) > 0))) {
+                index--;
+            }
+            if (index == values.length) {
+                return;
+            }
+            final int moved = Math.min(count, values.length - 1) - index;
+            System.arraycopy(values, index, values, index + 1, moved);
+            System.arraycopy(distances, index, distances, index + 1, moved);
+            values[index] = value;
+            distances[index] = distance;
+            if (count < values.length) {
+                count++;
+            }
+        }
+
+        private List<String> toList() {
+            return new ArrayList<>(Arrays.asList(values).subList(0, count));
+        }
+    }
+
+    private static final class Node {
+
+        private char[] label;
+        /**
+         * Sorted by first character of label.
+         */
+        private Node[] children = NO_CHILDREN;
+        private int childCount;
+        /**
+         * Candidates that ends at this node. Sorted.
+         */
+        private String[] values = NO_VALUES;
+        private int valueCount;
+
+        private Node(final char[] label) {
+            this.label = label;
+        }
+
+        /**
+         * Finds child by first character of label.
+         *
+         * @return index of child, or {@code -(insertion point) - 1} if not found
+         */
+        private int findChild(final char c) {
+            int low = 0;
+            int high = childCount - 1;
+            while (low <= high) {
+                final int mid = (low + high) >>> 1;
+                final char midChar = children[mid].label[0];
+                if (midChar < c) {
+                    low = mid + 1;
+                } else if (midChar > c) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        private void insertChild(final int index, final Node child) {
+            if (childCount == children.length) {
+                children = Arrays.copyOf(children, Math.max(2, childCount * 2));
+            }
+            System.arraycopy(children, index, children, index + 1, childCount - index);
+            children[index] = child;
+            childCount++;
+        }
+
+        private void removeChild(final int index) {
+            childCount--;
+            System.arraycopy(children, index + 1, children, index, childCount - index);
+            children[childCount] = null;
+        }
+
+        private int indexOfValue(final String value) {
+            return Arrays.binarySearch(values, 0, valueCount, value);
+        }
+
+        private boolean addValue(final String value) {
+            int index = indexOfValue(value);
+            if (index >= 0) {
+                return false;
+            }
+            index = -index - 1;
+            if (valueCount == values.length) {
+                values = Arrays.copyOf(values, Math.max(1, valueCount * 2));
+            }
+            System.arraycopy(values, index, values, index + 1, valueCount - index);
+            values[index] = value;
+            valueCount++;
+            return true;
+        }
+
+        private boolean removeValue(final String value) {
+            final int index = indexOfValue(value);
+            if (index < 0) {
+                return false;
+            }
+            valueCount--;
+            System.arraycopy(values, index + 1, values, index, valueCount - index);
+            values[valueCount] = null;
+            return true;
+        }
+    }
+}
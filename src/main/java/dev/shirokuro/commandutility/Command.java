@@ -2,11 +2,7 @@ package dev.shirokuro.commandutility;
 
 import com.google.common.base.Splitter;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableMap;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -18,12 +14,46 @@ public final class Command {
     private final List<Parameter> parameters;
     private final CommandHandler handler;
     private final String description;
+    private final String permission;
+    private final RateLimit rateLimit;
+    /**
+     * Binding of each parameter to its index. Created once, so {@link ParamKey}s cache them without allocating.
+     */
+    private final ParamKey.Binding[] bindings;
 
     public Command(
             final List<String> sections,
             final List<Parameter> parameters,
             final CommandHandler handler,
             final String description) {
+        this(sections, parameters, handler, description, null);
+    }
+
+    /**
+     * Constructs {@code Command}.
+     *
+     * @param sections sections
+     * @param parameters parameters
+     * @param handler handler
+     * @param description description. Nullable
+     * @param permission permission required to execute and complete this command. Nullable
+     */
+    public Command(
+            final List<String> sections,
+            final List<Parameter> parameters,
+            final CommandHandler handler,
+            final String description,
+            final String permission) {
+        this(sections, parameters, handler, description, permission, null);
+    }
+
+    private Command(
+            final List<String> sections,
+            final List<Parameter> parameters,
+            final CommandHandler handler,
+            final String description,
+            final String permission,
+            final RateLimit rateLimit) {
         Objects.requireNonNull(sections, "sections");
         Objects.requireNonNull(parameters, "params");
         Objects.requireNonNull(handler, "handler");
@@ -31,10 +61,24 @@ public final class Command {
         this.parameters = ImmutableList.copyOf(parameters);
         this.handler = handler;
         this.description = description;
+        this.permission = permission;
+        this.rateLimit = rateLimit;
         validateParameterOrder();
+        this.bindings = new ParamKey.Binding[this.parameters.size()];
+        for (int i = 0; i < bindings.length; i++) {
+            bindings[i] = new ParamKey.Binding(this, i);
+        }
     }
 
     public static Command fromString(final CommandHandler handler, final String command, final String description) {
+        return fromString(handler, command, description, null);
+    }
+
+    public static Command fromString(
+            final CommandHandler handler,
+            final String command,
+            final String description,
+            final String permission) {
         Objects.requireNonNull(command, "command");
         Objects.requireNonNull(handler, "handler");
         if (command.trim().isEmpty()) {
@@ -53,7 +97,7 @@ public final class Command {
                 sections.add(part);
             }
         }
-        return new Command(sections, parameters, handler, description);
+        return new Command(sections, parameters, handler, description, permission);
     }
 
     private void validateParameterOrder() {
@@ -64,40 +108,110 @@ public final class Command {
         }
     }
 
+    /**
+     * Parses args.
+     *
+     * @return map of parameter name and argument (immutable)
+     * @see #parse(List, boolean)
+     */
     public Map<String, String> parseArgs(final List<String> args, final boolean ignoreNotEnough) throws ArgumentNotEnoughException {
+        return parse(args, ignoreNotEnough).asMap();
+    }
+
+    /**
+     * Parses args. If args are more than parameters, rest of args are joined to the last parameter.
+     *
+     * @param args args to parse
+     * @param ignoreNotEnough if {@code true}, missing required parameters are ignored
+     * @return parsed args
+     * @throws ArgumentNotEnoughException if required parameter is missing and {@code ignoreNotEnough} is {@code false}
+     */
+    public ParsedArgs parse(final List<String> args, final boolean ignoreNotEnough) throws ArgumentNotEnoughException {
         Objects.requireNonNull(args);
-        if (parameters.isEmpty()) {
-            return Collections.emptyMap();
-        }
-        final Map<String, String> result = new HashMap<>();
-        final Iterator<String> iterator = args.iterator();
-        for (final Parameter parameter : parameters) {
-            if (!iterator.hasNext()) {
-                if (ignoreNotEnough || parameter.isOptional()) {
+        final int size = parameters.size();
+        final int argCount = args.size();
+        final String[] result = new String[size];
+        for (int i = 0; i < size; i++) {
+            if (i >= argCount) {
+                if (ignoreNotEnough || parameters.get(i).isOptional()) {
                     break;
                 } else {
                     throw new ArgumentNotEnoughException();
                 }
             }
-            result.put(parameter.getName(), iterator.next());
+            result[i] = args.get(i);
         }
-        if (iterator.hasNext()) {
-            result.compute(parameters.get(result.size() - 1).getName(), (key, value) -> {
-                final StringJoiner joiner = new StringJoiner(" ");
-                joiner.add(value);
-                while (iterator.hasNext()) {
-                    joiner.add(iterator.next());
-                }
-                return joiner.toString();
-            });
+        if (size != 0 && argCount > size) {
+            final StringJoiner joiner = new StringJoiner(" ");
+            joiner.add(result[size - 1]);
+            for (int i = size; i < argCount; i++) {
+                joiner.add(args.get(i));
+            }
+            result[size - 1] = joiner.toString();
+        }
+        return ParsedArgs.of(this, result);
+    }
+
+    /**
+     * Returns index of parameter named {@code parameterName}.
+     *
+     * @param parameterName parameter name
+     * @return index or {@code -1} if not found
+     */
+    public int indexOfParameter(final String parameterName) {
+        Objects.requireNonNull(parameterName, "parameterName");
+        for (int i = 0; i < parameters.size(); i++) {
+            if (parameters.get(i).getName().equals(parameterName)) {
+                return i;
+            }
         }
-        return ImmutableMap.copyOf(result);
+        return -1;
+    }
+
+    /**
+     * Returns binding of parameter named {@code parameterName}.
+     *
+     * @return binding or {@code null} if not found
+     */
+    ParamKey.Binding bindingOf(final String parameterName) {
+        final int index = indexOfParameter(parameterName);
+        return index >= 0
+            ? bindings[index]
+            : null;
     }
 
     public Optional<String> getDescription() {
         return Optional.ofNullable(description);
     }
 
+    /**
+     * Returns permission required to execute and complete this command.
+     *
+     * @return permission or empty if not required
+     */
+    public Optional<String> getPermission() {
+        return Optional.ofNullable(permission);
+    }
+
+    /**
+     * Returns rate limit of each sender to execute this command.
+     *
+     * @return rate limit or empty if not limited
+     */
+    public Optional<RateLimit> getRateLimit() {
+        return Optional.ofNullable(rateLimit);
+    }
+
+    /**
+     * Returns copy of this command limited by {@code rateLimit}.
+     *
+     * @param rateLimit rate limit, or {@code null} to remove
+     * @return new command
+     */
+    public Command withRateLimit(final RateLimit rateLimit) {
+        return new Command(sections, parameters, handler, description, permission, rateLimit);
+    }
+
     public List<String> getSections() {
         return sections;
     }
@@ -122,12 +236,14 @@ public final class Command {
         return Objects.equals(sections, command.sections) &&
             Objects.equals(parameters, command.parameters) &&
             Objects.equals(handler, command.handler) &&
-            Objects.equals(description, command.description);
+            Objects.equals(description, command.description) &&
+            Objects.equals(permission, command.permission) &&
+            Objects.equals(rateLimit, command.rateLimit);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(sections, parameters, handler, description);
+        return Objects.hash(sections, parameters, handler, description, permission, rateLimit);
     }
 
     @Override
@@ -135,7 +251,9 @@ public final class Command {
         return "Command{sections:'" + sections +
             "',parameters='" + parameters +
             "',handler='" + handler +
-            "',description='" + description + "'}";
+            "',description='" + description +
+            "',permission='" + permission +
+            "',rateLimit='" + rateLimit + "'}";
     }
 
     public static class ArgumentNotEnoughException extends Exception {
@@ -5,21 +5,48 @@ import dev.shirokuro.commandutility.annotation.*;
 import dev.shirokuro.commandutility.platform.*;
 import java.lang.reflect.*;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import lombok.NonNull;
 import org.bukkit.command.CommandSender;
 
+/**
+ * {@code CommandGroup} dispatches commands to handlers.
+ * <p>
+ * This class is thread-safe. Modifications are serialized, and each of them publishes immutable snapshots
+ * of changed branches and maps, so {@link #execute execute} and {@link #complete complete} read them without locks.
+ * Commands can be added while other threads dispatch commands.
+ * </p>
+ */
 public final class CommandGroup implements PlatformCommandHandler {
 
-    private final Map<String, CommandCompleter> completerMap = new HashMap<>();
+    private static final long DEFAULT_COMPLETION_DEADLINE_MILLIS = 2;
+
+    private volatile Map<String, CommandCompleter> completerMap = Collections.emptyMap();
+    private volatile Map<String, ArgumentType<?>> argumentTypeMap = Collections.emptyMap();
     private final BranchNode root = new BranchNode("root");
+    private final PermissionCache permissionCache = new PermissionCache();
+    // First sections whose handler is registered by this group. Guarded by this
+    private final Set<String> registeredRoots = new HashSet<>();
     private final ErrorHandler errorHandler;
     private final Platform platform;
+    private volatile FrozenTree frozenTree;
+    private volatile java.util.concurrent.Executor completionExecutor = ForkJoinPool.commonPool();
+    private volatile long completionDeadlineMillis = DEFAULT_COMPLETION_DEADLINE_MILLIS;
+    private final CompletionCoalescer completionCoalescer = new CompletionCoalescer(1);
+    private volatile java.util.concurrent.Executor executionExecutor;
+    private volatile CompletionCache completionCache;
+    private volatile CommandMetrics metrics;
+    private volatile RateLimiter completionRateLimiter;
 
     public CommandGroup(final Platform platform, final ErrorHandler errorHandler) {
         this.errorHandler = Objects.requireNonNull(errorHandler, "errorHandler");
         this.platform = Objects.requireNonNull(platform, "platform");
+        this.executionExecutor = task -> platform.getScheduler().runAsync(task);
         addDefaultCompleters();
     }
 
@@ -39,14 +66,423 @@ public final class CommandGroup implements PlatformCommandHandler {
         return root;
     }
 
+    public Platform getPlatform() {
+        return platform;
+    }
+
+    /**
+     * Returns cache of permissions required by commands and branches of this group.
+     *
+     * @return permission cache
+     */
+    public PermissionCache getPermissionCache() {
+        return permissionCache;
+    }
+
+    /**
+     * Sets permission required to reach commands under the branch.
+     * Senders without the permission are rejected before parsing,
+     * and cannot see the commands in completion and help.
+     * <pre>
+     *     group.setPermission("warp admin", "myplugin.warp.admin");
+     * </pre>
+     *
+     * @param branchPath path of branch. Branch is created if not exists
+     * @param permission permission, or {@code null} to remove
+     * @return CommandGroup
+     */
+    public synchronized CommandGroup setPermission(final @NonNull String branchPath, final String permission) {
+        assertNotFrozen();
+        BranchNode current = root;
+        for (final String section : branchPath.split(" ")) {
+            current = current.branch(section);
+        }
+        if (permission != null) {
+            permissionCache.register(permission);
+        }
+        current.setPermission(permission);
+        return this;
+    }
+
+    /**
+     * Sets rate limit shared by commands under the branch.
+     * Senders exceeding it are rejected before parsing, and {@link ErrorHandler#onRateLimited} is called.
+     * Rate limit of each command can be set by {@link Command#withRateLimit} or {@code @Cooldown}.
+     * <pre>
+     *     group.setRateLimit("warp", RateLimit.of(5, 1, TimeUnit.MINUTES));
+     * </pre>
+     *
+     * @param branchPath path of branch. Branch is created if not exists
+     * @param rateLimit rate limit, or {@code null} to remove
+     * @return CommandGroup
+     */
+    public synchronized CommandGroup setRateLimit(final @NonNull String branchPath, final RateLimit rateLimit) {
+        assertNotFrozen();
+        BranchNode current = root;
+        for (final String section : branchPath.split(" ")) {
+            current = current.branch(section);
+        }
+        current.setRateLimit(rateLimit);
+        return this;
+    }
+
+    /**
+     * Sets rate limit of each sender to invoke completers. Completion is not limited by default.
+     * Senders exceeding it get no candidates. Section names are completed regardless of it.
+     *
+     * @param rateLimit rate limit, or {@code null} to disable
+     * @return CommandGroup
+     */
+    public CommandGroup setCompletionRateLimit(final RateLimit rateLimit) {
+        this.completionRateLimiter = rateLimit != null
+            ? new RateLimiter(rateLimit)
+            : null;
+        return this;
+    }
+
+    /**
+     * Returns rate limit of each sender to invoke completers.
+     *
+     * @return rate limit or empty if not limited
+     */
+    public Optional<RateLimit> getCompletionRateLimit() {
+        final RateLimiter limiter = completionRateLimiter;
+        return limiter != null
+            ? Optional.of(limiter.getLimit())
+            : Optional.empty();
+    }
+
+    /**
+     * Returns whether {@code sender} has permission required by {@code node} itself.
+     * Permissions of parent branches are not checked.
+     *
+     * @param sender sender
+     * @param node branch or command
+     * @return {@code true} if allowed
+     */
+    boolean isPermitted(final CommandSender sender, final Node node) {
+        final String permission;
+        if (node instanceof BranchNode) {
+            permission = ((BranchNode) node).permission();
+        } else if (node instanceof CommandNode) {
+            permission = ((CommandNode) node).getCommand().getPermission().orElse(null);
+        } else {
+            permission = null;
+        }
+        return permission == null || permissionCache.hasPermission(sender, permission);
+    }
+
+    /**
+     * Returns names of children of {@code branch} that starts with {@code prefix} and {@code sender} is permitted.
+     */
+    private List<String> permittedChildNames(final CommandSender sender, final BranchNode branch, final String prefix) {
+        final List<String> names = branch.childNamesStartingWith(prefix);
+        if (permissionCache.isEmpty()) {
+            return names;
+        }
+        final List<String> result = new ArrayList<>(names.size());
+        for (final String name : names) {
+            if (isPermitted(sender, branch.getChild(name))) {
+                result.add(name);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns first node in {@code findResult} that {@code sender} isn't permitted.
+     *
+     * @return node or {@code null} if all reached nodes are permitted
+     */
+    private Node findDenied(final CommandSender sender, final BranchNode.WalkResult findResult) {
+        if (permissionCache.isEmpty()) {
+            return null;
+        }
+        final List<BranchNode> branches = findResult.getBranches();
+        for (int i = 0; i < branches.size(); i++) {
+            if (!isPermitted(sender, branches.get(i))) {
+                return branches.get(i);
+            }
+        }
+        final CommandNode command = findResult.getCommand().orElse(null);
+        return command != null && !isPermitted(sender, command)
+            ? command
+            : null;
+    }
+
+    private static RateLimiter rateLimiter(final List<BranchNode> branches, final CommandNode command, final int index) {
+        return index < branches.size()
+            ? branches.get(index).rateLimiter()
+            : command.rateLimiter();
+    }
+
+    /**
+     * Takes permits of rate limits of {@code command} and branches to it.
+     * If any of them has no permit, {@link ErrorHandler#onRateLimited} is called.
+     *
+     * @return {@code true} if permits are taken
+     */
+    private boolean acquireRateLimits(
+            final CommandSender sender,
+            final List<BranchNode> branches,
+            final CommandNode command,
+            final CommandMetrics metrics) {
+        long now = 0;
+        boolean limited = false;
+        // Check all before taking, so that permits of branches aren't taken if the command is limited
+        for (int i = 0; i <= branches.size(); i++) {
+            final RateLimiter limiter = rateLimiter(branches, command, i);
+            if (limiter == null) {
+                continue;
+            }
+            if (!limited) {
+                now = System.nanoTime();
+                limited = true;
+            }
+            final long wait = limiter.waitTime(sender, now);
+            if (wait > 0) {
+                onRateLimited(sender, i < branches.size() ? branches.get(i) : command, wait, metrics);
+                return false;
+            }
+        }
+        if (!limited) {
+            return true;
+        }
+        for (int i = 0; i <= branches.size(); i++) {
+            final RateLimiter limiter = rateLimiter(branches, command, i);
+            if (limiter == null) {
+                continue;
+            }
+            // Other thread of the same sender may have taken it since checked
+            final long wait = limiter.tryAcquire(sender, now);
+            if (wait > 0) {
+                onRateLimited(sender, i < branches.size() ? branches.get(i) : command, wait, metrics);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void onRateLimited(final CommandSender sender, final Node node, final long waitNanos, final CommandMetrics metrics) {
+        if (metrics != null) {
+            metrics.recordRateLimited();
+        }
+        errorHandler.onRateLimited(this, sender, node, TimeUnit.NANOSECONDS.toMillis(waitNanos));
+    }
+
+    /**
+     * Returns whether {@code sender} has to wait for rate limits of {@code command} or branches to it.
+     */
+    private static boolean isRateLimited(final CommandSender sender, final List<BranchNode> branches, final CommandNode command) {
+        long now = 0;
+        for (int i = 0; i <= branches.size(); i++) {
+            final RateLimiter limiter = rateLimiter(branches, command, i);
+            if (limiter == null) {
+                continue;
+            }
+            if (now == 0) {
+                now = System.nanoTime();
+            }
+            if (limiter.waitTime(sender, now) > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Sets executor to run {@link AsyncCommandHandler}.
+     * Default executor runs handlers with {@link PlatformScheduler#runAsync}.
+     *
+     * @param executor executor
+     * @return CommandGroup
+     */
+    public CommandGroup setExecutionExecutor(final @NonNull java.util.concurrent.Executor executor) {
+        this.executionExecutor = executor;
+        return this;
+    }
+
+    /**
+     * Sets whether sections of commands and aliases are matched ignoring case, like {@code /Warp Set}.
+     * Section names are folded once when they are added, so matching ignoring case
+     * doesn't allocate per section. Completion of sections ignores case too.
+     * Default is {@code false}.
+     *
+     * @param ignoreCase {@code true} to ignore case
+     * @return CommandGroup
+     * @throws IllegalStateException if commands are already added
+     */
+    public synchronized CommandGroup setIgnoreCase(final boolean ignoreCase) {
+        assertNotFrozen();
+        root.setIgnoreCase(ignoreCase);
+        return this;
+    }
+
+    public boolean isIgnoreCase() {
+        return root.isIgnoreCase();
+    }
+
+    /**
+     * Freeze this group. After freezing, commands and aliases cannot be added
+     * and {@link #execute execute} and {@link #complete complete} use
+     * compiled immutable tree that is safe to read from any thread.
+     *
+     * @return CommandGroup
+     */
+    public synchronized CommandGroup freeze() {
+        if (frozenTree == null) {
+            root.freeze();
+            frozenTree = FrozenTree.build(root);
+        }
+        return this;
+    }
+
+    public boolean isFrozen() {
+        return frozenTree != null;
+    }
+
+    private void assertNotFrozen() {
+        if (frozenTree != null) {
+            throw new IllegalStateException("CommandGroup is frozen");
+        }
+    }
+
+    private BranchNode.WalkResult walk(final List<String> commandLine) {
+        final FrozenTree tree = frozenTree;
+        return tree != null
+            ? tree.walk(commandLine)
+            : root.walk(commandLine);
+    }
+
     private void addDefaultCompleters() {
-        completerMap.putAll(platform.defaultCompleters());
+        completerMap = Collections.unmodifiableMap(new HashMap<>(platform.defaultCompleters()));
+        final Map<String, ArgumentType<?>> types = new HashMap<>();
+        types.put("int", ArgumentType.INT);
+        types.put("double", ArgumentType.DOUBLE);
+        types.putAll(platform.defaultArgumentTypes());
+        argumentTypeMap = Collections.unmodifiableMap(types);
     }
 
-    public CommandGroup addCompleter(final String argumentName, final CommandCompleter completer) {
+    /**
+     * Returns copy of {@code map} with {@code key} mapped to {@code value}.
+     */
+    private static <V> Map<String, V> with(final Map<String, V> map, final String key, final V value) {
+        final Map<String, V> copy = new HashMap<>(map);
+        copy.put(key, value);
+        return Collections.unmodifiableMap(copy);
+    }
+
+    /**
+     * Sets executor to run {@link AsyncCommandCompleter}. Default is {@link ForkJoinPool#commonPool()}.
+     * Use dedicated executor if completers block.
+     *
+     * @param executor executor
+     * @return CommandGroup
+     */
+    public CommandGroup setCompletionExecutor(final @NonNull java.util.concurrent.Executor executor) {
+        this.completionExecutor = executor;
+        return this;
+    }
+
+    /**
+     * Sets default deadline of {@link AsyncCommandCompleter}. Default is 2 milliseconds.
+     * If completer couldn't complete until the deadline, no candidates are returned.
+     * <p>
+     * The thread that requested completion, which is the server thread on Bukkit, waits until the deadline.
+     * So the deadline is added to latency of the server thread. Keep it well below a tick (50 milliseconds).
+     * </p>
+     *
+     * @param deadline deadline
+     * @param unit unit of {@code deadline}
+     * @return CommandGroup
+     */
+    public CommandGroup setCompletionDeadline(final long deadline, final @NonNull TimeUnit unit) {
+        if (deadline < 0) {
+            throw new IllegalArgumentException("deadline must not be negative");
+        }
+        this.completionDeadlineMillis = unit.toMillis(deadline);
+        return this;
+    }
+
+    /**
+     * Sets maximum number of {@link AsyncCommandCompleter}s running for each sender. Default is 1.
+     * <p>
+     * Completion requests of each sender are coalesced, and the newest one wins.
+     * When a sender requests again, older requests that haven't started get no candidates without running,
+     * and results of running ones are discarded. If the sender already has this many completers running,
+     * the newest request waits for one of them to finish. The requesting thread doesn't wait for it,
+     * and gets candidates of the last completed request of the sender narrowed to the current value,
+     * or no candidates if the last request was for another parameter.
+     * </p>
+     *
+     * @param maxConcurrentCompletions maximum number of completers for each sender
+     * @return CommandGroup
+     */
+    public CommandGroup setMaxConcurrentCompletions(final int maxConcurrentCompletions) {
+        completionCoalescer.setMaxConcurrent(maxConcurrentCompletions);
+        return this;
+    }
+
+    /**
+     * Sets cache of completion results. Cache is disabled by default.
+     *
+     * @param cache cache, or {@code null} to disable cache
+     * @return CommandGroup
+     */
+    public CommandGroup setCompletionCache(final CompletionCache cache) {
+        this.completionCache = cache;
+        return this;
+    }
+
+    /**
+     * Returns cache of completion results.
+     *
+     * @return cache or empty if disabled
+     */
+    public Optional<CompletionCache> getCompletionCache() {
+        return Optional.ofNullable(completionCache);
+    }
+
+    /**
+     * Sets metrics to record invocations and latencies. Metrics are disabled by default.
+     *
+     * @param metrics metrics, or {@code null} to disable metrics
+     * @return CommandGroup
+     */
+    public CommandGroup setMetrics(final CommandMetrics metrics) {
+        this.metrics = metrics;
+        return this;
+    }
+
+    /**
+     * Returns metrics.
+     *
+     * @return metrics or empty if disabled
+     */
+    public Optional<CommandMetrics> getMetrics() {
+        return Optional.ofNullable(metrics);
+    }
+
+    public synchronized CommandGroup addCompleter(final String argumentName, final CommandCompleter completer) {
         Objects.requireNonNull(argumentName);
         Objects.requireNonNull(completer);
-        completerMap.put(argumentName, completer);
+        assertNotFrozen();
+        completerMap = with(completerMap, argumentName, completer);
+        return this;
+    }
+
+    /**
+     * Adds argument type. Parameters like {@code <name:typeName>} are converted with the type.
+     * Types {@code int} and {@code double} are available by default, and platform may provide more types.
+     * Types are resolved when commands are added, so add types before commands that use them.
+     *
+     * @param typeName name of type
+     * @param type type
+     * @return CommandGroup
+     */
+    public synchronized CommandGroup addArgumentType(final @NonNull String typeName, final @NonNull ArgumentType<?> type) {
+        assertNotFrozen();
+        argumentTypeMap = with(argumentTypeMap, typeName, type);
         return this;
     }
 
@@ -56,46 +492,58 @@ public final class CommandGroup implements PlatformCommandHandler {
      *     // Example
      *     addAlias("foo b", "bar");
      *     // If called like above, "/foo b" treated as "/foo bar".
+     *     addAlias("tp", "teleport here");
+     *     // Target may be a path. "/tp" treated as "/teleport here".
      * </pre>
+     * Target is resolved from the branch of the alias. It may not exist yet, or may be another alias.
+     * Chains of aliases are flattened when they are resolved.
      *
      * @param aliasPath path of alias
-     * @param targetName target section name
+     * @param targetName target sections separated by space
      * @return CommandGroup
+     * @throws IllegalArgumentException if the alias reaches itself through the target
      */
-    public CommandGroup addAlias(final @NonNull String aliasPath, final @NonNull String targetName) {
+    public synchronized CommandGroup addAlias(final @NonNull String aliasPath, final @NonNull String targetName) {
+        assertNotFrozen();
+        final List<String> sections = Arrays.asList(aliasPath.split(" "));
         BranchNode current = root;
-        final Iterator<String> sectionIter = Arrays.asList(aliasPath.split(" ")).iterator();
-        while (sectionIter.hasNext()) {
-            final String section = sectionIter.next();
-            if (sectionIter.hasNext()) {
-                current = current.branch(section);
-            } else {
-                current.addChild(new AliasNode(current, section, targetName));
-            }
+        for (final String section : sections.subList(0, sections.size() - 1)) {
+            current = current.branch(section);
         }
+        final String name = sections.get(sections.size() - 1);
+        final AliasNode alias = new AliasNode(current, name, targetName);
+        // Reject cycles before readers can see them
+        AliasNode.checkAcyclic(current, name, alias.getTarget());
+        current.addChild(alias);
         return this;
     }
 
-    public CommandGroup add(final Command command) {
+    /**
+     * Adds command. Argument types named by its parameters are resolved now, so add types before the command.
+     * Completers are looked up when completing, and may be added later.
+     *
+     * @param command command
+     * @return CommandGroup
+     * @throws IllegalArgumentException if sections are empty, or the first section is not registered by any plugins
+     */
+    public synchronized CommandGroup add(final Command command) {
         Objects.requireNonNull(command, "command");
-        final String firstSection = command.getSections().get(0);
-        final boolean firstTime = !root.getChildren().containsKey(firstSection);
-        // Insert Command to tree
-        BranchNode current = root;
-        final Iterator<String> sectionIter = command.getSections().iterator();
-        while (sectionIter.hasNext()) {
-            final String section = sectionIter.next();
-            if (sectionIter.hasNext()) {
-                current = current.branch(section);
-            } else {
-                current.addChild(new CommandNode(current, section, command));
-            }
+        assertNotFrozen();
+        if (command.getSections().isEmpty()) {
+            throw new IllegalArgumentException("Section is empty!");
         }
+        final ArgumentType<?>[] argumentTypes = resolveArgumentTypes(command);
+        command.getPermission().ifPresent(permissionCache::register);
+        final String firstSection = command.getSections().get(0);
+        final boolean firstTime = !registeredRoots.contains(firstSection);
+        // Insert Command to tree. Readers see it with its new branches at once
+        root.addCommand(command.getSections(), command, argumentTypes);
         // First time process
         if (firstTime) {
             // Register handler to platform
             try {
                 platform.registerHandler(firstSection, this);
+                registeredRoots.add(firstSection);
             } catch (final CommandNotExistsException e) {
                 throw new IllegalArgumentException("Command: " + firstSection +
                     " is not registered by any plugins", e);
@@ -104,16 +552,241 @@ public final class CommandGroup implements PlatformCommandHandler {
         return this;
     }
 
-    public CommandGroup add(final CommandHandler handler, final String command, final String description) {
-        final Command result = Command.fromString(handler, command, description);
-        if (result.getSections().isEmpty()) {
-            throw new IllegalArgumentException("Section is empty!");
+    /**
+     * Removes command, branch or alias at {@code path}. Commands under a removed branch are removed with it,
+     * and branches that become empty are removed too. If no commands remain under the first section,
+     * the handler this group registered for it is unregistered from the platform. Removing an alias never unregisters.
+     * Commands being dispatched by other threads are not affected.
+     *
+     * @param path path of command, branch or alias
+     * @return {@code true} if removed, {@code false} if nothing exists at {@code path}
+     */
+    public synchronized boolean remove(final @NonNull String path) {
+        assertNotFrozen();
+        Node node = find(Arrays.asList(path.split(" ")));
+        if (node == null) {
+            return false;
+        }
+        BranchNode parent = (BranchNode) node.getParent().get();
+        // Remove the highest ancestor that has nothing else, so empty branches are not left
+        while (parent != root && parent.getChildren().size() == 1) {
+            node = parent;
+            parent = (BranchNode) parent.getParent().get();
+        }
+        parent.removeChild(node.getName());
+        // Aliases and branches of other groups are left registered
+        if (parent == root && !(node instanceof AliasNode) && registeredRoots.remove(node.getName())) {
+            platform.unregisterHandler(node.getName(), this);
+        }
+        return true;
+    }
+
+    /**
+     * Replaces existing command that has the same sections as {@code command}.
+     * Other threads see either the old command or the new one.
+     *
+     * @param command new command
+     * @return CommandGroup
+     * @throws IllegalArgumentException if no command exists at sections of {@code command}
+     */
+    public synchronized CommandGroup replace(final @NonNull Command command) {
+        assertNotFrozen();
+        final Node existing = find(command.getSections());
+        if (!(existing instanceof CommandNode)) {
+            throw new IllegalArgumentException("Command '" + String.join(" ", command.getSections()) + "' does not exist");
+        }
+        final ArgumentType<?>[] argumentTypes = resolveArgumentTypes(command);
+        command.getPermission().ifPresent(permissionCache::register);
+        final BranchNode parent = (BranchNode) existing.getParent().get();
+        parent.addChild(new CommandNode(parent, existing.getName(), command, argumentTypes));
+        return this;
+    }
+
+    /**
+     * Replaces all commands under the branch with {@code commands}.
+     * The new branch is built before it is published, so other threads see either all old commands
+     * or all new ones. Permission and rate limit of the branch are kept.
+     * If the branch doesn't exist, {@code commands} are added. If {@code commands} is empty, the branch is removed.
+     *
+     * @param branchPath path of branch
+     * @param commands new commands. Their sections must start with {@code branchPath}
+     * @return CommandGroup
+     * @throws IllegalArgumentException if a command is not under the branch, or a node at {@code branchPath} is not a branch
+     */
+    public synchronized CommandGroup replace(final @NonNull String branchPath, final @NonNull Collection<Command> commands) {
+        assertNotFrozen();
+        final List<String> branchSections = Arrays.asList(branchPath.split(" "));
+        final Map<Command, ArgumentType<?>[]> argumentTypes = new IdentityHashMap<>();
+        for (final Command command : commands) {
+            Objects.requireNonNull(command, "command");
+            if (!isUnder(command.getSections(), branchSections)) {
+                throw new IllegalArgumentException("Command '" + String.join(" ", command.getSections()) +
+                    "' is not under '" + branchPath + "'");
+            }
+            argumentTypes.put(command, resolveArgumentTypes(command));
+        }
+        final Node existing = find(branchSections);
+        if (existing != null && !(existing instanceof BranchNode)) {
+            throw new IllegalArgumentException("Node named '" + existing.getName() + "' is not a branch.");
+        }
+        if (commands.isEmpty()) {
+            if (existing != null) {
+                remove(branchPath);
+            }
+            return this;
+        }
+        if (existing == null) {
+            commands.forEach(this::add);
+            return this;
+        }
+        final BranchNode parent = (BranchNode) existing.getParent().get();
+        final BranchNode replacement = new BranchNode(existing.getName(), parent);
+        replacement.inheritSettings((BranchNode) existing);
+        for (final Command command : commands) {
+            command.getPermission().ifPresent(permissionCache::register);
+            final List<String> sections = command.getSections();
+            replacement.addCommand(sections.subList(branchSections.size(), sections.size()), command, argumentTypes.get(command));
+        }
+        parent.addChild(replacement);
+        return this;
+    }
+
+    /**
+     * Returns node at {@code sections} without resolving aliases.
+     *
+     * @return node or {@code null} if not exists
+     */
+    private Node find(final List<String> sections) {
+        Node current = root;
+        for (final String section : sections) {
+            if (!(current instanceof BranchNode)) {
+                return null;
+            }
+            current = ((BranchNode) current).getChild(section);
+            if (current == null) {
+                return null;
+            }
+        }
+        return current == root
+            ? null
+            : current;
+    }
+
+    /**
+     * Returns whether {@code sections} is longer than {@code branchSections} and starts with it.
+     */
+    private boolean isUnder(final List<String> sections, final List<String> branchSections) {
+        if (sections.size() <= branchSections.size()) {
+            return false;
+        }
+        for (int i = 0; i < branchSections.size(); i++) {
+            final boolean matches = isIgnoreCase()
+                ? sections.get(i).equalsIgnoreCase(branchSections.get(i))
+                : sections.get(i).equals(branchSections.get(i));
+            if (!matches) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds all {@code commands} at once. Conflicts are checked for the whole batch before any command is added,
+     * and all of them are reported together. Handlers of new first sections are registered to the platform
+     * once each, after all commands are added.
+     * Like {@link #add(Command)}, existing commands of the same sections are replaced.
+     *
+     * @param commands commands to add
+     * @return CommandGroup
+     * @throws IllegalArgumentException if commands conflict with each other or with existing nodes,
+     *     or first sections are not registered by any plugins
+     */
+    public synchronized CommandGroup addCommands(final @NonNull Collection<Command> commands) {
+        assertNotFrozen();
+        final List<String> errors = new ArrayList<>();
+        final PendingBranch pending = new PendingBranch(null);
+        final Map<Command, ArgumentType<?>[]> argumentTypes = new IdentityHashMap<>();
+        for (final Command command : commands) {
+            Objects.requireNonNull(command, "command");
+            argumentTypes.put(command, resolveArgumentTypes(command));
+            pending.add(command, root, errors);
+        }
+        if (!errors.isEmpty()) {
+            throw new IllegalArgumentException("Cannot add commands:\n" + String.join("\n", errors));
+        }
+        commands.forEach(command -> command.getPermission().ifPresent(permissionCache::register));
+        final List<String> newRootNames = new ArrayList<>();
+        for (final Object child : pending.children.values()) {
+            final String name = PendingBranch.nameOf(child);
+            if (!registeredRoots.contains(name)) {
+                newRootNames.add(name);
+            }
+        }
+        pending.insertTo(root, argumentTypes);
+        final List<String> notRegistered = new ArrayList<>();
+        for (final String first : newRootNames) {
+            try {
+                platform.registerHandler(first, this);
+                registeredRoots.add(first);
+            } catch (final CommandNotExistsException e) {
+                notRegistered.add(first);
+            }
+        }
+        if (!notRegistered.isEmpty()) {
+            throw new IllegalArgumentException("Commands: " + String.join(", ", notRegistered) +
+                " are not registered by any plugins");
         }
-        add(result);
         return this;
     }
 
+    /**
+     * Returns batch that adds commands by {@link #addCommands(Collection)} when registered.
+     * <pre>
+     *     group.batch()
+     *         .add(warpHandler, "warp set &lt;name&gt;", "Sets warp")
+     *         .add(warpHandler, "warp &lt;name&gt;", "Warps")
+     *         .register();
+     * </pre>
+     *
+     * @return new batch
+     */
+    public Batch batch() {
+        return new Batch();
+    }
+
+    public CommandGroup add(final CommandHandler handler, final String command, final String description) {
+        return add(handler, command, description, null);
+    }
+
+    /**
+     * Adds command that requires {@code permission}.
+     *
+     * @param handler handler
+     * @param command command string like {@code "warp set <name>"}
+     * @param description description. Nullable
+     * @param permission permission required to execute and complete the command. Nullable
+     * @return CommandGroup
+     */
+    public CommandGroup add(final CommandHandler handler, final String command, final String description, final String permission) {
+        return add(Command.fromString(handler, command, description, permission));
+    }
+
+    /**
+     * Add all commands declared by methods annotated with {@code @Executor} or {@code @Completer}.
+     * If {@link CommandRegistration} generated for type of {@code o} exists, it is used instead of reflection.
+     * Either way, commands are added by {@link #addCommands(Collection)}, so nothing is added if any of them conflict.
+     *
+     * @param o handler
+     * @return CommandGroup
+     * @throws IllegalArgumentException if methods are invalid, or commands conflict
+     */
     public CommandGroup addAll(final Object o) {
+        Objects.requireNonNull(o, "o");
+        final CommandRegistration<Object> registration = findGeneratedRegistration(o.getClass());
+        if (registration != null) {
+            registration.register(this, o);
+            return this;
+        }
         final Map<String, ReflectedHandlerInfo> handlerInfoMap = new HashMap<>();
         // find all annotated methods
         for (Method method : o.getClass().getDeclaredMethods()) {
@@ -129,10 +802,19 @@ public final class CommandGroup implements PlatformCommandHandler {
                 final ReflectedHandlerInfo info =
                         handlerInfoMap.computeIfAbsent(executorAnnotation.value(), s -> new ReflectedHandlerInfo());
                 info.executor = method;
+                info.async = method.isAnnotationPresent(Async.class);
                 final Description description = method.getAnnotation(Description.class);
                 if (description != null) {
                     info.description = description.value();
                 }
+                final Permission permission = method.getAnnotation(Permission.class);
+                if (permission != null) {
+                    info.permission = permission.value();
+                }
+                final Cooldown cooldown = method.getAnnotation(Cooldown.class);
+                if (cooldown != null) {
+                    info.rateLimit = RateLimit.of(cooldown.permits(), cooldown.value(), cooldown.unit());
+                }
             } else if (completerAnnotation != null) {
                 ReflectionUtils.assertPublic(method);
                 if (!ReflectionUtils.equalsMethodParams(method, CompletionData.class)) {
@@ -146,53 +828,244 @@ public final class CommandGroup implements PlatformCommandHandler {
             }
         }
         // add found executor/completers
+        final List<Command> commands = new ArrayList<>(handlerInfoMap.size());
         handlerInfoMap.forEach((command, info) -> {
             final Method completer = info.completer;
             final Method executor = info.executor;
             if (completer != null && executor == null) {
                 throw new IllegalArgumentException("Cannot find executor for '" + command + "'");
             }
-            final ReflectedCommandHandler handler = new ReflectedCommandHandler(o, executor, completer);
-            add(handler, command, info.description);
+            final CommandHandler handler = info.async
+                    ? AsyncCommandHandler.of(new ReflectedCommandHandler(o, executor, completer))
+                    : new ReflectedCommandHandler(o, executor, completer);
+            commands.add(Command.fromString(handler, command, info.description, info.permission).withRateLimit(info.rateLimit));
         });
-        return this;
+        return addCommands(commands);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static CommandRegistration<Object> findGeneratedRegistration(final Class<?> handlerClass) {
+        final String name = handlerClass.getName() + CommandRegistration.CLASS_NAME_SUFFIX;
+        final Class<?> registrationClass;
+        try {
+            registrationClass = Class.forName(name, true, handlerClass.getClassLoader());
+        } catch (final ClassNotFoundException e) {
+            return null;
+        }
+        if (!CommandRegistration.class.isAssignableFrom(registrationClass)) {
+            throw new IllegalStateException("Class: " + name + " is not a CommandRegistration");
+        }
+        try {
+            return (CommandRegistration<Object>) registrationClass.getConstructor().newInstance();
+        } catch (final ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot instantiate " + name, e);
+        }
     }
 
     private static final class ReflectedHandlerInfo {
         private Method executor;
         private Method completer;
         private String description;
+        private String permission;
+        private RateLimit rateLimit;
+        private boolean async;
     }
 
+    /**
+     * Executes command line like {@code "warp set home"}. Leading slash is ignored.
+     * This is a entry point for console and programmatic callers. Tokens are created lazily.
+     *
+     * @param sender sender of the command
+     * @param line command line
+     */
+    public void dispatch(final @NonNull CommandSender sender, final @NonNull CharSequence line) {
+        final CharSequence withoutSlash = line.length() != 0 && line.charAt(0) == '/'
+            ? line.subSequence(1, line.length())
+            : line;
+        execute(sender, CommandLine.tokenize(withoutSlash));
+    }
+
+    /**
+     * Executes command line. Platforms should pass {@link CommandLine} to avoid copying tokens.
+     */
     @Override
     public void execute(final CommandSender sender, final List<String> commandLine) {
-        final BranchNode.WalkResult findResult = root.walk(commandLine);
+        // Read once. If null, no metrics are recorded and the clock is never read
+        final CommandMetrics metrics = this.metrics;
+        long start = metrics != null ? System.nanoTime() : 0;
+        final BranchNode.WalkResult findResult = walk(commandLine);
+        if (metrics != null) {
+            final long now = System.nanoTime();
+            metrics.recordWalk(now - start);
+            start = now;
+        }
+        final Node denied = findDenied(sender, findResult);
+        if (denied != null) {
+            if (metrics != null) {
+                metrics.recordPermissionDenied();
+            }
+            errorHandler.onPermissionDenied(this, sender, denied);
+            return;
+        }
         if (!findResult.getCommand().isPresent()) {
-            errorHandler.onPreferredCommandNotFound(this, sender, Iterables.getLast(findResult.getBranches()));
+            if (metrics != null) {
+                metrics.recordPreferredCommandNotFound();
+            }
+            errorHandler.onPreferredCommandNotFound(
+                this, sender, Iterables.getLast(findResult.getBranches(), root), findResult.getUnreachablePaths());
             return;
         }
         final CommandNode commandNode = findResult.getCommand().get();
+        if (!acquireRateLimits(sender, findResult.getBranches(), commandNode, metrics)) {
+            return;
+        }
         final Command command = commandNode.getCommand();
-        final Map<String, String> parsedArgs;
+        final ParsedArgs parsedArgs;
         try {
-            parsedArgs = command.parseArgs(findResult.getUnreachablePaths(), false);
+            parsedArgs = command.parse(findResult.getUnreachablePaths(), false);
         } catch (Command.ArgumentNotEnoughException e) {
+            if (metrics != null) {
+                metrics.recordInvalidArgs();
+            }
             errorHandler.onInvalidArgs(this, sender, command);
             return;
         }
+        final ParsedArgs convertedArgs;
         try {
-            command.getHandler().execute(new ExecutionData(this, sender, commandNode, parsedArgs));
+            convertedArgs = convertArgs(commandNode, parsedArgs);
         } catch (final CommandExecutionException e) {
+            if (metrics != null) {
+                metrics.recordArgumentConversionFailed();
+            }
+            errorHandler.onArgumentConversionFailed(this, sender, command, e);
+            return;
+        }
+        if (metrics != null) {
+            metrics.recordParse(System.nanoTime() - start);
+            metrics.recordInvocation(commandNode);
+        }
+        final CommandHandler handler = command.getHandler();
+        final ExecutionData data = new ExecutionData(this, sender, commandNode, convertedArgs);
+        if (handler instanceof AsyncCommandHandler) {
+            executeAsync(handler, data, metrics);
+            return;
+        }
+        start = metrics != null ? System.nanoTime() : 0;
+        try {
+            handler.execute(data);
+        } catch (final CommandExecutionException e) {
+            if (metrics != null) {
+                metrics.recordExecutionFailed();
+            }
             errorHandler.onExecutionFailed(this, sender, e);
+        } finally {
+            if (metrics != null) {
+                metrics.recordHandler(commandNode, System.nanoTime() - start);
+            }
         }
     }
 
+    /**
+     * Resolves argument types of parameters of {@code command}, so types added later don't change the command.
+     * Names that are not types are left to completers, which are looked up when completing.
+     *
+     * @return types indexed by parameter, or {@code null} if no parameter has type
+     */
+    private ArgumentType<?>[] resolveArgumentTypes(final Command command) {
+        final List<Parameter> parameters = command.getParameters();
+        ArgumentType<?>[] types = null;
+        for (int i = 0; i < parameters.size(); i++) {
+            final String name = parameters.get(i).getCompleterName().orElse(null);
+            if (name == null) {
+                continue;
+            }
+            final ArgumentType<?> type = argumentTypeMap.get(name);
+            if (type == null) {
+                continue;
+            }
+            if (types == null) {
+                types = new ArgumentType<?>[parameters.size()];
+            }
+            types[i] = type;
+        }
+        return types;
+    }
+
+    /**
+     * Converts args with {@link ArgumentType}s resolved when the command was added.
+     *
+     * @return converted args, or {@code args} itself if no args have type
+     */
+    private ParsedArgs convertArgs(final CommandNode commandNode, final ParsedArgs args) throws CommandExecutionException {
+        final ArgumentType<?>[] types = commandNode.argumentTypes();
+        if (types == null) {
+            return args;
+        }
+        Object[] values = null;
+        for (int i = 0; i < types.length; i++) {
+            final String value = args.get(i);
+            if (value == null) {
+                break;
+            }
+            final ArgumentType<?> type = types[i];
+            if (type == null) {
+                continue;
+            }
+            if (values == null) {
+                values = new Object[types.length];
+                for (int j = 0; j < values.length; j++) {
+                    values[j] = args.get(j);
+                }
+            }
+            values[i] = Objects.requireNonNull(type.convert(value), "converted value");
+        }
+        return values != null
+            ? args.withValues(values)
+            : args;
+    }
+
+    private void executeAsync(final CommandHandler handler, final ExecutionData data, final CommandMetrics metrics) {
+        final CommandSender sender = data.getSender();
+        final PlatformScheduler scheduler = platform.getScheduler();
+        executionExecutor.execute(() -> {
+            if (!platform.isConnected(sender)) {
+                return;
+            }
+            final long start = metrics != null ? System.nanoTime() : 0;
+            try {
+                handler.execute(data);
+            } catch (final CommandExecutionException e) {
+                if (metrics != null) {
+                    metrics.recordExecutionFailed();
+                }
+                // Sender may disconnect while the handler runs, so check again before delivering
+                scheduler.runSync(() -> {
+                    if (platform.isConnected(sender)) {
+                        errorHandler.onExecutionFailed(this, sender, e);
+                    }
+                });
+            } catch (final RuntimeException e) {
+                // Rethrow on main thread to make platform report it. It is reported to the server, not the sender
+                scheduler.runSync(() -> {
+                    throw e;
+                });
+            } finally {
+                if (metrics != null) {
+                    metrics.recordHandler(data.getCommand(), System.nanoTime() - start);
+                }
+            }
+        });
+    }
+
     @Override
     public List<String> complete(final CommandSender sender, final CompletingPosition pos, final List<String> commandLine) {
         final String completing = pos == CompletingPosition.CURRENT
                 ? Iterables.getLast(commandLine)
                 : "";
-        final BranchNode.WalkResult findResult = root.walk(commandLine);
+        final BranchNode.WalkResult findResult = walk(commandLine);
+        if (findDenied(sender, findResult) != null) {
+            return Collections.emptyList();
+        }
         final Optional<CommandNode> maybeFoundCommand = findResult.getCommand();
         final List<String> unreachablePaths = findResult.getUnreachablePaths();
         //  /- If found branch only      -\  /- If command is found but completing it                        -\
@@ -201,11 +1074,7 @@ public final class CommandGroup implements PlatformCommandHandler {
             if ((unreachablePaths.size() == 1 && pos == CompletingPosition.CURRENT)
                 || (unreachablePaths.isEmpty() && pos == CompletingPosition.NEXT) // If completing next branch
                 || (unreachablePaths.isEmpty() && pos == CompletingPosition.CURRENT)/* If completing end of word */) {
-                return Iterables.getLast(findResult.getBranches()).getChildren().values().stream()
-                    .filter(node -> !(node instanceof AliasNode))
-                    .map(Node::getName)
-                    .filter(s -> s.startsWith(completing))
-                    .collect(Collectors.toList());
+                return permittedChildNames(sender, Iterables.getLast(findResult.getBranches()), completing);
             } else {
                 return Collections.emptyList();
             }
@@ -215,29 +1084,234 @@ public final class CommandGroup implements PlatformCommandHandler {
             if (command.getParameters().isEmpty()) {
                 return Collections.emptyList();
             }
+            if (isRateLimited(sender, findResult.getBranches(), commandNode)) {
+                return Collections.emptyList();
+            }
+            final RateLimiter completionLimiter = completionRateLimiter;
+            if (completionLimiter != null && completionLimiter.tryAcquire(sender, System.nanoTime()) > 0) {
+                return Collections.emptyList();
+            }
             final List<String> args = findResult.getUnreachablePaths();
             // Get preferred Parameter.
             // If number of args is bigger than params, use last param. (below is example)
             // param1 param2 param3 <- Use this
             // arg1   arg2   arg3   arg4...
-            final Parameter completingParameter = command.getParameters().get(
-                    Math.min(command.getParameters().size() - 1,
-                        args.size()));
+            final int parameterCount = command.getParameters().size();
+            final int completingIndex = pos == CompletingPosition.NEXT
+                ? Math.min(parameterCount - 1, args.size())
+                : Math.min(parameterCount - 1, args.size() - 1);
+            final Parameter completingParameter = command.getParameters().get(completingIndex);
             final String completingParameterName = completingParameter.getName();
             try {
-                final List<String> argsForParse = new ArrayList<>(args);
-                if (pos == CompletingPosition.NEXT) {
-                    argsForParse.add("");
+                final ParsedArgs parsedArgs = command.parse(args, true);
+                final String completingValue;
+                if (pos == CompletingPosition.CURRENT) {
+                    completingValue = parsedArgs.get(completingIndex);
+                } else if (args.size() < parameterCount) {
+                    completingValue = "";
+                } else {
+                    // Rest of args are joined to the last parameter, and new word is started after them
+                    completingValue = parsedArgs.get(completingIndex) + " ";
                 }
-                final String completingValue = command.parseArgs(argsForParse, true).get(completingParameterName);
                 final CommandCompleter completer = completingParameter.getCompleterName()
-                        .map(completerMap::get)
+                        .map(this::findCompleter)
                         .orElse(command.getHandler());
-                return completer.complete(new CompletionData(sender, commandNode, completingParameterName, completingValue));
+                final CompletionData data = new CompletionData(sender, commandNode, completingParameterName, completingValue);
+                final CommandMetrics metrics = this.metrics;
+                final long start = metrics != null ? System.nanoTime() : 0;
+                try {
+                    final CompletionCache cache = completionCache;
+                    if (cache != null) {
+                        return cache.get(data, () -> invokeCompleter(completer, data));
+                    }
+                    final List<String> result = invokeCompleter(completer, data);
+                    return result != null
+                        ? result
+                        : Collections.emptyList();
+                } finally {
+                    if (metrics != null) {
+                        metrics.recordCompletion(
+                            completer != command.getHandler() ? completingParameter.getCompleterName().orElse(null) : null,
+                            commandNode,
+                            System.nanoTime() - start);
+                    }
+                }
             } catch (Command.ArgumentNotEnoughException e) {
                 throw new RuntimeException("unreachable", e);
             }
         }
     }
-}
 
+    /**
+     * Finds completer registered by name. If not found, argument type with the name is used.
+     *
+     * @return completer or {@code null}
+     */
+    private CommandCompleter findCompleter(final String name) {
+        final CommandCompleter completer = completerMap.get(name);
+        return completer != null
+            ? completer
+            : argumentTypeMap.get(name);
+    }
+
+    /**
+     * Invokes completer.
+     *
+     * @return candidates, or {@code null} if {@link AsyncCommandCompleter} couldn't complete until the deadline
+     *     or newer request of the sender superseded it
+     */
+    private List<String> invokeCompleter(final CommandCompleter completer, final CompletionData data) {
+        if (!(completer instanceof AsyncCommandCompleter)) {
+            return completer.complete(data);
+        }
+        final AsyncCommandCompleter asyncCompleter = (AsyncCommandCompleter) completer;
+        final long deadline = asyncCompleter.getDeadlineMillis() >= 0
+            ? asyncCompleter.getDeadlineMillis()
+            : completionDeadlineMillis;
+        final CompletableFuture<List<String>> future =
+            completionCoalescer.submit(data, () -> asyncCompleter.completeAsync(data), completionExecutor);
+        try {
+            return future.get(deadline, TimeUnit.MILLISECONDS);
+        } catch (final TimeoutException e) {
+            future.cancel(true);
+            return null;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (final ExecutionException e) {
+            throw new RuntimeException("Exception occurred in completer", e.getCause());
+        }
+    }
+
+    /**
+     * Commands of {@link #addCommands(Collection)} merged by sections, before they are inserted into the tree.
+     */
+    private static final class PendingBranch {
+
+        private final String name;
+        /**
+         * Children keyed by sections, folded if ignoring case. Values are {@code Command} or {@code PendingBranch}.
+         */
+        private final Map<String, Object> children = new LinkedHashMap<>();
+
+        private PendingBranch(final String name) {
+            this.name = name;
+        }
+
+        private static String nameOf(final Object child) {
+            if (child instanceof Command) {
+                final List<String> sections = ((Command) child).getSections();
+                return sections.get(sections.size() - 1);
+            }
+            return ((PendingBranch) child).name;
+        }
+
+        /**
+         * Adds {@code command}, checking conflicts with commands added before and nodes under {@code root}.
+         */
+        private void add(final Command command, final BranchNode root, final List<String> errors) {
+            final List<String> sections = command.getSections();
+            if (sections.isEmpty()) {
+                errors.add("Section is empty!");
+                return;
+            }
+            final boolean ignoreCase = root.isIgnoreCase();
+            PendingBranch current = this;
+            Node existing = root;
+            for (int i = 0; i < sections.size(); i++) {
+                final String section = sections.get(i);
+                final String key = ignoreCase
+                    ? FoldedTable.fold(section)
+                    : section;
+                existing = existing instanceof BranchNode
+                    ? ((BranchNode) existing).getChild(section)
+                    : null;
+                final Object child = current.children.get(key);
+                if (i < sections.size() - 1) {
+                    if (child instanceof Command) {
+                        errors.add("'" + String.join(" ", sections) + "' conflicts with '" + String.join(" ", ((Command) child).getSections()) + "'");
+                        return;
+                    }
+                    if (existing != null && !(existing instanceof BranchNode)) {
+                        errors.add("'" + String.join(" ", sections) + "' conflicts with existing '" + String.join(" ", sections.subList(0, i + 1)) + "'");
+                        return;
+                    }
+                    if (child == null) {
+                        final PendingBranch created = new PendingBranch(section);
+                        current.children.put(key, created);
+                        current = created;
+                    } else {
+                        current = (PendingBranch) child;
+                    }
+                } else if (child instanceof Command) {
+                    errors.add("'" + String.join(" ", sections) + "' is duplicated");
+                } else if (child != null) {
+                    errors.add("'" + String.join(" ", sections) + "' conflicts with commands under it");
+                } else if (existing instanceof BranchNode) {
+                    errors.add("'" + String.join(" ", sections) + "' conflicts with existing commands under it");
+                } else {
+                    current.children.put(key, command);
+                }
+            }
+        }
+
+        /**
+         * Inserts children into {@code branch}. New branches are filled before they are added,
+         * and each branch publishes its children at once.
+         */
+        private void insertTo(final BranchNode branch, final Map<Command, ArgumentType<?>[]> argumentTypes) {
+            final List<Node> added = new ArrayList<>(children.size());
+            for (final Object child : children.values()) {
+                if (child instanceof Command) {
+                    added.add(new CommandNode(branch, nameOf(child), (Command) child, argumentTypes.get(child)));
+                    continue;
+                }
+                final PendingBranch pending = (PendingBranch) child;
+                final Node existing = branch.getChild(pending.name);
+                if (existing instanceof BranchNode) {
+                    pending.insertTo((BranchNode) existing, argumentTypes);
+                } else {
+                    final BranchNode created = new BranchNode(pending.name, branch);
+                    pending.insertTo(created, argumentTypes);
+                    added.add(created);
+                }
+            }
+            if (!added.isEmpty()) {
+                branch.addChildren(added);
+            }
+        }
+    }
+
+    /**
+     * Commands to add to this group at once. Created by {@link #batch()}.
+     */
+    public final class Batch {
+
+        private final List<Command> commands = new ArrayList<>();
+
+        private Batch() {
+        }
+
+        public Batch add(final @NonNull Command command) {
+            commands.add(command);
+            return this;
+        }
+
+        public Batch add(final CommandHandler handler, final String command, final String description) {
+            return add(handler, command, description, null);
+        }
+
+        public Batch add(final CommandHandler handler, final String command, final String description, final String permission) {
+            return add(Command.fromString(handler, command, description, permission));
+        }
+
+        /**
+         * Adds all commands of this batch to the group by {@link CommandGroup#addCommands(Collection)}.
+         *
+         * @return CommandGroup
+         */
+        public CommandGroup register() {
+            return addCommands(commands);
+        }
+    }
+}
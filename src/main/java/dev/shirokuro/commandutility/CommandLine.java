@@ -0,0 +1,183 @@
+package dev.shirokuro.commandutility;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * {@code CommandLine} is a read-only list of tokens of command line.
+ * <p>
+ * This class wraps arrays passed by platform without copying,
+ * and {@link #subList subList} returns a view that shares the tokens.
+ * So it can be passed from platform to {@link BranchNode#walk(java.util.List) walk}
+ * and {@link Command#parse Command.parse} without copying tokens.
+ * Tokens of {@link #tokenize tokenized} line are created on first access.
+ * </p>
+ * This class is thread-safe.
+ */
+public final class CommandLine extends AbstractList<String> implements RandomAccess {
+
+    private static final String[] NO_TOKENS = new String[0];
+    private static final int[] NO_BOUNDS = new int[0];
+
+    /**
+     * Token before {@code tokens}, or {@code null} if not exists.
+     */
+    private final String head;
+    /**
+     * Tokens. If {@code source} is not null, {@code null} elements are not yet created.
+     */
+    private final String[] tokens;
+    private final CharSequence source;
+    /**
+     * Start and end of each token in {@code source}.
+     */
+    private final int[] bounds;
+    private final int from;
+    private final int to;
+
+    private CommandLine(
+            final String head,
+            final String[] tokens,
+            final CharSequence source,
+            final int[] bounds,
+            final int from,
+            final int to) {
+        this.head = head;
+        this.tokens = tokens;
+        this.source = source;
+        this.bounds = bounds;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Creates {@code CommandLine} that wraps {@code tokens}. {@code tokens} must not be modified later.
+     *
+     * @param tokens tokens
+     * @return command line
+     */
+    public static CommandLine of(final String... tokens) {
+        Objects.requireNonNull(tokens, "tokens");
+        return new CommandLine(null, tokens, null, NO_BOUNDS, 0, tokens.length);
+    }
+
+    /**
+     * Creates {@code CommandLine} that consists of {@code head} and {@code tokens}.
+     * {@code tokens} is wrapped without copying, and must not be modified later.
+     *
+     * @param head first token. e.g. label of command
+     * @param tokens rest of tokens. e.g. arguments of command
+     * @return command line
+     */
+    public static CommandLine of(final String head, final String[] tokens) {
+        return of(head, tokens, tokens.length);
+    }
+
+    /**
+     * Creates {@code CommandLine} that consists of {@code head} and first {@code length} elements of {@code tokens}.
+     * {@code tokens} is wrapped without copying, and must not be modified later.
+     *
+     * @param head first token. e.g. label of command
+     * @param tokens rest of tokens. e.g. arguments of command
+     * @param length number of elements of {@code tokens} to use
+     * @return command line
+     */
+    public static CommandLine of(final String head, final String[] tokens, final int length) {
+        Objects.requireNonNull(head, "head");
+        Objects.requireNonNull(tokens, "tokens");
+        if (length < 0 || length > tokens.length) {
+            throw new IndexOutOfBoundsException("length: " + length + ", tokens: " + tokens.length);
+        }
+        return new CommandLine(head, tokens, null, NO_BOUNDS, 0, length + 1);
+    }
+
+    /**
+     * Splits {@code line} by spaces. Consecutive spaces are treated as one separator.
+     * Only boundaries of tokens are computed here, and each token is created on first access.
+     *
+     * @param line line to split. Must not be modified later
+     * @return command line
+     */
+    public static CommandLine tokenize(final CharSequence line) {
+        Objects.requireNonNull(line, "line");
+        int[] bounds = new int[8];
+        int count = 0;
+        int index = 0;
+        final int length = line.length();
+        while (index < length) {
+            while (index < length && line.charAt(index) == ' ') {
+                index++;
+            }
+            if (index == length) {
+                break;
+            }
+            final int start = index;
+            while (index < length && line.charAt(index) != ' ') {
+                index++;
+            }
+            if (count * 2 == bounds.length) {
+                bounds = Arrays.copyOf(bounds, bounds.length * 2);
+            }
+            bounds[count * 2] = start;
+            bounds[count * 2 + 1] = index;
+            count++;
+        }
+        if (count == 0) {
+            return new CommandLine(null, NO_TOKENS, null, NO_BOUNDS, 0, 0);
+        }
+        return new CommandLine(null, new String[count], line, bounds, 0, count);
+    }
+
+    @Override
+    public String get(final int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        int position = from + index;
+        if (head != null) {
+            if (position == 0) {
+                return head;
+            }
+            position--;
+        }
+        return token(position);
+    }
+
+    private String token(final int position) {
+        String token = tokens[position];
+        if (token == null && source != null) {
+            // Racy but idempotent
+            token = source.subSequence(bounds[position * 2], bounds[position * 2 + 1]).toString();
+            tokens[position] = token;
+        }
+        return token;
+    }
+
+    @Override
+    public int size() {
+        return to - from;
+    }
+
+    /**
+     * Returns view of this line. Tokens are not copied.
+     */
+    @Override
+    public CommandLine subList(final int fromIndex, final int toIndex) {
+        if (fromIndex < 0 || toIndex > size() || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("fromIndex: " + fromIndex + ", toIndex: " + toIndex + ", size: " + size());
+        }
+        return new CommandLine(head, tokens, source, bounds, from + fromIndex, from + toIndex);
+    }
+
+    /**
+     * Returns tokens after {@code index}. Same as {@code subList(index, size())}.
+     *
+     * @param index index of first token
+     * @return view of this line
+     */
+    public CommandLine skip(final int index) {
+        return subList(index, size());
+    }
+}
@@ -0,0 +1,218 @@
+package dev.shirokuro.commandutility;
+
+import com.google.common.collect.MapMaker;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * {@code CommandMetrics} records invocations and latencies of {@link CommandGroup}.
+ * <p>
+ * Metrics are disabled by default. When disabled, {@link CommandGroup} doesn't even read the clock.
+ * All counters are lock-free, and values can be read from any thread via getters or JMX.
+ * </p>
+ * <pre>
+ *     CommandMetrics metrics = new CommandMetrics();
+ *     group.setMetrics(metrics);
+ *     metrics.registerMBean("myplugin");
+ * </pre>
+ */
+public final class CommandMetrics implements CommandMetricsMXBean {
+
+    private static final String DOMAIN = "dev.shirokuro.commandutility";
+
+    /**
+     * Stats of each command. Keys are compared by identity.
+     */
+    private final ConcurrentMap<CommandNode, CommandStats> commands = new MapMaker().weakKeys().makeMap();
+    private final ConcurrentMap<String, LatencyHistogram> completers = new ConcurrentHashMap<>();
+    private final LatencyHistogram walk = new LatencyHistogram();
+    private final LatencyHistogram parse = new LatencyHistogram();
+    private final LatencyHistogram handler = new LatencyHistogram();
+    private final LongAdder executionFailed = new LongAdder();
+    private final LongAdder preferredCommandNotFound = new LongAdder();
+    private final LongAdder invalidArgs = new LongAdder();
+    private final LongAdder argumentConversionFailed = new LongAdder();
+    private final LongAdder permissionDenied = new LongAdder();
+    private final LongAdder rateLimited = new LongAdder();
+    private volatile ObjectName objectName;
+
+    void recordWalk(final long nanos) {
+        walk.record(nanos);
+    }
+
+    void recordParse(final long nanos) {
+        parse.record(nanos);
+    }
+
+    void recordInvocation(final CommandNode command) {
+        stats(command).invocations.increment();
+    }
+
+    void recordHandler(final CommandNode command, final long nanos) {
+        handler.record(nanos);
+        stats(command).handler.record(nanos);
+    }
+
+    /**
+     * Records latency of completer.
+     *
+     * @param completerName name of completer, or {@code null} if handler of {@code command} completed
+     */
+    void recordCompletion(final String completerName, final CommandNode command, final long nanos) {
+        if (completerName == null) {
+            stats(command).completion.record(nanos);
+            return;
+        }
+        LatencyHistogram histogram = completers.get(completerName);
+        if (histogram == null) {
+            histogram = completers.computeIfAbsent(completerName, name -> new LatencyHistogram());
+        }
+        histogram.record(nanos);
+    }
+
+    void recordExecutionFailed() {
+        executionFailed.increment();
+    }
+
+    void recordPreferredCommandNotFound() {
+        preferredCommandNotFound.increment();
+    }
+
+    void recordInvalidArgs() {
+        invalidArgs.increment();
+    }
+
+    void recordArgumentConversionFailed() {
+        argumentConversionFailed.increment();
+    }
+
+    void recordPermissionDenied() {
+        permissionDenied.increment();
+    }
+
+    void recordRateLimited() {
+        rateLimited.increment();
+    }
+
+    private CommandStats stats(final CommandNode command) {
+        final CommandStats stats = commands.get(command);
+        return stats != null
+            ? stats
+            : commands.computeIfAbsent(command, CommandStats::new);
+    }
+
+    @Override
+    public Map<String, Long> getInvocationCounts() {
+        final Map<String, Long> result = new TreeMap<>();
+        commands.values().forEach(stats -> result.merge(stats.path, stats.invocations.sum(), Long::sum));
+        return Collections.unmodifiableMap(result);
+    }
+
+    @Override
+    public LatencySnapshot getWalkLatency() {
+        return walk.snapshot();
+    }
+
+    @Override
+    public LatencySnapshot getParseLatency() {
+        return parse.snapshot();
+    }
+
+    @Override
+    public LatencySnapshot getHandlerLatency() {
+        return handler.snapshot();
+    }
+
+    @Override
+    public Map<String, LatencySnapshot> getHandlerLatencies() {
+        final Map<String, LatencySnapshot> result = new TreeMap<>();
+        commands.values().forEach(stats -> result.put(stats.path, stats.handler.snapshot()));
+        return Collections.unmodifiableMap(result);
+    }
+
+    @Override
+    public Map<String, LatencySnapshot> getCompletionLatencies() {
+        final Map<String, LatencySnapshot> result = new TreeMap<>();
+        completers.forEach((name, histogram) -> result.put(name, histogram.snapshot()));
+        commands.values().forEach(stats -> {
+            final LatencySnapshot snapshot = stats.completion.snapshot();
+            if (snapshot.getCount() != 0) {
+                result.put(stats.path, snapshot);
+            }
+        });
+        return Collections.unmodifiableMap(result);
+    }
+
+    @Override
+    public Map<String, Long> getErrorCounts() {
+        final Map<String, Long> result = new TreeMap<>();
+        result.put("onExecutionFailed", executionFailed.sum());
+        result.put("onPreferredCommandNotFound", preferredCommandNotFound.sum());
+        result.put("onInvalidArgs", invalidArgs.sum());
+        result.put("onArgumentConversionFailed", argumentConversionFailed.sum());
+        result.put("onPermissionDenied", permissionDenied.sum());
+        result.put("onRateLimited", rateLimited.sum());
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Registers this metrics to platform MBean server as
+     * {@code dev.shirokuro.commandutility:type=CommandMetrics,name=<name>}.
+     *
+     * @param name name to identify this metrics
+     * @throws IllegalStateException if registration failed
+     */
+    public synchronized void registerMBean(final String name) {
+        Objects.requireNonNull(name, "name");
+        if (objectName != null) {
+            throw new IllegalStateException("Already registered as " + objectName);
+        }
+        try {
+            final ObjectName newName = new ObjectName(DOMAIN + ":type=CommandMetrics,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, newName);
+            objectName = newName;
+        } catch (final JMException e) {
+            throw new IllegalStateException("Cannot register MBean: " + name, e);
+        }
+    }
+
+    /**
+     * Unregisters this metrics from platform MBean server. Does nothing if not registered.
+     *
+     * @throws IllegalStateException if unregistration failed
+     */
+    public synchronized void unregisterMBean() {
+        if (objectName == null) {
+            return;
+        }
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+            objectName = null;
+        } catch (final JMException e) {
+            throw new IllegalStateException("Cannot unregister MBean: " + objectName, e);
+        }
+    }
+
+    private static final class CommandStats {
+        private final String path;
+        private final LongAdder invocations = new LongAdder();
+        private final LatencyHistogram handler = new LatencyHistogram();
+        private final LatencyHistogram completion = new LatencyHistogram();
+
+        private CommandStats(final CommandNode command) {
+            this.path = String.join(" ", command.getCommand().getSections());
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package dev.shirokuro.commandutility;
+
+import java.util.Map;
+
+/**
+ * JMX view of {@link CommandMetrics}.
+ */
+public interface CommandMetricsMXBean {
+
+    /**
+     * Returns number of invocations per command.
+     *
+     * @return map of command path and number of invocations
+     */
+    Map<String, Long> getInvocationCounts();
+
+    LatencySnapshot getWalkLatency();
+
+    LatencySnapshot getParseLatency();
+
+    LatencySnapshot getHandlerLatency();
+
+    /**
+     * Returns handler latencies per command.
+     *
+     * @return map of command path and latency
+     */
+    Map<String, LatencySnapshot> getHandlerLatencies();
+
+    /**
+     * Returns completion latencies per completer.
+     * Completers registered by {@link CommandGroup#addCompleter} are keyed by their names,
+     * and handlers that complete by themselves are keyed by their command path.
+     *
+     * @return map of completer and latency
+     */
+    Map<String, LatencySnapshot> getCompletionLatencies();
+
+    /**
+     * Returns number of errors per {@link ErrorHandler} method.
+     *
+     * @return map of method name and number of errors
+     */
+    Map<String, Long> getErrorCounts();
+}
@@ -8,16 +8,30 @@ public final class CommandNode implements Node {
     private final BranchNode parent;
     private final String name;
     private final Command command;
+    private final RateLimiter rateLimiter;
+    private final ArgumentType<?>[] argumentTypes;
 
     public CommandNode(
             final BranchNode parent, // nullable
             final String name,
             final Command command) {
+        this(parent, name, command, null);
+    }
+
+    CommandNode(
+            final BranchNode parent, // nullable
+            final String name,
+            final Command command,
+            final ArgumentType<?>[] argumentTypes) { // nullable
         Objects.requireNonNull(name, "name");
         Objects.requireNonNull(command, "command");
         this.parent = parent;
         this.name = name;
         this.command = command;
+        this.rateLimiter = command.getRateLimit()
+            .map(RateLimiter::new)
+            .orElse(null);
+        this.argumentTypes = argumentTypes;
     }
 
     @Override
@@ -34,6 +48,25 @@ public final class CommandNode implements Node {
         return command;
     }
 
+    /**
+     * Returns buckets of rate limit of the command.
+     *
+     * @return rate limiter or {@code null} if not limited
+     */
+    RateLimiter rateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * Returns argument types of parameters, resolved when the command was added.
+     *
+     * @return types indexed by parameter whose elements are {@code null} if not typed,
+     *     or {@code null} if no parameter has type
+     */
+    ArgumentType<?>[] argumentTypes() {
+        return argumentTypes;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
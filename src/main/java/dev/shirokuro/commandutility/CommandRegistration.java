@@ -0,0 +1,25 @@
+package dev.shirokuro.commandutility;
+
+/**
+ * {@code CommandRegistration} registers commands declared in handler type {@code T} without reflection.
+ * <p>
+ * Implementations are generated at compile time by annotation processor in {@code commandutility-processor}
+ * for each type that has methods annotated with {@code @Executor} or {@code @Completer}.
+ * Name of generated class is binary name of handler type followed by {@link #CLASS_NAME_SUFFIX}.
+ * {@link CommandGroup#addAll(Object)} uses generated class if exists.
+ * </p>
+ *
+ * @param <T> type of handler
+ */
+public interface CommandRegistration<T> {
+
+    String CLASS_NAME_SUFFIX = "$$CommandRegistration";
+
+    /**
+     * Registers commands of {@code handler} to {@code group} by {@link CommandGroup#addCommands}.
+     *
+     * @param group group to register commands to
+     * @param handler instance of handler type
+     */
+    void register(CommandGroup group, T handler);
+}
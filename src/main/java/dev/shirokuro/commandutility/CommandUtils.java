@@ -1,5 +1,6 @@
 package dev.shirokuro.commandutility;
 
+import dev.shirokuro.commandutility.platform.OnlinePlayerIndex;
 import java.util.Collection;
 import java.util.List;
 import java.util.Locale;
@@ -100,8 +101,11 @@ public final class CommandUtils {
         messageFunc = messageFunc == null
             ? s -> "Cannot find player '" + s + "'"
             : messageFunc;
+        final OnlinePlayerIndex index = OnlinePlayerIndex.getInstance();
         @SuppressWarnings("deprecation")
-        final Player player = Bukkit.getPlayer(source);
+        final Player player = index.isStarted()
+            ? index.getByPrefix(source)
+            : Bukkit.getPlayer(source);
         if (player == null) {
             throw new CommandExecutionException(messageFunc.apply(source));
         }
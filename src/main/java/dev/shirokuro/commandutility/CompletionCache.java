@@ -0,0 +1,312 @@
+package dev.shirokuro.commandutility;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+/**
+ * {@code CompletionCache} caches candidates returned by completers.
+ * <p>
+ * Entries are keyed by {@code CommandNode}, parameter name and scope of sender.
+ * If current value extends the value of cached entry (e.g. {@code "dia"} after {@code "di"}),
+ * cached candidates are filtered instead of calling the completer again.
+ * Therefore this cache assumes completers return candidates that start with current value.
+ * Entries expire after TTL, and least recently used entries are evicted when the cache is full.
+ * </p>
+ * <pre>
+ *     group.setCompletionCache(CompletionCache.builder()
+ *         .ttl(5, TimeUnit.SECONDS)
+ *         .maximumSize(1000)
+ *         .build());
+ * </pre>
+ * This class is thread-safe.
+ */
+public final class CompletionCache {
+
+    private final long ttlNanos;
+    private final boolean ignoreCase;
+    private final Function<CommandSender, ?> scope;
+    private final Map<Key, CachedCandidates> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private CompletionCache(
+            final long ttlNanos,
+            final int maximumSize,
+            final boolean ignoreCase,
+            final Function<CommandSender, ?> scope) {
+        this.ttlNanos = ttlNanos;
+        this.ignoreCase = ignoreCase;
+        this.scope = scope;
+        this.entries = new LinkedHashMap<Key, CachedCandidates>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Key, CachedCandidates> eldest) {
+                return size() > maximumSize;
+            }
+        };
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns cached candidates if possible. Otherwise calls {@code completer} and caches its result.
+     *
+     * @param data completion data
+     * @param completer function to complete. Returns {@code null} if result must not be cached
+     * @return candidates
+     */
+    List<String> get(final CompletionData data, final Supplier<List<String>> completer) {
+        final Key key = new Key(data.getCommand(), data.getParameterName(), scope.apply(data.getSender()));
+        final String currentValue = data.getCurrentValue();
+        final long now = System.nanoTime();
+        final CachedCandidates entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        final boolean expired = entry != null && now - entry.createdAt >= ttlNanos;
+        if (expired) {
+            synchronized (entries) {
+                entries.remove(key, entry);
+            }
+        }
+        if (entry != null && !expired && startsWith(currentValue, entry.prefix)) {
+            hits.increment();
+            if (currentValue.length() == entry.prefix.length()) {
+                return entry.candidates;
+            }
+            final List<String> result = new ArrayList<>();
+            for (final String candidate : entry.candidates) {
+                if (startsWith(candidate, currentValue)) {
+                    result.add(candidate);
+                }
+            }
+            return result;
+        }
+        misses.increment();
+        final List<String> candidates = completer.get();
+        if (candidates == null) {
+            return Collections.emptyList();
+        }
+        final List<String> copied = Collections.unmodifiableList(new ArrayList<>(candidates));
+        synchronized (entries) {
+            entries.put(key, new CachedCandidates(currentValue, copied, now));
+        }
+        return copied;
+    }
+
+    private boolean startsWith(final String str, final String prefix) {
+        return str.regionMatches(ignoreCase, 0, prefix, 0, prefix.length());
+    }
+
+    /**
+     * Invalidates all entries.
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Invalidates entries of {@code command}.
+     *
+     * @param command command to invalidate
+     */
+    public void invalidate(final CommandNode command) {
+        Objects.requireNonNull(command, "command");
+        synchronized (entries) {
+            entries.keySet().removeIf(key -> key.command == command);
+        }
+    }
+
+    /**
+     * Invalidates entries of scope of {@code sender}.
+     *
+     * @param sender sender to invalidate
+     */
+    public void invalidate(final CommandSender sender) {
+        Objects.requireNonNull(sender, "sender");
+        final Object senderScope = scope.apply(sender);
+        synchronized (entries) {
+            entries.keySet().removeIf(key -> Objects.equals(key.scope, senderScope));
+        }
+    }
+
+    /**
+     * Removes expired entries. Expired entries are also removed on lookup, so calling this is optional.
+     */
+    public void cleanUp() {
+        final long now = System.nanoTime();
+        synchronized (entries) {
+            final Iterator<CachedCandidates> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                if (now - iterator.next().createdAt >= ttlNanos) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public static final class Builder {
+
+        private long ttlNanos = TimeUnit.SECONDS.toNanos(5);
+        private int maximumSize = 1024;
+        private boolean ignoreCase;
+        private Function<CommandSender, ?> scope = CompletionCache::defaultScope;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets time to live of entries. Default is 5 seconds.
+         */
+        public Builder ttl(final long duration, final TimeUnit unit) {
+            Objects.requireNonNull(unit, "unit");
+            if (duration < 0) {
+                throw new IllegalArgumentException("duration must not be negative");
+            }
+            this.ttlNanos = unit.toNanos(duration);
+            return this;
+        }
+
+        /**
+         * Sets maximum number of entries. Default is 1024.
+         */
+        public Builder maximumSize(final int maximumSize) {
+            if (maximumSize < 0) {
+                throw new IllegalArgumentException("maximumSize must not be negative");
+            }
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        /**
+         * Sets whether to ignore case when narrowing cached candidates.
+         * Enable this if completers match candidates ignoring case.
+         */
+        public Builder ignoreCase(final boolean ignoreCase) {
+            this.ignoreCase = ignoreCase;
+            return this;
+        }
+
+        /**
+         * Sets function to get scope of sender. Senders in same scope share entries.
+         * Default is UUID of player, or sender itself compared by identity and weakly referenced if it isn't a player,
+         * so disconnected players are not retained. Use constant function to share entries among all senders.
+         */
+        public Builder scope(final Function<CommandSender, ?> scope) {
+            this.scope = Objects.requireNonNull(scope, "scope");
+            return this;
+        }
+
+        public CompletionCache build() {
+            return new CompletionCache(ttlNanos, maximumSize, ignoreCase, scope);
+        }
+    }
+
+    private static Object defaultScope(final CommandSender sender) {
+        return sender instanceof Player
+            ? ((Player) sender).getUniqueId()
+            : new WeakSender(sender);
+    }
+
+    /**
+     * Scope of a sender that isn't a player. Equal to scopes of the same sender while it is reachable.
+     */
+    private static final class WeakSender {
+        private final WeakReference<CommandSender> sender;
+        private final int hash;
+
+        private WeakSender(final CommandSender sender) {
+            this.sender = new WeakReference<>(sender);
+            this.hash = System.identityHashCode(sender);
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof WeakSender)) {
+                return false;
+            }
+            final CommandSender referent = sender.get();
+            return referent != null && referent == ((WeakSender) other).sender.get();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class Key {
+        private final CommandNode command;
+        private final String parameterName;
+        private final Object scope;
+
+        private Key(final CommandNode command, final String parameterName, final Object scope) {
+            this.command = command;
+            this.parameterName = parameterName;
+            this.scope = scope;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            final Key key = (Key) other;
+            return command == key.command &&
+                parameterName.equals(key.parameterName) &&
+                Objects.equals(scope, key.scope);
+        }
+
+        @Override
+        public int hashCode() {
+            return (System.identityHashCode(command) * 31 + parameterName.hashCode()) * 31 + Objects.hashCode(scope);
+        }
+    }
+
+    private static final class CachedCandidates {
+        private final String prefix;
+        private final List<String> candidates;
+        private final long createdAt;
+
+        private CachedCandidates(final String prefix, final List<String> candidates, final long createdAt) {
+            this.prefix = prefix;
+            this.candidates = candidates;
+            this.createdAt = createdAt;
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package dev.shirokuro.commandutility;
+
+import com.google.common.collect.MapMaker;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+import org.bukkit.command.CommandSender;
+
+/**
+ * Coalesces {@link AsyncCommandCompleter} requests of each sender.
+ * <p>
+ * Clients request completion on almost every keystroke, so a new request makes older requests
+ * of the same sender obsolete. Older requests that haven't started are answered without running,
+ * and results of running ones are discarded. At most {@code maxConcurrent} completers run for each sender,
+ * and the newest request waits for a slot. Completers already running can't be stopped,
+ * so they keep their slots until they finish.
+ * </p>
+ * <p>
+ * Callers usually wait for the result on the server thread, so a request that has to wait for a slot
+ * is answered at once with candidates of the last completed request of the sender, narrowed to its current value.
+ * The request still runs when a slot is released, and its candidates are kept for the next request.
+ * </p>
+ * This class is thread-safe.
+ */
+final class CompletionCoalescer {
+
+    /**
+     * State of each sender. Keys are compared by identity and weakly referenced.
+     */
+    private final Map<CommandSender, SenderState> states = new MapMaker().weakKeys().makeMap();
+    private volatile int maxConcurrent;
+
+    CompletionCoalescer(final int maxConcurrent) {
+        setMaxConcurrent(maxConcurrent);
+    }
+
+    int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    void setMaxConcurrent(final int maxConcurrent) {
+        if (maxConcurrent <= 0) {
+            throw new IllegalArgumentException("maxConcurrent must be positive");
+        }
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    /**
+     * Submits completion request of the sender of {@code data}. Older requests of the sender are completed with {@code null}.
+     * Cancelling returned future doesn't stop the completer, but its slot is released when it finishes.
+     *
+     * @param data data of the request
+     * @param task task that starts completion
+     * @param executor executor to run {@code task}
+     * @return future of candidates, completed with {@code null} if superseded by newer request.
+     *     If the request has to wait for a slot, the future is already completed with candidates of the last request,
+     *     or {@code null} if they are not for the same parameter and prefix
+     */
+    CompletableFuture<List<String>> submit(
+            final CompletionData data,
+            final Supplier<CompletableFuture<List<String>>> task,
+            final java.util.concurrent.Executor executor) {
+        final SenderState state = states.computeIfAbsent(data.getSender(), key -> new SenderState());
+        final List<Request> superseded = new ArrayList<>();
+        final Request request;
+        final boolean start;
+        final List<String> last;
+        synchronized (state) {
+            request = new Request(state, data, ++state.sequence, task, executor);
+            if (state.pending != null) {
+                superseded.add(state.pending);
+            }
+            superseded.addAll(state.running);
+            start = state.running.size() < maxConcurrent;
+            if (start) {
+                state.pending = null;
+                state.running.add(request);
+                last = null;
+            } else {
+                state.pending = request;
+                last = state.narrowLast(data);
+            }
+        }
+        // Complete outside the lock, because waiters may run dependent actions
+        for (final Request old : superseded) {
+            old.result.complete(null);
+        }
+        if (start) {
+            request.start();
+            return request.result;
+        }
+        return CompletableFuture.completedFuture(last);
+    }
+
+    private final class SenderState {
+
+        private final List<Request> running = new ArrayList<>();
+        /**
+         * Newest request waiting for a slot.
+         */
+        private Request pending;
+        private long sequence;
+        /**
+         * Last completed request. Sender is not kept, so the sender can be collected.
+         * {@code lastCandidates} is {@code null} if none.
+         */
+        private long lastSequence;
+        private CommandNode lastCommand;
+        private String lastParameterName;
+        private String lastValue;
+        private List<String> lastCandidates;
+
+        /**
+         * Returns candidates of the last request narrowed to current value of {@code data},
+         * or {@code null} if the last request is not for the same parameter or current value doesn't start with its value.
+         */
+        private List<String> narrowLast(final CompletionData data) {
+            if (lastCandidates == null ||
+                lastCommand != data.getCommand() ||
+                !lastParameterName.equals(data.getParameterName()) ||
+                !data.getCurrentValue().startsWith(lastValue)) {
+                return null;
+            }
+            final List<String> result = new ArrayList<>();
+            for (final String candidate : lastCandidates) {
+                if (candidate.startsWith(data.getCurrentValue())) {
+                    result.add(candidate);
+                }
+            }
+            return result;
+        }
+    }
+
+    private final class Request {
+
+        private final SenderState state;
+        private final CompletionData data;
+        private final long sequence;
+        private final Supplier<CompletableFuture<List<String>>> task;
+        private final java.util.concurrent.Executor executor;
+        private final CompletableFuture<List<String>> result = new CompletableFuture<>();
+
+        private Request(
+                final SenderState state,
+                final CompletionData data,
+                final long sequence,
+                final Supplier<CompletableFuture<List<String>>> task,
+                final java.util.concurrent.Executor executor) {
+            this.state = state;
+            this.data = data;
+            this.sequence = sequence;
+            this.task = task;
+            this.executor = executor;
+        }
+
+        private void start() {
+            try {
+                executor.execute(this::run);
+            } catch (final RejectedExecutionException e) {
+                result.completeExceptionally(e);
+                finished();
+            }
+        }
+
+        private void run() {
+            // Superseded or cancelled while queued
+            if (result.isDone()) {
+                finished();
+                return;
+            }
+            final CompletableFuture<List<String>> future;
+            try {
+                future = task.get();
+            } catch (final RuntimeException | Error e) {
+                result.completeExceptionally(e);
+                finished();
+                return;
+            }
+            future.whenComplete((candidates, error) -> {
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    completed(candidates);
+                    result.complete(candidates);
+                }
+                finished();
+            });
+        }
+
+        /**
+         * Keeps {@code candidates} for requests waiting for a slot, even if this request was superseded or cancelled.
+         */
+        private void completed(final List<String> candidates) {
+            if (candidates == null) {
+                return;
+            }
+            synchronized (state) {
+                if (state.lastCandidates == null || state.lastSequence < sequence) {
+                    state.lastSequence = sequence;
+                    state.lastCommand = data.getCommand();
+                    state.lastParameterName = data.getParameterName();
+                    state.lastValue = data.getCurrentValue();
+                    state.lastCandidates = candidates;
+                }
+            }
+        }
+
+        /**
+         * Releases the slot and starts pending request.
+         */
+        private void finished() {
+            Request next = null;
+            synchronized (state) {
+                state.running.remove(this);
+                if (state.pending != null && state.running.size() < maxConcurrent) {
+                    next = state.pending;
+                    state.pending = null;
+                    state.running.add(next);
+                }
+            }
+            if (next != null) {
+                next.start();
+            }
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package dev.shirokuro.commandutility;
 
+import java.util.List;
+import java.util.Objects;
 import java.util.StringJoiner;
 import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
@@ -18,6 +20,25 @@ public interface ErrorHandler {
         return new Builder();
     }
 
+    /**
+     * Returns names of children of {@code branch} closest to {@code section}, for "did you mean" messages.
+     * See {@link BranchNode#closestChildNames BranchNode.closestChildNames}.
+     *
+     * @param branch branch that has no child named {@code section}
+     * @param section section input by {@link CommandSender}
+     * @param limit maximum number of names
+     * @param maxDistance maximum edit distance
+     * @return names sorted by distance, then by name
+     */
+    public static List<String> suggestSections(
+            final BranchNode branch,
+            final String section,
+            final int limit,
+            final int maxDistance) {
+        Objects.requireNonNull(branch, "branch");
+        return branch.closestChildNames(section, limit, maxDistance);
+    }
+
     /**
      * Called when {@link CommandHandler#execute CommandHandler.execute} threw {@link CommandExecutionException}.
      * <p>It is recommended to send exception message to {@code dispatcher} like below.</p>
@@ -50,6 +71,25 @@ public interface ErrorHandler {
      */
     void onPreferredCommandNotFound(final CommandGroup caller, final CommandSender dispatcher, final BranchNode branch);
 
+    /**
+     * Called when {@link CommandGroup} couldn't find preferred command for {@link CommandSender}'s input.
+     * First element of {@code unreachablePaths} is the section that no child of {@code branch} matched,
+     * which can be passed to {@link #suggestSections suggestSections}.
+     * Default implementation calls {@link #onPreferredCommandNotFound(CommandGroup, CommandSender, BranchNode)}.
+     *
+     * @param caller caller. Not null
+     * @param dispatcher dispatcher of the command. Not null
+     * @param branch last reached branch. Not null
+     * @param unreachablePaths sections after {@code branch}. Empty if input ended at {@code branch}
+     */
+    default void onPreferredCommandNotFound(
+            final CommandGroup caller,
+            final CommandSender dispatcher,
+            final BranchNode branch,
+            final List<String> unreachablePaths) {
+        onPreferredCommandNotFound(caller, dispatcher, branch);
+    }
+
     /**
      * Called when args input by {@link CommandSender} is invalid.
      * <p>It is recommended to send candidates to {@code dispatcher} like below.</p>
@@ -69,12 +109,57 @@ public interface ErrorHandler {
      */
     void onInvalidArgs(final CommandGroup caller, final CommandSender dispatcher, final Command command);
 
+    /**
+     * Called when {@link ArgumentType} couldn't convert args input by {@link CommandSender}.
+     * Default implementation calls {@link #onExecutionFailed onExecutionFailed}.
+     *
+     * @param caller caller. Not null
+     * @param dispatcher dispatcher of the command. Not null
+     * @param command command. Not null
+     * @param exception exception thrown by {@link ArgumentType#convert ArgumentType.convert}. Not null
+     */
+    default void onArgumentConversionFailed(
+            final CommandGroup caller,
+            final CommandSender dispatcher,
+            final Command command,
+            final CommandExecutionException exception) {
+        onExecutionFailed(caller, dispatcher, exception);
+    }
+
+    /**
+     * Called when {@link CommandSender} doesn't have permission required by a branch or a command.
+     * Default implementation calls {@link #onExecutionFailed onExecutionFailed}.
+     *
+     * @param caller caller. Not null
+     * @param dispatcher dispatcher of the command. Not null
+     * @param node branch or command that requires the permission. Not null
+     */
+    default void onPermissionDenied(final CommandGroup caller, final CommandSender dispatcher, final Node node) {
+        onExecutionFailed(caller, dispatcher, new CommandExecutionException("You don't have permission."));
+    }
+
+    /**
+     * Called when {@link CommandSender} exceeded rate limit of a branch or a command.
+     * Default implementation calls {@link #onExecutionFailed onExecutionFailed}.
+     *
+     * @param caller caller. Not null
+     * @param dispatcher dispatcher of the command. Not null
+     * @param node branch or command that has the rate limit. Not null
+     * @param retryAfterMillis milliseconds until {@code dispatcher} can execute it again
+     */
+    default void onRateLimited(final CommandGroup caller, final CommandSender dispatcher, final Node node, final long retryAfterMillis) {
+        onExecutionFailed(caller, dispatcher, DefaultErrorHandler.rateLimitedException(retryAfterMillis));
+    }
+
     public static final class Builder {
 
         private ErrorHandler fallback;
         private BiConsumer<CommandSender, CommandExecutionException> onExecutionFailed;
         private BiConsumer<CommandSender, BranchNode> onPreferredCommandNotFound;
         private BiConsumer<CommandSender, Command> onInvalidArgs;
+        private BiConsumer<CommandSender, CommandExecutionException> onArgumentConversionFailed;
+        private BiConsumer<CommandSender, Node> onPermissionDenied;
+        private BiConsumer<CommandSender, Long> onRateLimited;
 
         public Builder fallback(final ErrorHandler fallback) {
             this.fallback = fallback;
@@ -91,6 +176,25 @@ public interface ErrorHandler {
             return this;
         }
 
+        public Builder onArgumentConversionFailed(
+                final BiConsumer<CommandSender, CommandExecutionException> onArgumentConversionFailed) {
+            this.onArgumentConversionFailed = onArgumentConversionFailed;
+            return this;
+        }
+
+        public Builder onPermissionDenied(final BiConsumer<CommandSender, Node> onPermissionDenied) {
+            this.onPermissionDenied = onPermissionDenied;
+            return this;
+        }
+
+        /**
+         * Sets handler called with milliseconds until the sender can execute the command again.
+         */
+        public Builder onRateLimited(final BiConsumer<CommandSender, Long> onRateLimited) {
+            this.onRateLimited = onRateLimited;
+            return this;
+        }
+
         public Builder onPreferredCommandNotFound(final BiConsumer<CommandSender, BranchNode> onPreferredCommandNotFound) {
             this.onPreferredCommandNotFound = onPreferredCommandNotFound;
             return this;
@@ -108,6 +212,19 @@ public interface ErrorHandler {
                     }
                 }
 
+                @Override
+                public void onPreferredCommandNotFound(
+                        final CommandGroup caller,
+                        final CommandSender dispatcher,
+                        final BranchNode branch,
+                        final List<String> unreachablePaths) {
+                    if (onPreferredCommandNotFound != null) {
+                        onPreferredCommandNotFound.accept(dispatcher, branch);
+                    } else if (fallback != null) {
+                        fallback.onPreferredCommandNotFound(caller, dispatcher, branch, unreachablePaths);
+                    }
+                }
+
                 @Override
                 public void onExecutionFailed(final CommandGroup caller, final CommandSender dispatcher, final CommandExecutionException exception) {
                     if (onExecutionFailed != null) {
@@ -125,6 +242,47 @@ public interface ErrorHandler {
                         fallback.onInvalidArgs(caller, dispatcher, command);
                     }
                 }
+
+                @Override
+                public void onArgumentConversionFailed(
+                        final CommandGroup caller,
+                        final CommandSender dispatcher,
+                        final Command command,
+                        final CommandExecutionException exception) {
+                    if (onArgumentConversionFailed != null) {
+                        onArgumentConversionFailed.accept(dispatcher, exception);
+                    } else if (fallback != null) {
+                        fallback.onArgumentConversionFailed(caller, dispatcher, command, exception);
+                    } else {
+                        onExecutionFailed(caller, dispatcher, exception);
+                    }
+                }
+
+                @Override
+                public void onPermissionDenied(final CommandGroup caller, final CommandSender dispatcher, final Node node) {
+                    if (onPermissionDenied != null) {
+                        onPermissionDenied.accept(dispatcher, node);
+                    } else if (fallback != null) {
+                        fallback.onPermissionDenied(caller, dispatcher, node);
+                    } else {
+                        onExecutionFailed(caller, dispatcher, new CommandExecutionException("You don't have permission."));
+                    }
+                }
+
+                @Override
+                public void onRateLimited(
+                        final CommandGroup caller,
+                        final CommandSender dispatcher,
+                        final Node node,
+                        final long retryAfterMillis) {
+                    if (onRateLimited != null) {
+                        onRateLimited.accept(dispatcher, retryAfterMillis);
+                    } else if (fallback != null) {
+                        fallback.onRateLimited(caller, dispatcher, node, retryAfterMillis);
+                    } else {
+                        onExecutionFailed(caller, dispatcher, DefaultErrorHandler.rateLimitedException(retryAfterMillis));
+                    }
+                }
             };
         }
     }
@@ -132,6 +290,9 @@ public interface ErrorHandler {
     public static final class DefaultErrorHandler implements ErrorHandler {
 
         private static final DefaultErrorHandler INSTANCE = new DefaultErrorHandler();
+        private static final int MAX_CANDIDATES = 20;
+        private static final int MAX_SUGGESTIONS = 3;
+        private static final int MAX_SUGGESTION_DISTANCE = 2;
 
         private DefaultErrorHandler() {
         }
@@ -140,9 +301,47 @@ public interface ErrorHandler {
             return INSTANCE;
         }
 
+        /**
+         * Creates exception passed to {@link #onExecutionFailed onExecutionFailed} when rate limited.
+         */
+        static CommandExecutionException rateLimitedException(final long retryAfterMillis) {
+            final long seconds = Math.max(1, (retryAfterMillis + 999) / 1000);
+            return new CommandExecutionException("You must wait " + seconds + (seconds == 1 ? " second" : " seconds")
+                + " before using this command again.");
+        }
+
         @Override
         public void onPreferredCommandNotFound(final CommandGroup caller, final CommandSender dispatcher, final BranchNode branch) {
-            dispatcher.sendMessage("Candidates: " + String.join(", ", branch.getChildren().keySet()));
+            final List<String> names = branch.childNamesStartingWith("").stream()
+                .filter(name -> caller.isPermitted(dispatcher, branch.getChild(name)))
+                .collect(Collectors.toList());
+            if (names.size() <= MAX_CANDIDATES) {
+                dispatcher.sendMessage("Candidates: " + String.join(", ", names));
+            } else {
+                dispatcher.sendMessage("Candidates: " + String.join(", ", names.subList(0, MAX_CANDIDATES)) +
+                    " and " + (names.size() - MAX_CANDIDATES) + " more");
+            }
+        }
+
+        @Override
+        public void onPreferredCommandNotFound(
+                final CommandGroup caller,
+                final CommandSender dispatcher,
+                final BranchNode branch,
+                final List<String> unreachablePaths) {
+            if (!unreachablePaths.isEmpty()) {
+                final String section = unreachablePaths.get(0);
+                final List<String> suggestions =
+                    ErrorHandler.suggestSections(branch, section, MAX_SUGGESTIONS, MAX_SUGGESTION_DISTANCE).stream()
+                        .filter(name -> caller.isPermitted(dispatcher, branch.getChild(name)))
+                        .collect(Collectors.toList());
+                if (!suggestions.isEmpty()) {
+                    dispatcher.sendMessage("Unknown command '" + section + "'. Did you mean: " +
+                        String.join(", ", suggestions) + "?");
+                    return;
+                }
+            }
+            onPreferredCommandNotFound(caller, dispatcher, branch);
         }
 
         @Override
@@ -1,10 +1,12 @@
 package dev.shirokuro.commandutility;
 
 import com.google.common.collect.ImmutableMap;
+import java.util.Collections;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 
@@ -13,13 +15,36 @@ public final class ExecutionData {
     private final CommandGroup group;
     private final CommandSender sender;
     private final CommandNode command;
-    private final Map<String, String> args;
+    private final ParsedArgs args;
+    /**
+     * Args given to the map constructor, including keys that are not parameters. {@code null} if parsed.
+     */
+    private final Map<String, String> argMap;
 
+    /**
+     * Constructs {@code ExecutionData} from map. {@link #getArgs()} and {@link #get(String)} return
+     * all entries of {@code args}, even if they are not parameters of the command.
+     */
     public ExecutionData(CommandGroup group, CommandSender sender, CommandNode command, Map<String, String> args) {
+        this(group, sender, command,
+            ParsedArgs.fromMap(command.getCommand(), args, Collections.emptyMap()), ImmutableMap.copyOf(args));
+    }
+
+    public ExecutionData(CommandGroup group, CommandSender sender, CommandNode command, ParsedArgs args) {
+        this(group, sender, command, args, null);
+    }
+
+    private ExecutionData(
+            final CommandGroup group,
+            final CommandSender sender,
+            final CommandNode command,
+            final ParsedArgs args,
+            final Map<String, String> argMap) {
         this.group = Objects.requireNonNull(group);
         this.sender = Objects.requireNonNull(sender);
         this.command = Objects.requireNonNull(command);
-        this.args = ImmutableMap.copyOf(Objects.requireNonNull(args));
+        this.args = Objects.requireNonNull(args);
+        this.argMap = argMap;
     }
 
     public CommandGroup getGroup() {
@@ -67,6 +92,31 @@ public final class ExecutionData {
         return getPlayer("You cannot perform this command from the console");
     }
 
+    /**
+     * Returns whether the sender is still connected.
+     * {@link AsyncCommandHandler} can use this to stop execution when the sender disconnected.
+     *
+     * @return {@code true} if connected
+     */
+    public boolean isSenderConnected() {
+        return group.getPlatform().isConnected(sender);
+    }
+
+    /**
+     * Runs {@code task} with the sender on the main thread, if the sender is still connected then.
+     * {@link AsyncCommandHandler} can use this to deliver results.
+     *
+     * @param task task to run
+     */
+    public void runSync(final Consumer<? super CommandSender> task) {
+        Objects.requireNonNull(task, "task");
+        group.getPlatform().getScheduler().runSync(() -> {
+            if (isSenderConnected()) {
+                task.accept(sender);
+            }
+        });
+    }
+
     public CommandNode getCommand() {
         return command;
     }
@@ -77,6 +127,12 @@ public final class ExecutionData {
      * @return args (immutable)
      */
     public Map<String, String> getArgs() {
+        return argMap != null
+            ? argMap
+            : args.asMap();
+    }
+
+    public ParsedArgs getParsedArgs() {
         return args;
     }
 
@@ -87,7 +143,10 @@ public final class ExecutionData {
      * @return value
      */
     public Optional<String> get(final String parameterName) {
-        return Optional.ofNullable(args.get(Objects.requireNonNull(parameterName)));
+        Objects.requireNonNull(parameterName);
+        return Optional.ofNullable(argMap != null
+            ? argMap.get(parameterName)
+            : args.get(parameterName));
     }
 
     public String getOrNull(final String parameterName) {
@@ -97,4 +156,59 @@ public final class ExecutionData {
     public String getOrFail(final String parameterName) {
         return get(parameterName).orElseThrow(() -> new NoSuchElementException("No parameter named " + parameterName + "exists"));
     }
+
+    /**
+     * Gets argument value converted by {@link ArgumentType}.
+     * If parameter has no type, the value is a {@code String}.
+     *
+     * @param parameterName parameter name
+     * @param type type of value. e.g. {@code Integer.class} for {@code <amount:int>}
+     * @return value
+     * @throws IllegalArgumentException if value is not a instance of {@code type}
+     */
+    public <T> Optional<T> getValue(final String parameterName, final Class<T> type) {
+        Objects.requireNonNull(parameterName, "parameterName");
+        Objects.requireNonNull(type, "type");
+        final int index = command.getCommand().indexOfParameter(parameterName);
+        final Object value = index >= 0
+            ? args.getValue(index)
+            : null;
+        if (value != null && !type.isInstance(value)) {
+            throw new IllegalArgumentException("Value of parameter " + parameterName + " is " +
+                value.getClass().getName() + ", not " + type.getName());
+        }
+        return Optional.ofNullable(type.cast(value));
+    }
+
+    public <T> T getValueOrNull(final String parameterName, final Class<T> type) {
+        return getValue(parameterName, type).orElse(null);
+    }
+
+    public <T> T getValueOrFail(final String parameterName, final Class<T> type) {
+        return getValue(parameterName, type).orElseThrow(() -> new NoSuchElementException("No parameter named " + parameterName + " exists"));
+    }
+
+    /**
+     * Gets argument value by {@code key}.
+     *
+     * @param key key of parameter
+     * @return value
+     * @throws IllegalArgumentException if command has no parameter of {@code key},
+     *                                  or value is not a instance of type of {@code key}
+     */
+    public <T> Optional<T> get(final ParamKey<T> key) {
+        return Optional.ofNullable(args.get(Objects.requireNonNull(key, "key")));
+    }
+
+    public <T> T getOrNull(final ParamKey<T> key) {
+        return args.get(Objects.requireNonNull(key, "key"));
+    }
+
+    public <T> T getOrFail(final ParamKey<T> key) {
+        final T value = getOrNull(key);
+        if (value == null) {
+            throw new NoSuchElementException("No argument for parameter " + key.getName() + " specified");
+        }
+        return value;
+    }
 }
@@ -0,0 +1,61 @@
+package dev.shirokuro.commandutility;
+
+/**
+ * Hashing and comparison of case-folded names for tables keyed by them.
+ * <p>
+ * Keys are folded once when they are put. Lookups hash and compare the given name
+ * folding one character at a time, so no folded copy of the name is created.
+ * Folding is same as {@link String#CASE_INSENSITIVE_ORDER}.
+ * </p>
+ */
+final class FoldedTable {
+
+    private FoldedTable() {
+    }
+
+    static char fold(final char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    static String fold(final String name) {
+        final char[] chars = new char[name.length()];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = fold(name.charAt(i));
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Returns hash of folded {@code name}. Same as {@code fold(name).hashCode()}.
+     */
+    static int hash(final String name) {
+        int hash = 0;
+        for (int i = 0; i < name.length(); i++) {
+            hash = 31 * hash + fold(name.charAt(i));
+        }
+        return hash;
+    }
+
+    /**
+     * Returns whether {@code name} is equal to {@code folded} ignoring case.
+     *
+     * @param folded folded key
+     * @param name name to compare
+     */
+    static boolean matches(final String folded, final String name) {
+        final int length = folded.length();
+        if (length != name.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (folded.charAt(i) != fold(name.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static int spread(final int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
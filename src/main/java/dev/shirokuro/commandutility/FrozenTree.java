@@ -0,0 +1,282 @@
+package dev.shirokuro.commandutility;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Immutable, array-backed copy of a {@link BranchNode} tree.
+ * <p>
+ * Children of each branch are stored in an open-addressing table indexed by hash of section name.
+ * The table is grown until it has no collisions where possible, so lookup is usually a single array read.
+ * Aliases are resolved when the tree is built, including branches on the way to targets of multi-section aliases,
+ * and chains of branches that have only one child branch
+ * are collapsed into one entry that is matched section by section.
+ * If branches {@link BranchNode#isIgnoreCase() ignore case}, keys are folded when the tree is built,
+ * and sections are folded character by character while hashing and comparing.
+ * </p>
+ * Instances are safe to read from any thread.
+ */
+final class FrozenTree {
+
+    /**
+     * Maximum number of times to double the table size for avoiding collisions.
+     */
+    private static final int MAX_GROW_FOR_PERFECT_HASH = 3;
+
+    private final Branch root;
+
+    private FrozenTree(final Branch root) {
+        this.root = root;
+    }
+
+    /**
+     * Builds {@code FrozenTree} from specified root.
+     *
+     * @param root root of the tree
+     * @return frozen tree
+     */
+    static FrozenTree build(final BranchNode root) {
+        Objects.requireNonNull(root, "root");
+        return new FrozenTree(compileChildren(new BranchNode[]{root}, new IdentityHashMap<>()));
+    }
+
+    /**
+     * Walk the tree. Result is same as {@link BranchNode#walk(List)}.
+     *
+     * @param paths paths to walk
+     * @return result
+     */
+    BranchNode.WalkResult walk(final List<String> paths) {
+        final int size = paths.size();
+        final List<BranchNode> branches = new ArrayList<>(size);
+        CommandNode commandNode = null;
+        Branch current = root;
+        int index = 0;
+        while (index < size) {
+            final int slot = current.find(paths.get(index));
+            if (slot < 0) {
+                break;
+            }
+            if (current.via != null && current.via[slot] != null) {
+                branches.addAll(Arrays.asList(current.via[slot]));
+            }
+            final CommandNode command = current.commands[slot];
+            if (command != null) {
+                index++;
+                commandNode = command;
+                break;
+            }
+            final Branch next = current.branches[slot];
+            final BranchNode[] chain = next.chain;
+            index++;
+            branches.add(chain[0]);
+            int matched = 1;
+            while (matched < chain.length && index < size && next.matchesChain(matched, paths.get(index))) {
+                branches.add(chain[matched]);
+                index++;
+                matched++;
+            }
+            if (matched < chain.length) {
+                break;
+            }
+            current = next;
+        }
+        return BranchNode.WalkResult.wrap(
+            Collections.unmodifiableList(branches),
+            BranchNode.unreachablePaths(paths, index),
+            commandNode);
+    }
+
+    /**
+     * Compiles children of last branch of {@code chain}.
+     */
+    private static Branch compileChildren(final BranchNode[] chain, final Map<BranchNode, Branch> compiled) {
+        final BranchNode owner = chain[chain.length - 1];
+        final boolean ignoreCase = owner.isIgnoreCase();
+        final Map<String, Node> children = owner.getChildren();
+        final int count = children.size();
+        final String[] names = new String[count];
+        final Node[] nodes = new Node[count];
+        final BranchNode[][] aliasBranches = new BranchNode[count][];
+        boolean hasVia = false;
+        int i = 0;
+        for (final Map.Entry<String, Node> entry : children.entrySet()) {
+            names[i] = ignoreCase
+                ? FoldedTable.fold(entry.getKey())
+                : entry.getKey();
+            final Node node = entry.getValue();
+            if (node instanceof AliasNode) {
+                final Node[] path = ((AliasNode) node).resolve();
+                if (path != null) {
+                    nodes[i] = path[path.length - 1];
+                    if (path.length > 1) {
+                        aliasBranches[i] = Arrays.copyOf(path, path.length - 1, BranchNode[].class);
+                        hasVia = true;
+                    }
+                }
+            } else {
+                nodes[i] = node;
+            }
+            i++;
+        }
+        final int capacity = tableCapacity(names);
+        final int mask = capacity - 1;
+        final String[] keys = new String[capacity];
+        final Branch[] branches = new Branch[capacity];
+        final CommandNode[] commands = new CommandNode[capacity];
+        final BranchNode[][] via = hasVia
+            ? new BranchNode[capacity][]
+            : null;
+        for (int j = 0; j < count; j++) {
+            final Node node = nodes[j];
+            if (node == null) {
+                // alias to missing node
+                continue;
+            }
+            int slot = FoldedTable.spread(names[j].hashCode()) & mask;
+            while (keys[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = names[j];
+            if (via != null) {
+                via[slot] = aliasBranches[j];
+            }
+            if (node instanceof CommandNode) {
+                commands[slot] = (CommandNode) node;
+            } else {
+                // Branch may be compiled already if it is a target of alias
+                final BranchNode branch = (BranchNode) node;
+                Branch compiledBranch = compiled.get(branch);
+                if (compiledBranch == null) {
+                    compiledBranch = compileChildren(collapse(branch), compiled);
+                    compiled.put(branch, compiledBranch);
+                }
+                branches[slot] = compiledBranch;
+            }
+        }
+        return new Branch(chain, keys, branches, commands, via, mask, ignoreCase);
+    }
+
+    /**
+     * Collects chain of branches starting with {@code head} while a branch has only one child and it is a branch.
+     */
+    private static BranchNode[] collapse(final BranchNode head) {
+        final List<BranchNode> chain = new ArrayList<>(1);
+        BranchNode current = head;
+        while (true) {
+            chain.add(current);
+            final Map<String, Node> children = current.getChildren();
+            if (children.size() != 1) {
+                break;
+            }
+            final Node only = children.values().iterator().next();
+            if (!(only instanceof BranchNode)) {
+                break;
+            }
+            current = (BranchNode) only;
+        }
+        return chain.toArray(new BranchNode[0]);
+    }
+
+    /**
+     * Returns power of two table capacity. If possible, the capacity is chosen to make no collisions.
+     */
+    private static int tableCapacity(final String[] names) {
+        int capacity = Integer.highestOneBit(Math.max(1, names.length) * 2 - 1) << 1;
+        for (int attempt = 0; attempt < MAX_GROW_FOR_PERFECT_HASH; attempt++) {
+            if (isCollisionFree(names, capacity)) {
+                return capacity;
+            }
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static boolean isCollisionFree(final String[] names, final int capacity) {
+        final boolean[] used = new boolean[capacity];
+        final int mask = capacity - 1;
+        for (final String name : names) {
+            final int slot = FoldedTable.spread(name.hashCode()) & mask;
+            if (used[slot]) {
+                return false;
+            }
+            used[slot] = true;
+        }
+        return true;
+    }
+
+    private static final class Branch {
+
+        /**
+         * Branches consumed by entering this branch. First element is matched by parent's table.
+         */
+        private final BranchNode[] chain;
+        private final String[] keys;
+        private final Branch[] branches;
+        private final CommandNode[] commands;
+        /**
+         * Branches passed through by multi-section aliases, which are reached without consuming sections.
+         * {@code null} if no alias has them.
+         */
+        private final BranchNode[][] via;
+        private final int mask;
+        /**
+         * Whether {@code keys} are folded.
+         */
+        private final boolean ignoreCase;
+
+        private Branch(
+                final BranchNode[] chain,
+                final String[] keys,
+                final Branch[] branches,
+                final CommandNode[] commands,
+                final BranchNode[][] via,
+                final int mask,
+                final boolean ignoreCase) {
+            this.chain = chain;
+            this.keys = keys;
+            this.branches = branches;
+            this.commands = commands;
+            this.via = via;
+            this.mask = mask;
+            this.ignoreCase = ignoreCase;
+        }
+
+        /**
+         * Returns whether {@code chain[index]} matches {@code section}.
+         */
+        private boolean matchesChain(final int index, final String section) {
+            final String name = chain[index].getName();
+            return chain[index - 1].isIgnoreCase()
+                ? name.equalsIgnoreCase(section)
+                : name.equals(section);
+        }
+
+        /**
+         * Finds slot of specified section.
+         *
+         * @return slot or {@code -1} if not found
+         */
+        private int find(final String section) {
+            final int hash = ignoreCase
+                ? FoldedTable.hash(section)
+                : section.hashCode();
+            int slot = FoldedTable.spread(hash) & mask;
+            while (true) {
+                final String key = keys[slot];
+                if (key == null) {
+                    return -1;
+                }
+                if (ignoreCase ? FoldedTable.matches(key, section) : key.equals(section)) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+    }
+}
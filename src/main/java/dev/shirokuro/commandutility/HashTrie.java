@@ -0,0 +1,412 @@
+package dev.shirokuro.commandutility;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Persistent map keyed by names, implemented as a hash array mapped trie.
+ * <p>
+ * {@link #put put} and {@link #remove remove} return a new map that shares all nodes
+ * except the path from the root to the changed entry, so a change copies at most a few small arrays
+ * regardless of size. If the map ignores case, keys are folded once when they are put, and lookups
+ * hash and compare names folding one character at a time like {@link FoldedTable}.
+ * </p>
+ * This class is immutable.
+ *
+ * @param <V> type of values
+ */
+final class HashTrie<V> {
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final HashTrie<?> EMPTY_SENSITIVE = new HashTrie<>(Bitmap.EMPTY, 0, false);
+    private static final HashTrie<?> EMPTY_INSENSITIVE = new HashTrie<>(Bitmap.EMPTY, 0, true);
+
+    private final Bitmap root;
+    private final int size;
+    private final boolean ignoreCase;
+
+    private HashTrie(final Bitmap root, final int size, final boolean ignoreCase) {
+        this.root = root;
+        this.size = size;
+        this.ignoreCase = ignoreCase;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <V> HashTrie<V> empty(final boolean ignoreCase) {
+        return (HashTrie<V>) (ignoreCase ? EMPTY_INSENSITIVE : EMPTY_SENSITIVE);
+    }
+
+    boolean isIgnoreCase() {
+        return ignoreCase;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private int hash(final String name) {
+        return FoldedTable.spread(ignoreCase ? FoldedTable.hash(name) : name.hashCode());
+    }
+
+    private boolean matches(final String key, final String name) {
+        return ignoreCase
+            ? FoldedTable.matches(key, name)
+            : key.equals(name);
+    }
+
+    /**
+     * Returns value of {@code name}, ignoring case if this map ignores case.
+     *
+     * @return value or {@code null} if not exists
+     */
+    @SuppressWarnings("unchecked")
+    V get(final String name) {
+        final int hash = hash(name);
+        Object node = root;
+        int shift = 0;
+        while (true) {
+            if (node instanceof Bitmap) {
+                final Bitmap bitmap = (Bitmap) node;
+                final int bit = 1 << ((hash >>> shift) & MASK);
+                if ((bitmap.bits & bit) == 0) {
+                    return null;
+                }
+                node = bitmap.slots[Integer.bitCount(bitmap.bits & (bit - 1))];
+                shift += BITS;
+            } else if (node instanceof Leaf) {
+                final Leaf leaf = (Leaf) node;
+                return leaf.hash == hash && matches(leaf.key, name)
+                    ? (V) leaf.value
+                    : null;
+            } else {
+                final Collision collision = (Collision) node;
+                if (collision.hash != hash) {
+                    return null;
+                }
+                for (final Leaf leaf : collision.leaves) {
+                    if (matches(leaf.key, name)) {
+                        return (V) leaf.value;
+                    }
+                }
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Returns map with {@code value} of {@code name}. Existing value of the name is replaced.
+     *
+     * @return new map
+     */
+    HashTrie<V> put(final String name, final V value) {
+        final String key = ignoreCase
+            ? FoldedTable.fold(name)
+            : name;
+        final Leaf leaf = new Leaf(hash(name), key, value);
+        final boolean[] replaced = new boolean[1];
+        final Bitmap newRoot = (Bitmap) put(root, leaf, 0, replaced);
+        return new HashTrie<>(newRoot, replaced[0] ? size : size + 1, ignoreCase);
+    }
+
+    /**
+     * Returns map without {@code name}.
+     *
+     * @return new map, or this if {@code name} doesn't exist
+     */
+    HashTrie<V> remove(final String name) {
+        final Object newRoot = remove(root, name, hash(name), 0);
+        if (newRoot == root) {
+            return this;
+        }
+        return new HashTrie<>(newRoot != null ? (Bitmap) newRoot : Bitmap.EMPTY, size - 1, ignoreCase);
+    }
+
+    /**
+     * Returns map with values of {@code names}. Existing values of the names are replaced,
+     * and later one wins if {@code names} has duplicates.
+     * <p>
+     * If this map is empty, the trie is built level by level without copying nodes for each entry.
+     * </p>
+     *
+     * @param names names
+     * @param values values of {@code names} in the same order
+     * @return new map
+     */
+    HashTrie<V> putAll(final List<String> names, final List<? extends V> values) {
+        if (size != 0 || names.size() <= 1) {
+            HashTrie<V> result = this;
+            for (int i = 0; i < names.size(); i++) {
+                result = result.put(names.get(i), values.get(i));
+            }
+            return result;
+        }
+        final Leaf[] leaves = new Leaf[names.size()];
+        for (int i = 0; i < leaves.length; i++) {
+            final String name = names.get(i);
+            leaves[i] = new Leaf(hash(name), ignoreCase ? FoldedTable.fold(name) : name, values.get(i));
+        }
+        final int[] count = new int[1];
+        final Bitmap newRoot = build(leaves, new Leaf[leaves.length], 0, leaves.length, 0, count);
+        return new HashTrie<>(newRoot, count[0], ignoreCase);
+    }
+
+    /**
+     * Builds branch of {@code leaves[from, to)}, whose hashes are same below {@code shift}.
+     * {@code leaves} in the range are reordered using {@code buffer}.
+     *
+     * @param count incremented by number of distinct keys
+     */
+    private static Bitmap build(final Leaf[] leaves, final Leaf[] buffer, final int from, final int to, final int shift, final int[] count) {
+        // Counting sort by the chunk of hash at this level
+        final int[] starts = new int[MASK + 2];
+        for (int i = from; i < to; i++) {
+            starts[((leaves[i].hash >>> shift) & MASK) + 1]++;
+        }
+        int bits = 0;
+        int slotCount = 0;
+        for (int chunk = 0; chunk <= MASK; chunk++) {
+            if (starts[chunk + 1] != 0) {
+                bits |= 1 << chunk;
+                slotCount++;
+            }
+            starts[chunk + 1] += starts[chunk];
+        }
+        final int[] next = starts.clone();
+        for (int i = from; i < to; i++) {
+            buffer[from + next[(leaves[i].hash >>> shift) & MASK]++] = leaves[i];
+        }
+        // Stable, so later duplicates stay later
+        System.arraycopy(buffer, from, leaves, from, to - from);
+        final Object[] slots = new Object[slotCount];
+        int slot = 0;
+        for (int chunk = 0; chunk <= MASK; chunk++) {
+            final int start = from + starts[chunk];
+            final int end = from + starts[chunk + 1];
+            if (start != end) {
+                slots[slot++] = buildSlot(leaves, buffer, start, end, shift + BITS, count);
+            }
+        }
+        return new Bitmap(bits, slots);
+    }
+
+    private static Object buildSlot(final Leaf[] leaves, final Leaf[] buffer, final int from, final int to, final int shift, final int[] count) {
+        boolean sameHash = true;
+        for (int i = from + 1; i < to && sameHash; i++) {
+            sameHash = leaves[i].hash == leaves[from].hash;
+        }
+        if (!sameHash) {
+            return build(leaves, buffer, from, to, shift, count);
+        }
+        final List<Leaf> distinct = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            final Leaf leaf = leaves[i];
+            distinct.removeIf(existing -> existing.key.equals(leaf.key));
+            distinct.add(leaf);
+        }
+        count[0] += distinct.size();
+        return distinct.size() == 1
+            ? distinct.get(0)
+            : new Collision(leaves[from].hash, distinct.toArray(new Leaf[0]));
+    }
+
+    /**
+     * Calls {@code action} with each value in unspecified order.
+     */
+    @SuppressWarnings("unchecked")
+    void forEachValue(final Consumer<? super V> action) {
+        forEachValue(root, (Consumer<Object>) action);
+    }
+
+    private static void forEachValue(final Object node, final Consumer<Object> action) {
+        if (node instanceof Bitmap) {
+            for (final Object slot : ((Bitmap) node).slots) {
+                forEachValue(slot, action);
+            }
+        } else if (node instanceof Leaf) {
+            action.accept(((Leaf) node).value);
+        } else {
+            for (final Leaf leaf : ((Collision) node).leaves) {
+                action.accept(leaf.value);
+            }
+        }
+    }
+
+    private Object put(final Object node, final Leaf leaf, final int shift, final boolean[] replaced) {
+        if (node instanceof Bitmap) {
+            final Bitmap bitmap = (Bitmap) node;
+            final int bit = 1 << ((leaf.hash >>> shift) & MASK);
+            final int index = Integer.bitCount(bitmap.bits & (bit - 1));
+            if ((bitmap.bits & bit) == 0) {
+                return bitmap.inserted(bit, index, leaf);
+            }
+            return bitmap.replaced(index, put(bitmap.slots[index], leaf, shift + BITS, replaced));
+        } else if (node instanceof Leaf) {
+            final Leaf existing = (Leaf) node;
+            if (existing.hash == leaf.hash && existing.key.equals(leaf.key)) {
+                replaced[0] = true;
+                return leaf;
+            }
+            if (existing.hash == leaf.hash) {
+                return new Collision(leaf.hash, new Leaf[]{existing, leaf});
+            }
+            return merge(existing, existing.hash, leaf, shift);
+        } else {
+            final Collision collision = (Collision) node;
+            if (collision.hash != leaf.hash) {
+                return merge(collision, collision.hash, leaf, shift);
+            }
+            final Leaf[] leaves = collision.leaves;
+            for (int i = 0; i < leaves.length; i++) {
+                if (leaves[i].key.equals(leaf.key)) {
+                    final Leaf[] copy = leaves.clone();
+                    copy[i] = leaf;
+                    replaced[0] = true;
+                    return new Collision(leaf.hash, copy);
+                }
+            }
+            final Leaf[] copy = new Leaf[leaves.length + 1];
+            System.arraycopy(leaves, 0, copy, 0, leaves.length);
+            copy[leaves.length] = leaf;
+            return new Collision(leaf.hash, copy);
+        }
+    }
+
+    /**
+     * Returns branch that has {@code node} and {@code leaf}. Their hashes must be different.
+     */
+    private static Bitmap merge(final Object node, final int nodeHash, final Leaf leaf, final int shift) {
+        final int nodeIndex = (nodeHash >>> shift) & MASK;
+        final int leafIndex = (leaf.hash >>> shift) & MASK;
+        if (nodeIndex == leafIndex) {
+            return new Bitmap(1 << nodeIndex, new Object[]{merge(node, nodeHash, leaf, shift + BITS)});
+        }
+        return new Bitmap((1 << nodeIndex) | (1 << leafIndex), nodeIndex < leafIndex
+            ? new Object[]{node, leaf}
+            : new Object[]{leaf, node});
+    }
+
+    /**
+     * Removes {@code name} under {@code node}.
+     *
+     * @return new node, {@code null} if it became empty, or {@code node} itself if not found
+     */
+    private Object remove(final Object node, final String name, final int hash, final int shift) {
+        if (node instanceof Bitmap) {
+            final Bitmap bitmap = (Bitmap) node;
+            final int bit = 1 << ((hash >>> shift) & MASK);
+            if ((bitmap.bits & bit) == 0) {
+                return bitmap;
+            }
+            final int index = Integer.bitCount(bitmap.bits & (bit - 1));
+            final Object child = bitmap.slots[index];
+            final Object newChild = remove(child, name, hash, shift + BITS);
+            if (newChild == child) {
+                return bitmap;
+            }
+            if (newChild == null) {
+                if (bitmap.slots.length == 1) {
+                    return null;
+                }
+                final Bitmap removed = bitmap.removed(bit, index);
+                // Pull up a single entry so that lookups don't descend through a chain of branches
+                return shift > 0 && removed.slots.length == 1 && !(removed.slots[0] instanceof Bitmap)
+                    ? removed.slots[0]
+                    : removed;
+            }
+            if (shift > 0 && bitmap.slots.length == 1 && !(newChild instanceof Bitmap)) {
+                return newChild;
+            }
+            return bitmap.replaced(index, newChild);
+        } else if (node instanceof Leaf) {
+            final Leaf leaf = (Leaf) node;
+            return leaf.hash == hash && matches(leaf.key, name)
+                ? null
+                : leaf;
+        } else {
+            final Collision collision = (Collision) node;
+            if (collision.hash != hash) {
+                return collision;
+            }
+            final Leaf[] leaves = collision.leaves;
+            for (int i = 0; i < leaves.length; i++) {
+                if (matches(leaves[i].key, name)) {
+                    if (leaves.length == 2) {
+                        return leaves[1 - i];
+                    }
+                    final Leaf[] copy = new Leaf[leaves.length - 1];
+                    System.arraycopy(leaves, 0, copy, 0, i);
+                    System.arraycopy(leaves, i + 1, copy, i, copy.length - i);
+                    return new Collision(hash, copy);
+                }
+            }
+            return collision;
+        }
+    }
+
+    /**
+     * Branch of the trie. {@code slots} has an entry for each set bit of {@code bits},
+     * which is a {@code Bitmap}, {@code Leaf} or {@code Collision}.
+     */
+    private static final class Bitmap {
+
+        private static final Bitmap EMPTY = new Bitmap(0, new Object[0]);
+
+        private final int bits;
+        private final Object[] slots;
+
+        private Bitmap(final int bits, final Object[] slots) {
+            this.bits = bits;
+            this.slots = slots;
+        }
+
+        private Bitmap inserted(final int bit, final int index, final Object slot) {
+            final Object[] copy = new Object[slots.length + 1];
+            System.arraycopy(slots, 0, copy, 0, index);
+            copy[index] = slot;
+            System.arraycopy(slots, index, copy, index + 1, slots.length - index);
+            return new Bitmap(bits | bit, copy);
+        }
+
+        private Bitmap replaced(final int index, final Object slot) {
+            final Object[] copy = slots.clone();
+            copy[index] = slot;
+            return new Bitmap(bits, copy);
+        }
+
+        private Bitmap removed(final int bit, final int index) {
+            final Object[] copy = new Object[slots.length - 1];
+            System.arraycopy(slots, 0, copy, 0, index);
+            System.arraycopy(slots, index + 1, copy, index, copy.length - index);
+            return new Bitmap(bits & ~bit, copy);
+        }
+    }
+
+    private static final class Leaf {
+
+        private final int hash;
+        private final String key;
+        private final Object value;
+
+        private Leaf(final int hash, final String key, final Object value) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Entries whose hashes are same.
+     */
+    private static final class Collision {
+
+        private final int hash;
+        private final Leaf[] leaves;
+
+        private Collision(final int hash, final Leaf[] leaves) {
+            this.hash = hash;
+            this.leaves = leaves;
+        }
+    }
+}
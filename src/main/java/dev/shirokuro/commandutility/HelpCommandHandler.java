@@ -1,19 +1,65 @@
 package dev.shirokuro.commandutility;
 
+import com.google.common.collect.MapMaker;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
 import org.bukkit.ChatColor;
 import org.bukkit.command.CommandSender;
-import org.bukkit.entity.Player;
-import org.bukkit.permissions.Permissible;
 
 /**
  * {@code HelpCommandHandler} is a {@code CommandHandler} to display help messages of all commands.
+ * <p>
+ * If the command has a parameter, its value selects the page and the subtree to display.
+ * For example, {@code /help 3} displays third page, and {@code /help warp 2} displays
+ * second page of commands under {@code warp}.
+ * </p>
+ * <pre>
+ *     group.add(new HelpCommandHandler(), "help [query]", "Displays help");
+ * </pre>
+ * Pages are rendered once per branch and cached until the branch or its ancestors are modified.
+ * Each page is sent as one message. Commands that the sender isn't permitted are not displayed,
+ * and pages are cached for each allow-set of {@link PermissionCache}.
  */
 public final class HelpCommandHandler implements CommandHandler {
 
+    private static final int DEFAULT_PAGE_SIZE = 10;
+    /**
+     * Maximum number of allow-sets to keep pages for each branch. Senders usually share a few allow-sets.
+     */
+    private static final int MAX_FILTERED_PAGES = 64;
+
     private final String header;
     private final String footer;
     private final String requiredPermission;
+    private final int pageSize;
+    /**
+     * Rendered pages by branch. Keys are compared by identity and weakly referenced.
+     */
+    private final Map<BranchNode, Rendered> cache = new MapMaker().weakKeys().makeMap();
+
+    /**
+     * Constructs {@code HelpCommandHandler} with specified header, footer and page size.
+     *
+     * @param header header of this command. Nullable
+     * @param footer footer of this command. Nullable
+     * @param requiredPermission permission to use this command. Nullable
+     * @param pageSize number of commands per page
+     */
+    public HelpCommandHandler(final String header, final String footer, final String requiredPermission, final int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("pageSize must be positive");
+        }
+        this.header = header;
+        this.footer = footer;
+        this.requiredPermission = requiredPermission;
+        this.pageSize = pageSize;
+    }
 
     /**
      * Constructs {@code HelpCommandHandler} with specified header and footer.
@@ -22,9 +68,7 @@ public final class HelpCommandHandler implements CommandHandler {
      * @param footer footer of this command
      */
     public HelpCommandHandler(final String header, final String footer, final String requiredPermission) {
-        this.header = header;
-        this.footer = footer;
-        this.requiredPermission = requiredPermission;
+        this(header, footer, requiredPermission, DEFAULT_PAGE_SIZE);
     }
 
     public HelpCommandHandler(final String requiredPermission) {
@@ -36,37 +80,207 @@ public final class HelpCommandHandler implements CommandHandler {
     }
 
     @Override
-    public void execute(final ExecutionData data) {
+    public void execute(final ExecutionData data) throws CommandExecutionException {
         final CommandSender sender = data.getSender();
         if (requiredPermission != null && !sender.hasPermission(requiredPermission)) {
             sender.sendMessage("You do not have permission");
             return;
         }
-        if (header != null) {
-            sender.sendMessage(header);
-        }
-        final BranchNode rootBranch = data.getGroup().getRoot();
-        for (final CommandNode commandNode : rootBranch.walkNodeTree()) {
-            final Command command = commandNode.getCommand();
-            final StringJoiner sj = new StringJoiner(" ");
-            sj.add(ChatColor.GRAY + "/" + String.join(" ", command.getSections()) + ChatColor.RESET);
-            command.getParameters().stream()
-                    .map(info -> {
-                        final ChatColor prefix = info.isRequired()
-                                ? ChatColor.GOLD
-                                : ChatColor.YELLOW;
-                        return prefix + info.toString(false) + ChatColor.RESET;
-                    })
-                    .forEach(sj::add);
-            sender.sendMessage(sj.toString());
-            command.getDescription().ifPresent(description -> {
-                sender.sendMessage("  - " + description);
-            });
-        }
-        if (footer != null) {
-            sender.sendMessage(footer);
+        final ParsedArgs args = data.getParsedArgs();
+        List<String> sections = new ArrayList<>();
+        for (int i = 0; i < args.size(); i++) {
+            if (args.get(i) != null && !args.get(i).trim().isEmpty()) {
+                sections.addAll(Arrays.asList(args.get(i).trim().split(" +")));
+            }
+        }
+        int page = 1;
+        if (!sections.isEmpty() && isPageNumber(sections.get(sections.size() - 1))) {
+            page = Integer.parseInt(sections.get(sections.size() - 1));
+            sections = sections.subList(0, sections.size() - 1);
+        }
+        final BranchNode root = data.getGroup().getRoot();
+        final BranchNode.WalkResult result = sections.isEmpty()
+            ? null
+            : root.walk(sections);
+        final Rendered rendered;
+        if (result == null) {
+            rendered = render(root);
+        } else if (!result.getUnreachablePaths().isEmpty()) {
+            throw new CommandExecutionException("No commands found for '" + String.join(" ", sections) + "'");
+        } else if (result.getCommand().isPresent()) {
+            rendered = new Rendered(-1, Collections.singletonList(result.getCommand().get()));
+        } else {
+            rendered = render(result.getBranches().get(result.getBranches().size() - 1));
+        }
+        final PermissionCache permissions = data.getGroup().getPermissionCache();
+        final Pages pages = rendered.pages(permissions.isEmpty()
+            ? Collections.emptySet()
+            : permissions.getAllowed(sender));
+        if (result != null && pages.entries.isEmpty()) {
+            throw new CommandExecutionException("No commands found for '" + String.join(" ", sections) + "'");
+        }
+        if (page > pages.pages.length) {
+            throw new CommandExecutionException("Page " + page + " does not exist. Pages: 1-" + pages.pages.length);
         }
+        sender.sendMessage(pages.page(page));
     }
-}
 
+    private static boolean isPageNumber(final String value) {
+        if (value.isEmpty() || value.length() > 9) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) < '0' || value.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return Integer.parseInt(value) > 0;
+    }
+
+    /**
+     * Returns rendered commands under {@code branch}. Renders again if {@code branch} or its ancestors were modified,
+     * since permissions of ancestors decide who can see the commands.
+     */
+    private Rendered render(final BranchNode branch) {
+        final long version = versionWithAncestors(branch);
+        final Rendered cached = cache.get(branch);
+        if (cached != null && cached.version == version) {
+            return cached;
+        }
+        final Rendered rendered = new Rendered(version, branch.walkNodeTree());
+        cache.put(branch, rendered);
+        return rendered;
+    }
+
+    /**
+     * Returns sum of versions of {@code branch} and its ancestors.
+     * Versions only increase, so the sum changes whenever one of them changes.
+     */
+    private static long versionWithAncestors(final BranchNode branch) {
+        long version = 0;
+        Node current = branch;
+        while (current instanceof BranchNode) {
+            version += ((BranchNode) current).getVersion();
+            current = current.getParent().orElse(null);
+        }
+        return version;
+    }
+
+    private static String renderEntry(final Command command) {
+        final StringJoiner sj = new StringJoiner(" ");
+        sj.add(ChatColor.GRAY + "/" + String.join(" ", command.getSections()) + ChatColor.RESET);
+        command.getParameters().stream()
+                .map(info -> {
+                    final ChatColor prefix = info.isRequired()
+                            ? ChatColor.GOLD
+                            : ChatColor.YELLOW;
+                    return prefix + info.toString(false) + ChatColor.RESET;
+                })
+                .forEach(sj::add);
+        return command.getDescription()
+            .map(description -> sj.toString() + "\n  - " + description)
+            .orElse(sj.toString());
+    }
+
+    /**
+     * Returns permissions required by {@code command} and branches from root to it.
+     */
+    private static String[] permissionsOf(final CommandNode command) {
+        final List<String> result = new ArrayList<>();
+        command.getCommand().getPermission().ifPresent(result::add);
+        Node current = command.getParent().orElse(null);
+        while (current instanceof BranchNode) {
+            ((BranchNode) current).getPermission().ifPresent(result::add);
+            current = current.getParent().orElse(null);
+        }
+        return result.toArray(new String[0]);
+    }
+
+    private final class Rendered {
+
+        private final long version;
+        private final List<String> entries = new ArrayList<>();
+        /**
+         * Permissions required by each entry.
+         */
+        private final List<String[]> permissions = new ArrayList<>();
+        /**
+         * Pages of all entries. {@code null} if some entries require permissions.
+         */
+        private final Pages all;
+        /**
+         * Pages of entries visible to senders that have the allow-set.
+         */
+        private final Map<Set<String>, Pages> filtered = new ConcurrentHashMap<>();
+
+        private Rendered(final long version, final List<CommandNode> commands) {
+            this.version = version;
+            boolean requiresPermission = false;
+            for (final CommandNode command : commands) {
+                entries.add(renderEntry(command.getCommand()));
+                final String[] required = permissionsOf(command);
+                permissions.add(required);
+                requiresPermission |= required.length > 0;
+            }
+            this.all = requiresPermission
+                ? null
+                : new Pages(entries);
+        }
+
+        private Pages pages(final Set<String> allowed) {
+            if (all != null) {
+                return all;
+            }
+            Pages result = filtered.get(allowed);
+            if (result == null) {
+                final List<String> visible = new ArrayList<>();
+                for (int i = 0; i < entries.size(); i++) {
+                    if (allowed.containsAll(Arrays.asList(permissions.get(i)))) {
+                        visible.add(entries.get(i));
+                    }
+                }
+                if (filtered.size() >= MAX_FILTERED_PAGES) {
+                    filtered.clear();
+                }
+                result = new Pages(visible);
+                filtered.put(allowed, result);
+            }
+            return result;
+        }
+    }
+
+    private final class Pages {
+
+        private final List<String> entries;
+        /**
+         * Pages joined on first request. Index is page number - 1.
+         */
+        private final String[] pages;
+
+        private Pages(final List<String> entries) {
+            this.entries = entries;
+            this.pages = new String[Math.max(1, (entries.size() + pageSize - 1) / pageSize)];
+        }
 
+        private String page(final int page) {
+            String result = pages[page - 1];
+            if (result == null) {
+                // Racy but idempotent
+                final StringJoiner lines = new StringJoiner("\n");
+                if (header != null) {
+                    lines.add(header);
+                }
+                entries.subList((page - 1) * pageSize, Math.min(entries.size(), page * pageSize)).forEach(lines::add);
+                if (pages.length > 1) {
+                    lines.add(ChatColor.GRAY + "Page " + page + "/" + pages.length + ChatColor.RESET);
+                }
+                if (footer != null) {
+                    lines.add(footer);
+                }
+                result = lines.toString();
+                pages[page - 1] = result;
+            }
+            return result;
+        }
+    }
+}
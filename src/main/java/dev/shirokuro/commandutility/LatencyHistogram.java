@@ -0,0 +1,62 @@
+package dev.shirokuro.commandutility;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of latencies. Values are counted in power-of-two buckets of nanoseconds,
+ * so percentiles are approximated by upper bound of the bucket.
+ */
+final class LatencyHistogram {
+
+    private static final int BUCKETS = Long.SIZE + 1;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    void record(final long nanos) {
+        final long value = Math.max(0, nanos);
+        buckets.incrementAndGet(Long.SIZE - Long.numberOfLeadingZeros(value));
+        totalNanos.add(value);
+        long max = maxNanos.get();
+        while (value > max && !maxNanos.compareAndSet(max, value)) {
+            max = maxNanos.get();
+        }
+    }
+
+    LatencySnapshot snapshot() {
+        final long[] counts = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            count += counts[i];
+        }
+        final long max = maxNanos.get();
+        return new LatencySnapshot(
+            count,
+            totalNanos.sum(),
+            max,
+            percentile(counts, count, max, 0.5),
+            percentile(counts, count, max, 0.9),
+            percentile(counts, count, max, 0.99));
+    }
+
+    private static long percentile(final long[] counts, final long count, final long max, final double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        final long rank = (long) Math.ceil(count * percentile);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                // Upper bound of bucket i is 2^i - 1
+                final long upperBound = i == Long.SIZE ? Long.MAX_VALUE : (1L << i) - 1;
+                return Math.min(upperBound, max);
+            }
+        }
+        return max;
+    }
+}
@@ -0,0 +1,76 @@
+package dev.shirokuro.commandutility;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Snapshot of latencies recorded by {@link CommandMetrics}. Percentiles are approximate.
+ */
+public final class LatencySnapshot {
+
+    private final long count;
+    private final long totalNanos;
+    private final long maxNanos;
+    private final long p50Nanos;
+    private final long p90Nanos;
+    private final long p99Nanos;
+
+    LatencySnapshot(
+            final long count,
+            final long totalNanos,
+            final long maxNanos,
+            final long p50Nanos,
+            final long p90Nanos,
+            final long p99Nanos) {
+        this.count = count;
+        this.totalNanos = totalNanos;
+        this.maxNanos = maxNanos;
+        this.p50Nanos = p50Nanos;
+        this.p90Nanos = p90Nanos;
+        this.p99Nanos = p99Nanos;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public long getMeanNanos() {
+        return count == 0
+            ? 0
+            : totalNanos / count;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    public long getP50Nanos() {
+        return p50Nanos;
+    }
+
+    public long getP90Nanos() {
+        return p90Nanos;
+    }
+
+    public long getP99Nanos() {
+        return p99Nanos;
+    }
+
+    @Override
+    public String toString() {
+        return "LatencySnapshot{count=" + count +
+            ", mean=" + micros(getMeanNanos()) +
+            "us, p50=" + micros(p50Nanos) +
+            "us, p90=" + micros(p90Nanos) +
+            "us, p99=" + micros(p99Nanos) +
+            "us, max=" + micros(maxNanos) +
+            "us}";
+    }
+
+    private static long micros(final long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+}
@@ -0,0 +1,108 @@
+package dev.shirokuro.commandutility;
+
+import java.util.Objects;
+
+/**
+ * {@code ParamKey} is a handle to get argument value from {@link ExecutionData} without hashing parameter name.
+ * <p>
+ * Position of the parameter is resolved on first use and cached in the key,
+ * so later lookups with the same command are a single array read.
+ * Keys hold no state of commands, so creating keys inline is allowed, but keeping keys in constants is faster.
+ * </p>
+ * <pre>
+ *     private static final ParamKey&lt;Integer&gt; AMOUNT = ParamKey.of("amount", Integer.class);
+ *
+ *     &#64;Executor("give &lt;amount:int&gt;")
+ *     public void give(ExecutionData data) {
+ *         int amount = data.getOrFail(AMOUNT);
+ *     }
+ * </pre>
+ *
+ * @param <T> type of value. {@code String} if parameter has no {@link ArgumentType}
+ */
+public final class ParamKey<T> {
+
+    private final String name;
+    private final Class<T> type;
+    // Binding has only final fields, so reading it without synchronization is safe
+    private Binding binding;
+
+    private ParamKey(final String name, final Class<T> type) {
+        this.name = Objects.requireNonNull(name, "name");
+        this.type = Objects.requireNonNull(type, "type");
+    }
+
+    /**
+     * Creates key of parameter that has no {@link ArgumentType}.
+     *
+     * @param name parameter name
+     * @return key
+     */
+    public static ParamKey<String> of(final String name) {
+        return new ParamKey<>(name, String.class);
+    }
+
+    /**
+     * Creates key of parameter converted to {@code type}.
+     *
+     * @param name parameter name
+     * @param type type of value
+     * @return key
+     */
+    public static <T> ParamKey<T> of(final String name, final Class<T> type) {
+        return new ParamKey<>(name, type);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * Returns binding of this parameter in {@code command}. The binding of the last command is cached,
+     * and bindings are created by commands, so switching commands doesn't allocate.
+     *
+     * @throws IllegalArgumentException if {@code command} has no parameter named {@link #getName()}
+     */
+    Binding bindingIn(final Command command) {
+        final Binding current = binding;
+        if (current != null && current.command == command) {
+            return current;
+        }
+        final Binding resolved = command.bindingOf(name);
+        if (resolved == null) {
+            throw new IllegalArgumentException("No parameter named " + name + " exists in " + command.getSections());
+        }
+        binding = resolved;
+        return resolved;
+    }
+
+    T cast(final Object value) {
+        if (value != null && !type.isInstance(value)) {
+            throw new IllegalArgumentException("Value of parameter " + name + " is " +
+                value.getClass().getName() + ", not " + type.getName());
+        }
+        return type.cast(value);
+    }
+
+    @Override
+    public String toString() {
+        return "ParamKey{name='" + name + "',type='" + type.getName() + "'}";
+    }
+
+    /**
+     * Index of a parameter in a command. Created once for each parameter by {@link Command}.
+     */
+    static final class Binding {
+        final Command command;
+        final int index;
+
+        Binding(final Command command, final int index) {
+            this.command = command;
+            this.index = index;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package dev.shirokuro.commandutility;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Args parsed by {@link Command#parse Command.parse}.
+ * <p>
+ * Values are stored in arrays indexed by position of {@link Parameter},
+ * so getting a value with {@link ParamKey} is a single array read.
+ * {@link #asMap()} is provided for compatibility, and built on first call.
+ * </p>
+ * This class is immutable.
+ */
+public final class ParsedArgs {
+
+    private static final String[] NO_ARGS = new String[0];
+
+    private final Command command;
+    private final String[] args;
+    /**
+     * Values converted by {@link ArgumentType}. Same array as {@code args} if no values are converted.
+     */
+    private final Object[] values;
+    // Racy single-check. ImmutableMap is safe to publish without synchronization
+    private Map<String, String> map;
+
+    private ParsedArgs(final Command command, final String[] args, final Object[] values) {
+        this.command = command;
+        this.args = args;
+        this.values = values;
+    }
+
+    static ParsedArgs of(final Command command, final String[] args) {
+        return new ParsedArgs(command, args, args);
+    }
+
+    /**
+     * Creates {@code ParsedArgs} from map. This is slower than {@link Command#parse}.
+     *
+     * @param command command
+     * @param args map of parameter name and raw argument
+     * @param values map of parameter name and converted value. Parameters not in this map are not converted
+     * @return args
+     */
+    public static ParsedArgs fromMap(final Command command, final Map<String, String> args, final Map<String, ?> values) {
+        Objects.requireNonNull(command, "command");
+        Objects.requireNonNull(args, "args");
+        Objects.requireNonNull(values, "values");
+        final List<Parameter> parameters = command.getParameters();
+        if (parameters.isEmpty()) {
+            return new ParsedArgs(command, NO_ARGS, NO_ARGS);
+        }
+        final String[] argArray = new String[parameters.size()];
+        final Object[] valueArray = new Object[parameters.size()];
+        for (int i = 0; i < argArray.length; i++) {
+            final String name = parameters.get(i).getName();
+            argArray[i] = args.get(name);
+            final Object value = values.get(name);
+            valueArray[i] = value != null ? value : argArray[i];
+        }
+        return new ParsedArgs(command, argArray, valueArray);
+    }
+
+    /**
+     * Returns copy of this args that has {@code values} as converted values.
+     */
+    ParsedArgs withValues(final Object[] values) {
+        if (values.length != args.length) {
+            throw new IllegalArgumentException("Length of values must be " + args.length);
+        }
+        return new ParsedArgs(command, args, values);
+    }
+
+    public Command getCommand() {
+        return command;
+    }
+
+    /**
+     * Returns number of parameters. Note that some of values may be {@code null}.
+     *
+     * @return number of parameters
+     */
+    public int size() {
+        return args.length;
+    }
+
+    /**
+     * Returns raw argument at {@code index}.
+     *
+     * @param index index of parameter
+     * @return argument or {@code null} if not specified
+     */
+    public String get(final int index) {
+        return args[index];
+    }
+
+    /**
+     * Returns raw argument of parameter named {@code parameterName}.
+     *
+     * @param parameterName parameter name
+     * @return argument or {@code null} if not specified or no such parameter
+     */
+    public String get(final String parameterName) {
+        final int index = command.indexOfParameter(parameterName);
+        return index >= 0
+            ? args[index]
+            : null;
+    }
+
+    /**
+     * Returns value converted by {@link ArgumentType}, or raw argument if parameter has no type.
+     *
+     * @param index index of parameter
+     * @return value or {@code null} if not specified
+     */
+    public Object getValue(final int index) {
+        return values[index];
+    }
+
+    /**
+     * Returns value of {@code key}.
+     *
+     * @param key key of parameter
+     * @return value or {@code null} if not specified
+     * @throws IllegalArgumentException if command has no parameter of {@code key},
+     *                                  or value is not a instance of type of {@code key}
+     */
+    public <T> T get(final ParamKey<T> key) {
+        return key.cast(values[key.bindingIn(command).index]);
+    }
+
+    /**
+     * Returns map of parameter name and raw argument. Parameters not specified are not contained.
+     *
+     * @return args (immutable)
+     */
+    public Map<String, String> asMap() {
+        Map<String, String> result = map;
+        if (result == null) {
+            final ImmutableMap.Builder<String, String> builder = ImmutableMap.builder();
+            final List<Parameter> parameters = command.getParameters();
+            for (int i = 0; i < args.length; i++) {
+                if (args[i] != null) {
+                    builder.put(parameters.get(i).getName(), args[i]);
+                }
+            }
+            result = builder.build();
+            map = result;
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "ParsedArgs{" + asMap() + "}";
+    }
+}
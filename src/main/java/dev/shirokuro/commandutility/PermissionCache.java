@@ -0,0 +1,160 @@
+package dev.shirokuro.commandutility;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.MapMaker;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import org.bukkit.command.CommandSender;
+
+/**
+ * {@code PermissionCache} caches permissions of each sender that are required by commands and branches.
+ * <p>
+ * All permissions registered to {@link CommandGroup} are evaluated at once per sender into an allow-set,
+ * so checking a permission is a set lookup instead of {@code Permissible.hasPermission}.
+ * Bukkit has no event for permission recalculation, so an allow-set is evaluated again when
+ * {@link #invalidate(CommandSender)} is called for the sender, when op status of the sender changes,
+ * when a new permission is registered, or when it expires. Permission plugins that recalculate
+ * permissions should call {@link #invalidate(CommandSender)}.
+ * </p>
+ * This class is thread-safe.
+ */
+public final class PermissionCache {
+
+    private static final long DEFAULT_EXPIRE_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    /**
+     * Allow-set of each sender. Keys are compared by identity and weakly referenced.
+     */
+    private final ConcurrentMap<CommandSender, Entry> entries = new MapMaker().weakKeys().makeMap();
+    private volatile ImmutableSet<String> registered = ImmutableSet.of();
+    private volatile long expireNanos = DEFAULT_EXPIRE_NANOS;
+
+    /**
+     * Registers permission required by a command or a branch.
+     */
+    synchronized void register(final String permission) {
+        Objects.requireNonNull(permission, "permission");
+        if (!registered.contains(permission)) {
+            registered = ImmutableSet.<String>builder().addAll(registered).add(permission).build();
+        }
+    }
+
+    /**
+     * Returns whether no permissions are registered. If so, every sender is allowed everything.
+     *
+     * @return {@code true} if no permissions are registered
+     */
+    public boolean isEmpty() {
+        return registered.isEmpty();
+    }
+
+    /**
+     * Returns permissions required by commands and branches.
+     *
+     * @return permissions (immutable)
+     */
+    public Set<String> getRegistered() {
+        return registered;
+    }
+
+    /**
+     * Sets how long an allow-set is used. Default is 5 seconds.
+     *
+     * @param duration duration
+     * @param unit unit of {@code duration}
+     * @return this
+     */
+    public PermissionCache setExpireAfter(final long duration, final TimeUnit unit) {
+        Objects.requireNonNull(unit, "unit");
+        if (duration < 0) {
+            throw new IllegalArgumentException("duration must not be negative");
+        }
+        this.expireNanos = unit.toNanos(duration);
+        return this;
+    }
+
+    /**
+     * Returns whether {@code sender} has {@code permission}.
+     * Permissions not registered are checked by {@code sender.hasPermission}.
+     *
+     * @param sender sender
+     * @param permission permission, or {@code null} if not required
+     * @return {@code true} if {@code permission} is {@code null} or {@code sender} has it
+     */
+    public boolean hasPermission(final CommandSender sender, final String permission) {
+        Objects.requireNonNull(sender, "sender");
+        if (permission == null) {
+            return true;
+        }
+        final Entry entry = entry(sender);
+        return entry.registered.contains(permission)
+            ? entry.allowed.contains(permission)
+            : sender.hasPermission(permission);
+    }
+
+    /**
+     * Returns registered permissions that {@code sender} has.
+     *
+     * @param sender sender
+     * @return allow-set (immutable)
+     */
+    public Set<String> getAllowed(final CommandSender sender) {
+        Objects.requireNonNull(sender, "sender");
+        return entry(sender).allowed;
+    }
+
+    /**
+     * Discards allow-set of {@code sender}. Call this after permissions of {@code sender} are recalculated.
+     *
+     * @param sender sender
+     */
+    public void invalidate(final CommandSender sender) {
+        Objects.requireNonNull(sender, "sender");
+        entries.remove(sender);
+    }
+
+    /**
+     * Discards allow-sets of all senders.
+     */
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    private Entry entry(final CommandSender sender) {
+        final long now = System.nanoTime();
+        final ImmutableSet<String> currentRegistered = registered;
+        final Entry cached = entries.get(sender);
+        if (cached != null &&
+            cached.registered == currentRegistered &&
+            cached.op == sender.isOp() &&
+            now - cached.evaluatedAt < expireNanos) {
+            return cached;
+        }
+        final ImmutableSet.Builder<String> allowed = ImmutableSet.builder();
+        for (final String permission : currentRegistered) {
+            if (sender.hasPermission(permission)) {
+                allowed.add(permission);
+            }
+        }
+        final Entry entry = new Entry(currentRegistered, allowed.build(), sender.isOp(), now);
+        entries.put(sender, entry);
+        return entry;
+    }
+
+    private static final class Entry {
+
+        private final ImmutableSet<String> registered;
+        private final ImmutableSet<String> allowed;
+        private final boolean op;
+        private final long evaluatedAt;
+
+        private Entry(final ImmutableSet<String> registered, final ImmutableSet<String> allowed, final boolean op, final long evaluatedAt) {
+            this.registered = registered;
+            this.allowed = allowed;
+            this.op = op;
+            this.evaluatedAt = evaluatedAt;
+        }
+    }
+}
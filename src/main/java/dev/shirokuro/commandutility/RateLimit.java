@@ -0,0 +1,105 @@
+package dev.shirokuro.commandutility;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code RateLimit} limits how often each sender can execute a command or commands under a branch.
+ * <p>
+ * It is a token bucket that holds {@code permits} tokens and refills all of them in {@code period}.
+ * A cooldown is a rate limit of one permit.
+ * </p>
+ * <pre>
+ *     group.add(Command.fromString(handler, "home", null).withRateLimit(RateLimit.cooldown(10, TimeUnit.SECONDS)));
+ *     group.setRateLimit("warp", RateLimit.of(5, 1, TimeUnit.MINUTES));
+ * </pre>
+ * This class is immutable.
+ */
+public final class RateLimit {
+
+    private final int permits;
+    private final long periodNanos;
+
+    private RateLimit(final int permits, final long periodNanos) {
+        this.permits = permits;
+        this.periodNanos = periodNanos;
+    }
+
+    /**
+     * Returns rate limit that allows {@code permits} executions in {@code period}.
+     *
+     * @param permits maximum number of executions in a burst
+     * @param period time to refill all permits
+     * @param unit unit of {@code period}
+     * @return rate limit
+     */
+    public static RateLimit of(final int permits, final long period, final TimeUnit unit) {
+        Objects.requireNonNull(unit, "unit");
+        if (permits <= 0) {
+            throw new IllegalArgumentException("permits must be positive");
+        }
+        if (period <= 0) {
+            throw new IllegalArgumentException("period must be positive");
+        }
+        final long periodNanos = unit.toNanos(period);
+        if (periodNanos < permits) {
+            throw new IllegalArgumentException("period must be at least 1 nanosecond per permit");
+        }
+        return new RateLimit(permits, periodNanos);
+    }
+
+    /**
+     * Returns rate limit that allows one execution in {@code duration}.
+     *
+     * @param duration cooldown
+     * @param unit unit of {@code duration}
+     * @return rate limit
+     */
+    public static RateLimit cooldown(final long duration, final TimeUnit unit) {
+        return of(1, duration, unit);
+    }
+
+    public int getPermits() {
+        return permits;
+    }
+
+    public long getPeriod(final TimeUnit unit) {
+        return unit.convert(periodNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns time to refill one permit.
+     */
+    long intervalNanos() {
+        return periodNanos / permits;
+    }
+
+    /**
+     * Returns how far ahead of now the bucket can be consumed, which allows bursts of {@code permits}.
+     */
+    long toleranceNanos() {
+        return periodNanos - intervalNanos();
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof RateLimit)) {
+            return false;
+        }
+        final RateLimit rateLimit = (RateLimit) other;
+        return permits == rateLimit.permits && periodNanos == rateLimit.periodNanos;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(permits, periodNanos);
+    }
+
+    @Override
+    public String toString() {
+        return "RateLimit{permits=" + permits + ",period=" + TimeUnit.NANOSECONDS.toMillis(periodNanos) + "ms}";
+    }
+}
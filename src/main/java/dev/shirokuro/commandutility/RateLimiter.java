@@ -0,0 +1,199 @@
+package dev.shirokuro.commandutility;
+
+import com.google.common.collect.MapMaker;
+import java.util.Map;
+import java.util.UUID;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+/**
+ * Buckets of {@link RateLimit} for each sender.
+ * <p>
+ * A bucket is one {@code long}, the time when it becomes full again (generic cell rate algorithm).
+ * Buckets are keyed by UUID of the sender as two {@code long}s, in open addressing tables split into segments.
+ * Full buckets are same as missing buckets, so they are dropped lazily when a segment grows,
+ * instead of being removed by a timer.
+ * Senders that aren't players (e.g. console and command blocks) are kept in a separate map,
+ * compared by identity and weakly referenced.
+ * </p>
+ * This class is thread-safe.
+ */
+final class RateLimiter {
+
+    private static final int SEGMENTS = 16;
+
+    private final RateLimit limit;
+    private final long interval;
+    private final long tolerance;
+    private final Segment[] segments = new Segment[SEGMENTS];
+    /**
+     * Buckets of senders that aren't players. Each value holds the time when the bucket becomes full.
+     */
+    private final Map<CommandSender, long[]> others = new MapMaker().weakKeys().makeMap();
+
+    RateLimiter(final RateLimit limit) {
+        this.limit = limit;
+        this.interval = limit.intervalNanos();
+        this.tolerance = limit.toleranceNanos();
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    RateLimit getLimit() {
+        return limit;
+    }
+
+    /**
+     * Takes a permit of {@code sender} if available.
+     *
+     * @return 0 if taken, or nanoseconds to wait for next permit
+     */
+    long tryAcquire(final CommandSender sender, final long now) {
+        return acquire(sender, now, true);
+    }
+
+    /**
+     * Returns nanoseconds to wait for next permit of {@code sender}, without taking it.
+     *
+     * @return 0 if a permit is available
+     */
+    long waitTime(final CommandSender sender, final long now) {
+        return acquire(sender, now, false);
+    }
+
+    private long acquire(final CommandSender sender, final long now, final boolean consume) {
+        if (!(sender instanceof Player)) {
+            return acquireOther(sender, now, consume);
+        }
+        final UUID id = ((Player) sender).getUniqueId();
+        final long most = id.getMostSignificantBits();
+        final long least = id.getLeastSignificantBits();
+        final int hash = hash(most, least);
+        return segments[hash & (SEGMENTS - 1)].acquire(most, least, hash >>> 4, now, consume);
+    }
+
+    private long acquireOther(final CommandSender sender, final long now, final boolean consume) {
+        long[] bucket = others.get(sender);
+        if (bucket == null) {
+            if (!consume) {
+                return 0;
+            }
+            bucket = others.computeIfAbsent(sender, key -> new long[] {now});
+        }
+        synchronized (bucket) {
+            final long tat = bucket[0] - now > 0
+                ? bucket[0]
+                : now;
+            final long wait = tat - tolerance - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (consume) {
+                bucket[0] = tat + interval;
+            }
+            return 0;
+        }
+    }
+
+    private static int hash(final long most, final long least) {
+        final long hash = most ^ least;
+        return FoldedTable.spread((int) (hash ^ (hash >>> 32)));
+    }
+
+    private final class Segment {
+
+        private static final int INITIAL_CAPACITY = 8;
+
+        private long[] mosts = new long[INITIAL_CAPACITY];
+        private long[] leasts = new long[INITIAL_CAPACITY];
+        /**
+         * Time when each bucket becomes full. Compared by subtraction because {@code nanoTime} may overflow.
+         */
+        private long[] fullAt = new long[INITIAL_CAPACITY];
+        private boolean[] used = new boolean[INITIAL_CAPACITY];
+        private int size;
+
+        private synchronized long acquire(
+                final long most,
+                final long least,
+                final int hash,
+                final long now,
+                final boolean consume) {
+            int slot = find(most, least, hash);
+            final long tat = slot >= 0 && fullAt[slot] - now > 0
+                ? fullAt[slot]
+                : now;
+            final long wait = tat - tolerance - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (consume) {
+                if (slot < 0) {
+                    if ((size + 1) * 2 > used.length) {
+                        resize(now);
+                    }
+                    slot = insert(most, least, hash);
+                    size++;
+                }
+                fullAt[slot] = tat + interval;
+            }
+            return 0;
+        }
+
+        private int find(final long most, final long least, final int hash) {
+            final int mask = used.length - 1;
+            int slot = hash & mask;
+            while (used[slot]) {
+                if (mosts[slot] == most && leasts[slot] == least) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        private int insert(final long most, final long least, final int hash) {
+            final int mask = used.length - 1;
+            int slot = hash & mask;
+            while (used[slot]) {
+                slot = (slot + 1) & mask;
+            }
+            used[slot] = true;
+            mosts[slot] = most;
+            leasts[slot] = least;
+            return slot;
+        }
+
+        /**
+         * Drops full buckets and resizes the table to fit the rest.
+         */
+        private void resize(final long now) {
+            final long[] oldMosts = mosts;
+            final long[] oldLeasts = leasts;
+            final long[] oldFullAt = fullAt;
+            final boolean[] oldUsed = used;
+            int live = 0;
+            for (int i = 0; i < oldUsed.length; i++) {
+                if (oldUsed[i] && oldFullAt[i] - now > 0) {
+                    live++;
+                }
+            }
+            int capacity = INITIAL_CAPACITY;
+            while ((live + 1) * 2 > capacity) {
+                capacity *= 2;
+            }
+            mosts = new long[capacity];
+            leasts = new long[capacity];
+            fullAt = new long[capacity];
+            used = new boolean[capacity];
+            size = 0;
+            for (int i = 0; i < oldUsed.length; i++) {
+                if (oldUsed[i] && oldFullAt[i] - now > 0) {
+                    fullAt[insert(oldMosts[i], oldLeasts[i], hash(oldMosts[i], oldLeasts[i]) >>> 4)] = oldFullAt[i];
+                    size++;
+                }
+            }
+        }
+    }
+}
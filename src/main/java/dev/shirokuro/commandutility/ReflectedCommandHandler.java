@@ -1,50 +1,182 @@
 package dev.shirokuro.commandutility;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
+/**
+ * {@code CommandHandler} that calls methods annotated with {@code @Executor} and {@code @Completer}.
+ * <p>
+ * Methods are bound to {@code CommandHandler}/{@code CommandCompleter} implementations generated by
+ * {@link LambdaMetafactory} if possible, so calling them costs same as hand-written lambdas.
+ * Otherwise falls back to {@link MethodHandle}.
+ * </p>
+ */
 final class ReflectedCommandHandler implements CommandHandler {
 
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodType EXECUTE_TYPE = MethodType.methodType(void.class, ExecutionData.class);
+    private static final MethodType COMPLETE_TYPE = MethodType.methodType(List.class, CompletionData.class);
+
     private final Object caller;
     private final Method executor;
     private final Method completer;
+    private final CommandHandler boundExecutor;
+    private final CommandCompleter boundCompleter;
 
     public ReflectedCommandHandler(final Object caller, final Method executor, final Method completer) {
         this.caller = Objects.requireNonNull(caller);
         this.executor = Objects.requireNonNull(executor);
         this.completer = completer;
+        this.boundExecutor = bindExecutor(caller, executor);
+        this.boundCompleter = completer != null
+            ? bindCompleter(caller, completer)
+            : null;
+    }
+
+    private static CommandHandler bindExecutor(final Object caller, final Method method) {
+        if (throwsOnly(method, CommandExecutionException.class)) {
+            final CommandHandler handler = metafactory(caller, method, CommandHandler.class, "execute", EXECUTE_TYPE);
+            if (handler != null) {
+                return handler;
+            }
+        }
+        final MethodHandle handle = unreflect(caller, method).asType(EXECUTE_TYPE);
+        return data -> {
+            try {
+                handle.invokeExact(data);
+            } catch (final CommandExecutionException | RuntimeException | Error e) {
+                throw e;
+            } catch (final Throwable e) {
+                throw new RuntimeException("Exception occurred in wrapped method" + ReflectionUtils.methodInfo(method), e);
+            }
+        };
     }
 
-    private Object invokeSilently(final Object caller, final Method method, final Object... args) throws CommandExecutionException {
+    private static CommandCompleter bindCompleter(final Object caller, final Method method) {
+        if (throwsOnly(method) && List.class.isAssignableFrom(method.getReturnType())) {
+            final CommandCompleter completer = metafactory(caller, method, CommandCompleter.class, "complete", COMPLETE_TYPE);
+            if (completer != null) {
+                return completer;
+            }
+        }
+        final MethodHandle handle = unreflect(caller, method).asType(COMPLETE_TYPE);
+        return data -> {
+            try {
+                @SuppressWarnings("unchecked")
+                final List<String> result = (List<String>) handle.invokeExact(data);
+                return result;
+            } catch (final CommandExecutionException e) {
+                throw new RuntimeException("You cannot throw CommandExecutionException from completer", e);
+            } catch (final RuntimeException | Error e) {
+                throw e;
+            } catch (final Throwable e) {
+                throw new RuntimeException("Exception occurred in wrapped method" + ReflectionUtils.methodInfo(method), e);
+            }
+        };
+    }
+
+    /**
+     * Creates implementation of {@code type} that calls {@code method} via {@link LambdaMetafactory}.
+     *
+     * @return implementation or {@code null} if {@code method} cannot be bound
+     */
+    private static <T> T metafactory(
+            final Object caller,
+            final Method method,
+            final Class<T> type,
+            final String name,
+            final MethodType samType) {
+        final Class<?> declaringClass = method.getDeclaringClass();
+        if (!isVisible(declaringClass)) {
+            return null;
+        }
+        final boolean isStatic = Modifier.isStatic(method.getModifiers());
         try {
-            return method.invoke(caller, args);
+            final MethodHandle impl = LOOKUP.unreflect(method);
+            final MethodType factoryType = isStatic
+                ? MethodType.methodType(type)
+                : MethodType.methodType(type, declaringClass);
+            final CallSite site = LambdaMetafactory.metafactory(
+                LOOKUP,
+                name,
+                factoryType,
+                samType,
+                impl,
+                isStatic ? impl.type() : impl.type().dropParameterTypes(0, 1));
+            final Object result = isStatic
+                ? site.getTarget().invoke()
+                : site.getTarget().invoke(caller);
+            return type.cast(result);
+        } catch (final IllegalAccessException | LambdaConversionException e) {
+            return null;
+        } catch (final Throwable e) {
+            throw new RuntimeException("Cannot bind method: " + ReflectionUtils.methodInfo(method), e);
+        }
+    }
+
+    /**
+     * Returns {@code true} if {@code clazz} is public and resolvable from this class.
+     * Generated classes resolve the target through class loader of this class.
+     */
+    private static boolean isVisible(final Class<?> clazz) {
+        for (Class<?> current = clazz; current != null; current = current.getEnclosingClass()) {
+            if (!Modifier.isPublic(current.getModifiers())) {
+                return false;
+            }
+        }
+        try {
+            return Class.forName(clazz.getName(), false, ReflectedCommandHandler.class.getClassLoader()) == clazz;
+        } catch (final ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns {@code true} if {@code method} declares no checked exceptions except {@code allowed}.
+     */
+    private static boolean throwsOnly(final Method method, final Class<?>... allowed) {
+        for (final Class<?> exceptionType : method.getExceptionTypes()) {
+            if (RuntimeException.class.isAssignableFrom(exceptionType) || Error.class.isAssignableFrom(exceptionType)) {
+                continue;
+            }
+            if (Arrays.stream(allowed).noneMatch(allowedType -> allowedType.isAssignableFrom(exceptionType))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static MethodHandle unreflect(final Object caller, final Method method) {
+        try {
+            method.setAccessible(true);
+            final MethodHandle handle = LOOKUP.unreflect(method);
+            return Modifier.isStatic(method.getModifiers())
+                ? handle
+                : handle.bindTo(caller);
         } catch (final IllegalAccessException e) {
             throw new RuntimeException("Cannot access to method: " + ReflectionUtils.methodInfo(method), e);
-        } catch (final InvocationTargetException e) {
-            if (e.getCause() instanceof CommandExecutionException) {
-                throw (CommandExecutionException) e.getCause();
-            }
-            throw new RuntimeException("Exception occurred in wrapped method" + ReflectionUtils.methodInfo(method), e.getCause());
         }
     }
 
     @Override
-    public void execute(final ExecutionData data) throws CommandExecutionException{
-        invokeSilently(caller, executor, data);
+    public void execute(final ExecutionData data) throws CommandExecutionException {
+        boundExecutor.execute(data);
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public List<String> complete(final CompletionData data) {
-        if (completer != null) {
-            try {
-                return (List<String>) invokeSilently(caller, completer, data);
-            } catch (final CommandExecutionException e) {
-                throw new RuntimeException("You cannot throw CommandExecutionException from completer", e);
-            }
+        if (boundCompleter != null) {
+            return boundCompleter.complete(data);
         } else {
             return Collections.emptyList();
         }
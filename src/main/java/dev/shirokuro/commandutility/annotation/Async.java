@@ -0,0 +1,16 @@
+package dev.shirokuro.commandutility.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Indicates method annotated with {@link Executor} should be executed off the main thread.
+ *
+ * @see dev.shirokuro.commandutility.AsyncCommandHandler
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Async {
+}
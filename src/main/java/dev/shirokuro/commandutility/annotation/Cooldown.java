@@ -0,0 +1,22 @@
+package dev.shirokuro.commandutility.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits how often each sender can execute command of method annotated with {@link Executor}.
+ * By default the command can be executed once in {@code value}. If {@code permits} is more than 1,
+ * the command can be executed {@code permits} times in a burst, and permits are refilled in {@code value}.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Cooldown {
+    long value();
+
+    TimeUnit unit() default TimeUnit.SECONDS;
+
+    int permits() default 1;
+}
@@ -0,0 +1,16 @@
+package dev.shirokuro.commandutility.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Indicates permission required to execute and complete command of method annotated with {@link Executor}.
+ * Senders without the permission cannot see the command in completion and help.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Permission {
+    String value();
+}
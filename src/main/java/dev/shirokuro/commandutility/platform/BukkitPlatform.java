@@ -1,6 +1,10 @@
 package dev.shirokuro.commandutility.platform;
 
+import dev.shirokuro.commandutility.ArgumentType;
 import dev.shirokuro.commandutility.CommandCompleter;
+import dev.shirokuro.commandutility.CommandLine;
+import dev.shirokuro.commandutility.CommandUtils;
+import dev.shirokuro.commandutility.CompletionData;
 import java.util.*;
 import java.util.stream.Collectors;
 import org.bukkit.Bukkit;
@@ -10,9 +14,30 @@ import org.bukkit.command.CommandSender;
 import org.bukkit.command.PluginCommand;
 import org.bukkit.command.TabExecutor;
 import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
 
 public final class BukkitPlatform implements Platform {
 
+    private final PlatformScheduler scheduler = new BukkitScheduler();
+    private volatile Plugin plugin;
+
+    /**
+     * Constructs {@code BukkitPlatform}.
+     * Plugin used for scheduling tasks is the owner of the first registered command.
+     */
+    public BukkitPlatform() {
+        this(null);
+    }
+
+    /**
+     * Constructs {@code BukkitPlatform} with specified plugin.
+     *
+     * @param plugin plugin used for scheduling tasks. Nullable
+     */
+    public BukkitPlatform(final Plugin plugin) {
+        this.plugin = plugin;
+    }
+
     @Override
     public void registerHandler(final String firstCommand, final PlatformCommandHandler handler) throws CommandNotExistsException {
         Objects.requireNonNull(firstCommand, "firstCommand");
@@ -21,28 +46,100 @@ public final class BukkitPlatform implements Platform {
         if (command == null) {
             throw new CommandNotExistsException(firstCommand);
         } else {
+            if (plugin == null) {
+                plugin = command.getPlugin();
+            }
             command.setExecutor(new PlatformCommandHandlerDispatcher(handler));
         }
     }
 
+    @Override
+    public void unregisterHandler(final String firstCommand, final PlatformCommandHandler handler) {
+        Objects.requireNonNull(firstCommand, "firstCommand");
+        Objects.requireNonNull(handler, "handler");
+        final PluginCommand command = Bukkit.getPluginCommand(firstCommand);
+        // Leave executors set by others, including dispatchers of other groups
+        if (command != null && command.getExecutor() instanceof PlatformCommandHandlerDispatcher
+                && ((PlatformCommandHandlerDispatcher) command.getExecutor()).inner == handler) {
+            command.setExecutor(null);
+        }
+    }
+
+    @Override
+    public PlatformScheduler getScheduler() {
+        return scheduler;
+    }
+
+    @Override
+    public boolean isConnected(final CommandSender sender) {
+        return !(sender instanceof Player) || ((Player) sender).isOnline();
+    }
+
+    private Plugin requirePlugin() {
+        final Plugin current = plugin;
+        if (current == null) {
+            throw new IllegalStateException("No plugin to schedule tasks. Register a command first.");
+        }
+        return current;
+    }
+
     @Override
     public Map<String, CommandCompleter> defaultCompleters() {
         final Map<String, CommandCompleter> completers = new HashMap<>();
-        completers.put("worlds", data -> {
-            return Bukkit.getWorlds().stream()
-                    .map(World::getName)
-                    .filter(s -> s.startsWith(data.getCurrentValue()))
-                    .collect(Collectors.toList());
-        });
-        completers.put("players", data -> {
-            return Bukkit.getOnlinePlayers().stream()
-                    .map(Player::getName)
-                    .filter(s -> s.startsWith(data.getCurrentValue()))
-                    .collect(Collectors.toList());
-        });
+        completers.put("worlds", BukkitPlatform::completeWorlds);
+        completers.put("players", BukkitPlatform::completePlayers);
         return completers;
     }
 
+    @Override
+    public Map<String, ArgumentType<?>> defaultArgumentTypes() {
+        final Map<String, ArgumentType<?>> types = new HashMap<>();
+        types.put("world", ArgumentType.of(value -> CommandUtils.toWorld(value, null), BukkitPlatform::completeWorlds));
+        types.put("player", ArgumentType.of(value -> CommandUtils.toPlayer(value, null), BukkitPlatform::completePlayers));
+        return types;
+    }
+
+    private static List<String> completeWorlds(final CompletionData data) {
+        return Bukkit.getWorlds().stream()
+                .map(World::getName)
+                .filter(s -> s.startsWith(data.getCurrentValue()))
+                .collect(Collectors.toList());
+    }
+
+    private static List<String> completePlayers(final CompletionData data) {
+        final OnlinePlayerIndex index = OnlinePlayerIndex.getInstance();
+        if (index.isStarted()) {
+            // Read-only view. Dispatcher copies it before passing to server
+            return index.namesStartingWith(data.getCurrentValue());
+        }
+        return Bukkit.getOnlinePlayers().stream()
+                .map(Player::getName)
+                .filter(s -> s.startsWith(data.getCurrentValue()))
+                .collect(Collectors.toList());
+    }
+
+    private final class BukkitScheduler implements PlatformScheduler {
+
+        @Override
+        public void runSync(final Runnable task) {
+            if (Bukkit.isPrimaryThread()) {
+                task.run();
+            } else {
+                Bukkit.getScheduler().runTask(requirePlugin(), task);
+            }
+        }
+
+        @Override
+        public void runAsync(final Runnable task) {
+            Bukkit.getScheduler().runTaskAsynchronously(requirePlugin(), task);
+        }
+
+        @Override
+        public boolean isMainThread() {
+            return Bukkit.isPrimaryThread();
+        }
+    }
+
     public static final class PlatformCommandHandlerDispatcher implements TabExecutor {
 
         private final PlatformCommandHandler inner;
@@ -54,24 +151,33 @@ public final class BukkitPlatform implements Platform {
 
         @Override
         public boolean onCommand(final CommandSender sender, final Command command, final String alias, final String[] args) {
-            final List<String> commandLine = new ArrayList<>();
-            commandLine.add(command.getName());
-            commandLine.addAll(Arrays.asList(args));
-            inner.execute(sender, commandLine);
+            inner.execute(sender, CommandLine.of(command.getName(), args));
             return true;
         }
 
         @Override
         public List<String> onTabComplete(final CommandSender sender, final Command command, final String alias, final String[] args) {
-            final List<String> commandLine = new ArrayList<>();
-            commandLine.add(command.getName());
-            Arrays.stream(args)
-                    .filter(s -> !s.isEmpty())
-                    .forEach(commandLine::add);
             final CompletingPosition pos = args.length >= 1 && args[args.length - 1].isEmpty()
                     ? CompletingPosition.NEXT
                     : CompletingPosition.CURRENT;
-            return inner.complete(sender, pos, commandLine);
+            // Trailing empty arg only means the position, so exclude it without copying
+            final int length = pos == CompletingPosition.NEXT
+                    ? args.length - 1
+                    : args.length;
+            final CommandLine commandLine = containsEmpty(args, length)
+                    ? CommandLine.of(command.getName(), Arrays.stream(args).filter(s -> !s.isEmpty()).toArray(String[]::new))
+                    : CommandLine.of(command.getName(), args, length);
+            // Server may modify returned list, so pass a copy
+            return new ArrayList<>(inner.complete(sender, pos, commandLine));
+        }
+
+        private static boolean containsEmpty(final String[] args, final int length) {
+            for (int i = 0; i < length; i++) {
+                if (args[i].isEmpty()) {
+                    return true;
+                }
+            }
+            return false;
         }
     }
 }
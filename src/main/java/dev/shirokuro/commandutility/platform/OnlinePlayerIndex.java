@@ -0,0 +1,309 @@
+package dev.shirokuro.commandutility.platform;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.server.PluginDisableEvent;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * {@code OnlinePlayerIndex} keeps online players sorted by name ignoring case.
+ * <p>
+ * The index is updated by join and quit events after a plugin calls {@link #start} in {@code onEnable}.
+ * Lookups by name, prefix and UUID read an immutable snapshot without locking,
+ * and prefix lookups are binary searches that return views of the snapshot.
+ * While started, {@link BukkitPlatform} uses it for {@code players} completer and {@code player} argument type,
+ * and {@code CommandUtils.toPlayer} uses it too. Otherwise they fall back to {@code Bukkit}.
+ * </p>
+ * <p>
+ * Events are listened by one of the started plugins. When the plugin is disabled,
+ * another enabled one takes over, or the index is stopped if none.
+ * </p>
+ * This class is thread-safe.
+ */
+public final class OnlinePlayerIndex implements Listener {
+
+    private static final OnlinePlayerIndex INSTANCE = new OnlinePlayerIndex();
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private volatile boolean started;
+    /**
+     * Plugins that started this index, in started order.
+     */
+    private final Set<Plugin> plugins = new LinkedHashSet<>();
+    /**
+     * Plugin listening events. {@code null} if stopped.
+     */
+    private Plugin listening;
+
+    OnlinePlayerIndex() {
+    }
+
+    public static OnlinePlayerIndex getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Starts listening join and quit events, and adds players currently online.
+     * If already started by another plugin, {@code plugin} takes over when the plugin is disabled.
+     *
+     * @param plugin plugin to register listener
+     */
+    public synchronized void start(final Plugin plugin) {
+        Objects.requireNonNull(plugin, "plugin");
+        plugins.add(plugin);
+        if (listening == null) {
+            listen(plugin);
+        }
+    }
+
+    /**
+     * Stops using {@code plugin}. If it was listening events, another started plugin that is enabled takes over,
+     * or this index is stopped and cleared if none. Called when a plugin is disabled.
+     *
+     * @param plugin plugin to stop
+     */
+    public synchronized void stop(final Plugin plugin) {
+        Objects.requireNonNull(plugin, "plugin");
+        plugins.remove(plugin);
+        if (plugin != listening) {
+            return;
+        }
+        HandlerList.unregisterAll(this);
+        listening = null;
+        started = false;
+        snapshot = Snapshot.EMPTY;
+        for (final Plugin next : plugins) {
+            if (next.isEnabled()) {
+                listen(next);
+                return;
+            }
+        }
+    }
+
+    private void listen(final Plugin plugin) {
+        Bukkit.getPluginManager().registerEvents(this, plugin);
+        listening = plugin;
+        snapshot = Snapshot.of(Bukkit.getOnlinePlayers());
+        started = true;
+    }
+
+    /**
+     * Returns whether this index is listening events.
+     * If not, this index may not reflect players currently online.
+     *
+     * @return {@code true} if started
+     */
+    public boolean isStarted() {
+        return started;
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onJoin(final PlayerJoinEvent event) {
+        add(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(final PlayerQuitEvent event) {
+        remove(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPluginDisable(final PluginDisableEvent event) {
+        stop(event.getPlugin());
+    }
+
+    synchronized void add(final Player player) {
+        snapshot = snapshot.with(player);
+    }
+
+    synchronized void remove(final Player player) {
+        snapshot = snapshot.without(player);
+    }
+
+    /**
+     * Finds player by name ignoring case.
+     *
+     * @param name name of player
+     * @return player or {@code null} if not found
+     */
+    public Player getExact(final String name) {
+        Objects.requireNonNull(name, "name");
+        final Snapshot current = snapshot;
+        final int index = current.lowerBound(name);
+        return index < current.names.length && current.names[index].equalsIgnoreCase(name)
+            ? current.players[index]
+            : null;
+    }
+
+    /**
+     * Finds player like {@code Bukkit.getPlayer(String)}.
+     * Returns exactly matched player if exists, otherwise player that has shortest name starts with {@code name}.
+     *
+     * @param name name or prefix of name of player
+     * @return player or {@code null} if not found
+     */
+    public Player getByPrefix(final String name) {
+        Objects.requireNonNull(name, "name");
+        final Snapshot current = snapshot;
+        final int from = current.lowerBound(name);
+        final int to = current.upperBound(name, from);
+        Player found = null;
+        int shortest = Integer.MAX_VALUE;
+        for (int i = from; i < to; i++) {
+            final int length = current.names[i].length();
+            if (length < shortest) {
+                found = current.players[i];
+                shortest = length;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Finds player by UUID.
+     *
+     * @param uniqueId UUID of player
+     * @return player or {@code null} if not found
+     */
+    public Player get(final UUID uniqueId) {
+        Objects.requireNonNull(uniqueId, "uniqueId");
+        return snapshot.byId.get(uniqueId);
+    }
+
+    /**
+     * Returns names of players that starts with {@code prefix} ignoring case.
+     *
+     * @param prefix prefix of names
+     * @return read-only view of names. Sorted ignoring case
+     */
+    public List<String> namesStartingWith(final String prefix) {
+        Objects.requireNonNull(prefix, "prefix");
+        final Snapshot current = snapshot;
+        final int from = current.lowerBound(prefix);
+        return current.nameList.subList(from, current.upperBound(prefix, from));
+    }
+
+    public int size() {
+        return snapshot.names.length;
+    }
+
+    private static final class Snapshot {
+
+        private static final Snapshot EMPTY = new Snapshot(new String[0], new Player[0]);
+
+        /**
+         * Sorted by {@link String#CASE_INSENSITIVE_ORDER}.
+         */
+        private final String[] names;
+        private final Player[] players;
+        private final List<String> nameList;
+        private final Map<UUID, Player> byId;
+
+        private Snapshot(final String[] names, final Player[] players) {
+            this.names = names;
+            this.players = players;
+            this.nameList = Collections.unmodifiableList(Arrays.asList(names));
+            final Map<UUID, Player> map = new HashMap<>();
+            for (final Player player : players) {
+                map.put(player.getUniqueId(), player);
+            }
+            this.byId = map;
+        }
+
+        private static Snapshot of(final Collection<? extends Player> players) {
+            final Player[] sorted = players.toArray(new Player[0]);
+            Arrays.sort(sorted, (a, b) -> String.CASE_INSENSITIVE_ORDER.compare(a.getName(), b.getName()));
+            final String[] names = new String[sorted.length];
+            for (int i = 0; i < sorted.length; i++) {
+                names[i] = sorted[i].getName();
+            }
+            return new Snapshot(names, sorted);
+        }
+
+        private Snapshot with(final Player player) {
+            final Snapshot removed = without(player);
+            final String name = player.getName();
+            final int index = removed.lowerBound(name);
+            final int length = removed.names.length;
+            final String[] newNames = new String[length + 1];
+            final Player[] newPlayers = new Player[length + 1];
+            System.arraycopy(removed.names, 0, newNames, 0, index);
+            System.arraycopy(removed.players, 0, newPlayers, 0, index);
+            newNames[index] = name;
+            newPlayers[index] = player;
+            System.arraycopy(removed.names, index, newNames, index + 1, length - index);
+            System.arraycopy(removed.players, index, newPlayers, index + 1, length - index);
+            return new Snapshot(newNames, newPlayers);
+        }
+
+        private Snapshot without(final Player player) {
+            final UUID uniqueId = player.getUniqueId();
+            if (!byId.containsKey(uniqueId)) {
+                return this;
+            }
+            final int length = names.length;
+            final String[] newNames = new String[length - 1];
+            final Player[] newPlayers = new Player[length - 1];
+            int j = 0;
+            for (int i = 0; i < length; i++) {
+                if (!players[i].getUniqueId().equals(uniqueId)) {
+                    newNames[j] = names[i];
+                    newPlayers[j] = players[i];
+                    j++;
+                }
+            }
+            return new Snapshot(newNames, newPlayers);
+        }
+
+        /**
+         * Returns index of first name that is not less than {@code key} ignoring case.
+         */
+        private int lowerBound(final String key) {
+            int low = 0;
+            int high = names.length;
+            while (low < high) {
+                final int mid = (low + high) >>> 1;
+                if (String.CASE_INSENSITIVE_ORDER.compare(names[mid], key) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * Returns index of first name from {@code from} that doesn't start with {@code prefix} ignoring case.
+         * {@code from} must be the lower bound of {@code prefix}, so matched names are contiguous from there.
+         */
+        private int upperBound(final String prefix, final int from) {
+            int low = from;
+            int high = names.length;
+            while (low < high) {
+                final int mid = (low + high) >>> 1;
+                if (names[mid].regionMatches(true, 0, prefix, 0, prefix.length())) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
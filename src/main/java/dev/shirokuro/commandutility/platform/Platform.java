@@ -1,11 +1,52 @@
 package dev.shirokuro.commandutility.platform;
 
+import dev.shirokuro.commandutility.ArgumentType;
 import dev.shirokuro.commandutility.CommandCompleter;
+import java.util.Collections;
 import java.util.Map;
+import org.bukkit.command.CommandSender;
 
 public interface Platform {
 
     void registerHandler(final String firstCommand, final PlatformCommandHandler handler) throws CommandNotExistsException;
 
+    /**
+     * Unregisters {@code handler} of {@code firstCommand} registered by {@link #registerHandler}.
+     * Handlers registered by others must be left. Default implementation does nothing.
+     *
+     * @param firstCommand first section of removed commands
+     * @param handler handler passed to {@link #registerHandler}
+     */
+    default void unregisterHandler(final String firstCommand, final PlatformCommandHandler handler) {
+    }
+
     Map<String, CommandCompleter> defaultCompleters();
+
+    /**
+     * Returns argument types provided by this platform. Default implementation returns empty map.
+     *
+     * @return map of type name and type
+     */
+    default Map<String, ArgumentType<?>> defaultArgumentTypes() {
+        return Collections.emptyMap();
+    }
+
+    /**
+     * Returns scheduler of this platform. Default implementation runs all tasks on the calling thread.
+     *
+     * @return scheduler
+     */
+    default PlatformScheduler getScheduler() {
+        return PlatformScheduler.inline();
+    }
+
+    /**
+     * Returns whether {@code sender} is still connected to the platform.
+     *
+     * @param sender sender to check
+     * @return {@code true} if connected
+     */
+    default boolean isConnected(final CommandSender sender) {
+        return true;
+    }
 }
@@ -3,6 +3,11 @@ package dev.shirokuro.commandutility.platform;
 import java.util.*;
 import org.bukkit.command.CommandSender;
 
+/**
+ * Handler of commands registered to {@link Platform}.
+ * Platforms should pass {@link dev.shirokuro.commandutility.CommandLine CommandLine} as a line
+ * to avoid copying arguments.
+ */
 public interface PlatformCommandHandler {
 
     void execute(final CommandSender dispatcher, final List<String> line);
@@ -0,0 +1,61 @@
+package dev.shirokuro.commandutility.platform;
+
+/**
+ * {@code PlatformScheduler} runs tasks on main thread or background threads of the platform.
+ */
+public interface PlatformScheduler {
+
+    /**
+     * Returns {@code PlatformScheduler} that runs all tasks immediately on the calling thread.
+     *
+     * @return scheduler
+     */
+    static PlatformScheduler inline() {
+        return InlineScheduler.INSTANCE;
+    }
+
+    /**
+     * Runs {@code task} on main thread.
+     * If called from main thread, {@code task} may be run immediately.
+     *
+     * @param task task to run
+     */
+    void runSync(Runnable task);
+
+    /**
+     * Runs {@code task} on background thread.
+     *
+     * @param task task to run
+     */
+    void runAsync(Runnable task);
+
+    /**
+     * Returns whether current thread is main thread.
+     *
+     * @return {@code true} if current thread is main thread
+     */
+    boolean isMainThread();
+
+    final class InlineScheduler implements PlatformScheduler {
+
+        private static final InlineScheduler INSTANCE = new InlineScheduler();
+
+        private InlineScheduler() {
+        }
+
+        @Override
+        public void runSync(final Runnable task) {
+            task.run();
+        }
+
+        @Override
+        public void runAsync(final Runnable task) {
+            task.run();
+        }
+
+        @Override
+        public boolean isMainThread() {
+            return true;
+        }
+    }
+}
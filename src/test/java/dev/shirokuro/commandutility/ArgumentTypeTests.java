@@ -0,0 +1,120 @@
+package dev.shirokuro.commandutility;
+
+import dev.shirokuro.commandutility.platform.CompletingPosition;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class ArgumentTypeTests {
+
+    @Test
+    public void executeTestConvertsArgs() {
+        final List<Object> values = new ArrayList<>();
+        final CommandGroup group = new CommandGroup(new TestPlatform())
+                .add(data -> {
+                    values.add(data.getValueOrFail("amount", Integer.class));
+                    values.add(data.getValueOrFail("name", String.class));
+                    values.add(data.getOrFail("amount"));
+                }, "give <amount:int> <name>", null);
+        group.execute(new CommandSenderImpl(), Arrays.asList("give", "64", "diamond"));
+        assertEquals(Arrays.asList(64, "diamond", "64"), values);
+    }
+
+    @Test
+    public void executeTestMissingOptionalArg() {
+        final List<Object> values = new ArrayList<>();
+        final CommandGroup group = new CommandGroup(new TestPlatform())
+                .add(data -> values.add(data.getValueOrNull("amount", Integer.class)), "give [amount:int]", null);
+        group.execute(new CommandSenderImpl(), Collections.singletonList("give"));
+        assertEquals(Collections.singletonList(null), values);
+    }
+
+    @Test
+    public void executeTestConversionFailed() {
+        final List<String> errors = new ArrayList<>();
+        final ErrorHandler errorHandler = ErrorHandler.builder()
+                .onArgumentConversionFailed((sender, e) -> errors.add(e.getMessage()))
+                .build();
+        final CommandGroup group = new CommandGroup(new TestPlatform(), errorHandler)
+                .add(data -> fail("must not be executed"), "give <amount:int>", null);
+        group.execute(new CommandSenderImpl(), Arrays.asList("give", "many"));
+        assertEquals(Collections.singletonList("'many' is a invalid number"), errors);
+    }
+
+    @Test
+    public void executeTestConversionFailedFallsBackToExecutionFailed() {
+        final List<String> errors = new ArrayList<>();
+        final ErrorHandler errorHandler = ErrorHandler.builder()
+                .onExecutionFailed((sender, e) -> errors.add(e.getMessage()))
+                .build();
+        final CommandGroup group = new CommandGroup(new TestPlatform(), errorHandler)
+                .add(data -> fail("must not be executed"), "give <amount:double>", null);
+        group.execute(new CommandSenderImpl(), Arrays.asList("give", "many"));
+        assertEquals(1, errors.size());
+    }
+
+    @Test
+    public void completeTestCompleterAddedLater() {
+        final CommandGroup group = new CommandGroup(new TestPlatform())
+                .add(data -> { }, "give <amount:amounts>", null)
+                .addCompleter("amounts", data -> Collections.singletonList("64"));
+        assertEquals(Collections.singletonList("64"),
+                group.complete(new CommandSenderImpl(), CompletingPosition.NEXT, Collections.singletonList("give")));
+    }
+
+    @Test
+    public void executeTestTypeAddedLaterIsIgnored() {
+        final List<Object> values = new ArrayList<>();
+        final CommandGroup group = new CommandGroup(new TestPlatform())
+                .addCompleter("amounts", data -> Collections.emptyList())
+                .add(data -> values.add(data.getValueOrFail("amount", Object.class)), "give <amount:amounts>", null)
+                .addArgumentType("amounts", ArgumentType.INT);
+        group.execute(new CommandSenderImpl(), Arrays.asList("give", "64"));
+        assertEquals(Collections.singletonList("64"), values);
+    }
+
+    @Test
+    public void getValueTestWrongType() {
+        final List<Throwable> thrown = new ArrayList<>();
+        final CommandGroup group = new CommandGroup(new TestPlatform())
+                .add(data -> thrown.add(assertThrows(IllegalArgumentException.class,
+                        () -> data.getValue("amount", String.class))), "give <amount:int>", null);
+        group.execute(new CommandSenderImpl(), Arrays.asList("give", "1"));
+        assertEquals(1, thrown.size());
+    }
+
+    @Test
+    public void completeTestUsesType() {
+        final CommandGroup group = new CommandGroup(new TestPlatform())
+                .addArgumentType("unit", ArgumentType.ofEnum(TimeUnitForTest.class))
+                .add(data -> { }, "wait <unit:unit>", null);
+        assertEquals(Arrays.asList("milliseconds", "minutes"),
+                group.complete(new CommandSenderImpl(), CompletingPosition.CURRENT, Arrays.asList("wait", "Mi")));
+    }
+
+    @Test
+    public void completeTestPrefersCompleter() {
+        final CommandGroup group = new CommandGroup(new TestPlatform())
+                .addArgumentType("unit", ArgumentType.ofEnum(TimeUnitForTest.class))
+                .addCompleter("unit", data -> Collections.singletonList("custom"))
+                .add(data -> { }, "wait <unit:unit>", null);
+        assertEquals(Collections.singletonList("custom"),
+                group.complete(new CommandSenderImpl(), CompletingPosition.NEXT, Collections.singletonList("wait")));
+    }
+
+    @Test
+    public void ofEnumTestIgnoresCase() throws CommandExecutionException {
+        final ArgumentType<TimeUnitForTest> type = ArgumentType.ofEnum(TimeUnitForTest.class);
+        assertEquals(TimeUnitForTest.SECONDS, type.convert("Seconds"));
+        assertThrows(CommandExecutionException.class, () -> type.convert("hours"));
+    }
+
+    public enum TimeUnitForTest {
+        SECONDS,
+        MINUTES,
+        MILLISECONDS
+    }
+}
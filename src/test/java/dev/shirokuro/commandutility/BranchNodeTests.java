@@ -2,8 +2,12 @@ package dev.shirokuro.commandutility;
 
 import com.google.common.collect.Iterables;
 import dev.shirokuro.commandutility.annotation.Executor;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
@@ -37,6 +41,129 @@ public final class BranchNodeTests {
         assertEquals(Collections.singletonList("ba"), result.getUnreachablePaths());
     }
 
+    @Test
+    public void walkTestWithSomeUnreachable() {
+        final BranchNode root = new BranchNode("root", null);
+        root.branch("foo").branch("bar");
+        final BranchNode.WalkResult result = root.walk("foo", "bar", "hoge", "piyo");
+        assertEquals(Arrays.asList("hoge", "piyo"), result.getUnreachablePaths());
+        assertEquals(2, result.getBranches().size());
+    }
+
+    @Test
+    public void walkTestCopiesMutableList() {
+        final BranchNode root = new BranchNode("root", null);
+        root.branch("foo");
+        final List<String> paths = new ArrayList<>(Arrays.asList("foo", "hoge", "piyo"));
+        final BranchNode.WalkResult result = root.walk(paths);
+        final BranchNode.WalkResult frozenResult = FrozenTree.build(root).walk(paths);
+        paths.clear();
+        paths.add("changed");
+        assertEquals(Arrays.asList("hoge", "piyo"), result.getUnreachablePaths());
+        assertEquals(Arrays.asList("hoge", "piyo"), frozenResult.getUnreachablePaths());
+    }
+
+    @Test
+    public void walkTestIgnoreCase() {
+        final BranchNode root = new BranchNode("root", null);
+        root.setIgnoreCase(true);
+        final BranchNode bar = root.branch("Foo").branch("bar");
+        assertSame(root.branch("Foo"), root.branch("FOO"));
+        assertTrue(bar.isIgnoreCase());
+        final BranchNode.WalkResult result = root.walk("fOO", "BAR", "baz");
+        assertEquals(bar, Iterables.getLast(result.getBranches()));
+        assertEquals(Collections.singletonList("baz"), result.getUnreachablePaths());
+    }
+
+    @Test
+    public void childNamesStartingWithTestIgnoreCase() {
+        final BranchNode root = new BranchNode("root", null);
+        root.setIgnoreCase(true);
+        root.branch("beta");
+        root.branch("Alpha");
+        root.branch("alps");
+        root.branch("b");
+        assertEquals(Arrays.asList("Alpha", "alps"), root.childNamesStartingWith("AL"));
+        assertEquals(Arrays.asList("b", "beta"), root.childNamesStartingWith("B"));
+        assertEquals(Collections.emptyList(), root.childNamesStartingWith("c"));
+    }
+
+    @Test
+    public void closestChildNamesTest() {
+        final BranchNode root = new BranchNode("root", null);
+        root.branch("warp");
+        root.branch("ward");
+        root.branch("home");
+        assertEquals(Arrays.asList("warp", "ward"), root.closestChildNames("wrp", 3, 2));
+        assertEquals(Collections.singletonList("warp"), root.closestChildNames("warps", 1, 2));
+        assertEquals(Collections.emptyList(), root.closestChildNames("spawn", 3, 2));
+        // Index is updated after first search
+        root.branch("wary");
+        assertEquals(Arrays.asList("ward", "warp", "wary"), root.closestChildNames("war", 3, 1));
+    }
+
+    @Test
+    public void closestChildNamesTestIgnoreCase() {
+        final BranchNode root = new BranchNode("root", null);
+        root.setIgnoreCase(true);
+        root.branch("Warp");
+        assertEquals(Collections.singletonList("Warp"), root.closestChildNames("WARPS", 3, 1));
+    }
+
+    @Test
+    public void closestChildNamesTestManyChildren() {
+        final BranchNode root = new BranchNode("root", null);
+        for (int i = 0; i < 20000; i++) {
+            root.branch("cmd" + i);
+        }
+        final List<String> expected = root.getChildren().keySet().stream()
+                .filter(name -> distance("cmd1234", name) <= 1)
+                .sorted(Comparator.comparing((String name) -> distance("cmd1234", name))
+                        .thenComparing(Comparator.naturalOrder()))
+                .limit(5)
+                .collect(Collectors.toList());
+        assertEquals(expected, root.closestChildNames("cmd1234", 5, 1));
+        assertEquals("cmd1234", expected.get(0));
+    }
+
+    private static int distance(final String a, final String b) {
+        final int[][] table = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            for (int j = 0; j <= b.length(); j++) {
+                if (i == 0 || j == 0) {
+                    table[i][j] = i + j;
+                } else {
+                    final int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                    table[i][j] = Math.min(Math.min(table[i - 1][j] + 1, table[i][j - 1] + 1), table[i - 1][j - 1] + cost);
+                }
+            }
+        }
+        return table[a.length()][b.length()];
+    }
+
+    @Test
+    public void getChildrenTestReadOnlyView() {
+        final BranchNode root = new BranchNode("root", null);
+        final Map<String, Node> children = root.getChildren();
+        root.branch("foo");
+        assertTrue(children.containsKey("foo"));
+        assertThrows(UnsupportedOperationException.class, () -> children.remove("foo"));
+    }
+
+    @Test
+    public void childNamesStartingWithTest() {
+        final BranchNode root = new BranchNode("root", null);
+        root.branch("foo");
+        root.branch("bar");
+        root.branch("buz");
+        root.addChild(new AliasNode(root, "ba", "bar"));
+        assertEquals(Arrays.asList("bar", "buz"), root.childNamesStartingWith("b"));
+        assertEquals(Arrays.asList("bar", "buz", "foo"), root.childNamesStartingWith(""));
+        assertEquals(Collections.emptyList(), root.childNamesStartingWith("hoge"));
+        root.branch("baz");
+        assertEquals(Arrays.asList("bar", "baz"), root.childNamesStartingWith("ba"));
+    }
+
     @Test
     public void walkNodeTreeTest() {
         final CommandGroup group = new CommandGroup(new TestPlatform()).addAll(new NoOpHandler());
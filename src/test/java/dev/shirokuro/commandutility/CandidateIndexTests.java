@@ -0,0 +1,60 @@
+package dev.shirokuro.commandutility;
+
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class CandidateIndexTests {
+
+    @Test
+    public void findTestCaseSensitive() {
+        final CandidateIndex index = CandidateIndex.caseSensitive();
+        index.addAll(Arrays.asList("diamond", "dirt", "Diorite", "stone"));
+        assertEquals(Arrays.asList("diamond", "dirt"), index.find("di"));
+        assertEquals(Collections.singletonList("Diorite"), index.find("D"));
+        assertEquals(Arrays.asList("Diorite", "diamond", "dirt", "stone"), index.find(""));
+    }
+
+    @Test
+    public void findTestCaseInsensitive() {
+        final CandidateIndex index = CandidateIndex.caseInsensitive();
+        index.addAll(Arrays.asList("diamond", "dirt", "Diorite", "stone"));
+        assertEquals(Arrays.asList("diamond", "Diorite", "dirt"), index.find("DI"));
+    }
+
+    @Test
+    public void findTestWithLimit() {
+        final CandidateIndex index = CandidateIndex.caseSensitive();
+        index.addAll(Arrays.asList("a", "ab", "abc", "abd"));
+        assertEquals(Arrays.asList("ab", "abc"), index.find("ab", 2));
+    }
+
+    @Test
+    public void closestTest() {
+        final CandidateIndex index = CandidateIndex.caseSensitive();
+        index.addAll(Arrays.asList("diamond", "dirt", "Diorite", "stone", "diamonds"));
+        assertEquals(Arrays.asList("diamond", "diamonds"), index.closest("diamnd", 3, 2));
+        assertEquals(Collections.singletonList("diamond"), index.closest("diamnd", 1, 2));
+        assertEquals(Collections.singletonList("dirt"), index.closest("dirtt", 3, 1));
+        assertEquals(Collections.emptyList(), index.closest("grass", 3, 2));
+    }
+
+    @Test
+    public void closestTestCaseInsensitive() {
+        final CandidateIndex index = CandidateIndex.caseInsensitive();
+        index.addAll(Arrays.asList("Diorite", "stone"));
+        assertEquals(Collections.singletonList("Diorite"), index.closest("DIORIT", 3, 1));
+    }
+
+    @Test
+    public void removeTest() {
+        final CandidateIndex index = CandidateIndex.caseSensitive();
+        index.addAll(Arrays.asList("foo", "foobar", "fooz"));
+        assertTrue(index.remove("foo"));
+        assertFalse(index.remove("foo"));
+        assertFalse(index.contains("foo"));
+        assertEquals(Arrays.asList("foobar", "fooz"), index.find("fo"));
+        assertEquals(2, index.size());
+    }
+}
@@ -1,14 +1,24 @@
 package dev.shirokuro.commandutility;
 
+import dev.shirokuro.commandutility.annotation.Async;
 import dev.shirokuro.commandutility.annotation.Completer;
 import dev.shirokuro.commandutility.annotation.Executor;
 import dev.shirokuro.commandutility.platform.CompletingPosition;
+import dev.shirokuro.commandutility.platform.Platform;
+import dev.shirokuro.commandutility.platform.PlatformCommandHandler;
+import org.bukkit.command.CommandSender;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -33,6 +43,156 @@ public class CommandGroupTests {
         assertThrows(IllegalArgumentException.class, () -> new CommandGroup(new TestPlatform()).addAll(new AnnotationIncorrectParameters()));
     }
 
+    @Test
+    public void addCommandsTest() {
+        final List<String> registered = new ArrayList<>();
+        final CommandGroup group = new CommandGroup(new Platform() {
+            @Override
+            public void registerHandler(final String firstCommand, final PlatformCommandHandler handler) {
+                registered.add(firstCommand);
+            }
+
+            @Override
+            public Map<String, CommandCompleter> defaultCompleters() {
+                return Collections.emptyMap();
+            }
+        });
+        final List<Command> commands = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            commands.add(Command.fromString(data -> { }, "warp sub" + i + " <name>", null));
+        }
+        commands.add(Command.fromString(data -> { }, "home", null));
+        group.addCommands(commands);
+        assertEquals(Arrays.asList("warp", "home"), registered);
+        assertEquals(101, group.getRoot().walkNodeTree().size());
+        group.batch()
+                .add(data -> { }, "warp extra", null)
+                .add(data -> { }, "spawn", null)
+                .register();
+        assertEquals(Arrays.asList("warp", "home", "spawn"), registered);
+        assertTrue(group.getRoot().walk("warp", "extra").getCommand().isPresent());
+    }
+
+    @Test
+    public void addCommandsTestConflicts() {
+        final CommandGroup group = new CommandGroup(new TestPlatform())
+                .add(data -> { }, "home", null);
+        final IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> group.batch()
+                .add(data -> { }, "warp set home", null)
+                .add(data -> { }, "warp set", null)
+                .add(data -> { }, "warp list", null)
+                .add(data -> { }, "warp list", null)
+                .add(data -> { }, "home sub", null)
+                .add(data -> { }, "spawn", null)
+                .register());
+        assertEquals(3, e.getMessage().split("\n").length - 1, e.getMessage());
+        assertTrue(e.getMessage().contains("'warp set' conflicts with commands under it"), e.getMessage());
+        assertTrue(e.getMessage().contains("'warp list' is duplicated"), e.getMessage());
+        assertTrue(e.getMessage().contains("'home sub' conflicts with existing 'home'"), e.getMessage());
+        // Nothing is added
+        assertEquals(Collections.singletonList("home"), group.getRoot().childNamesStartingWith(""));
+    }
+
+    @Test
+    public void dispatchTest() {
+        final List<String> values = new ArrayList<>();
+        final CommandGroup group = new CommandGroup(new TestPlatform())
+                .add(data -> values.add(data.getOrFail("name")), "warp set <name>", null);
+        group.dispatch(new CommandSenderImpl(), "/warp  set home sweet");
+        assertEquals(Collections.singletonList("home sweet"), values);
+        assertDoesNotThrow(() -> group.dispatch(new CommandSenderImpl(), "unknown"));
+    }
+
+    @Test
+    public void addTestWhileDispatching() throws Exception {
+        final CommandGroup group = new CommandGroup(new TestPlatform());
+        final int count = 2000;
+        final java.util.concurrent.atomic.AtomicInteger executed = new java.util.concurrent.atomic.AtomicInteger();
+        final Thread writer = new Thread(() -> {
+            for (int i = 0; i < count; i++) {
+                group.add(data -> executed.incrementAndGet(), "cmd" + (i % 50) + " sub" + i + " <arg>", null);
+            }
+        });
+        writer.start();
+        final CommandSenderImpl sender = new CommandSenderImpl();
+        while (writer.isAlive()) {
+            group.dispatch(sender, "cmd0 sub0 a");
+            group.complete(sender, CompletingPosition.CURRENT, Arrays.asList("cmd1", "sub"));
+            group.getRoot().walkNodeTree();
+        }
+        writer.join();
+        final int before = executed.get();
+        for (int i = 0; i < count; i++) {
+            group.dispatch(sender, "cmd" + (i % 50) + " sub" + i + " a");
+        }
+        assertEquals(count, executed.get() - before);
+        assertEquals(count / 50, group.complete(sender, CompletingPosition.CURRENT, Arrays.asList("cmd1", "sub")).size());
+    }
+
+    @Test
+    public void dispatchTestIgnoreCase() {
+        final List<String> values = new ArrayList<>();
+        final CommandGroup group = new CommandGroup(new TestPlatform())
+                .setIgnoreCase(true)
+                .add(data -> values.add(data.getOrFail("name")), "warp set <name>", null)
+                .addAlias("warp Put", "SET");
+        final CommandSenderImpl sender = new CommandSenderImpl();
+        group.dispatch(sender, "/Warp SET Home");
+        group.dispatch(sender, "/WARP put home");
+        group.freeze();
+        group.dispatch(sender, "/wArP sEt Work");
+        group.dispatch(sender, "/warp PUT work");
+        assertEquals(Arrays.asList("Home", "home", "Work", "work"), values);
+        assertEquals(Collections.singletonList("set"),
+                group.complete(sender, CompletingPosition.CURRENT, Arrays.asList("WARP", "S")));
+    }
+
+    @Test
+    public void setIgnoreCaseTestAfterAdd() {
+        final CommandGroup group = new CommandGroup(new TestPlatform())
+                .add(data -> { }, "warp", null);
+        assertThrows(IllegalStateException.class, () -> group.setIgnoreCase(true));
+    }
+
+    @Test
+    public void executeTestSuggestSections() {
+        final CommandGroup group = new CommandGroup(new TestPlatform())
+                .add(data -> { }, "warp set <name>", null)
+                .add(data -> { }, "warp delete <name>", null);
+        final CommandSenderImpl sender = new CommandSenderImpl();
+        group.dispatch(sender, "/warp sett home");
+        group.dispatch(sender, "/warp list");
+        group.dispatch(sender, "/warp");
+        assertEquals(Arrays.asList(
+                "Unknown command 'sett'. Did you mean: set?",
+                "Candidates: delete, set",
+                "Candidates: delete, set"), sender.getMessages());
+    }
+
+    @Test
+    public void completeTestCurrentOfMultipleParameters() {
+        final CommandGroup group = new CommandGroup(new TestPlatform())
+                .add(new CommandHandler() {
+                    @Override
+                    public void execute(final ExecutionData data) {
+                    }
+
+                    @Override
+                    public List<String> complete(final CompletionData data) {
+                        return Collections.singletonList(data.getParameterName() + "=" + data.getCurrentValue());
+                    }
+                }, "give <item> <amount>", null);
+        final CommandSenderImpl sender = new CommandSenderImpl();
+        assertEquals(Collections.singletonList("item=dia"),
+                group.complete(sender, CompletingPosition.CURRENT, Arrays.asList("give", "dia")));
+        assertEquals(Collections.singletonList("amount="),
+                group.complete(sender, CompletingPosition.NEXT, Arrays.asList("give", "dia")));
+        assertEquals(Collections.singletonList("amount=1"),
+                group.complete(sender, CompletingPosition.CURRENT, Arrays.asList("give", "dia", "1")));
+        assertEquals(Collections.singletonList("amount=1 "),
+                group.complete(sender, CompletingPosition.NEXT, Arrays.asList("give", "dia", "1")));
+    }
+
     @Test
     public void zeroParamTest() {
         final CommandGroup group = new CommandGroup(new TestPlatform());
@@ -65,6 +225,277 @@ public class CommandGroupTests {
         group.complete(new CommandSenderImpl(), CompletingPosition.CURRENT, Arrays.asList("foo", "bar", "ho"));
     }
 
+    @Test
+    public void freezeTestCompleteSubcommand() {
+        final CommandGroup group = new CommandGroup(new TestPlatform());
+        group.addAll(new FooBarAndFooBuzzHandler());
+        group.addAlias("foo bu", "buzz");
+        group.freeze();
+        final List<String> result =
+                group.complete(new CommandSenderImpl(), CompletingPosition.CURRENT, Arrays.asList("foo", "bu"));
+        assertEquals(Collections.singletonList("buzz"), result);
+    }
+
+    @Test
+    public void freezeTestAddAfterFreeze() {
+        final CommandGroup group = new CommandGroup(new TestPlatform()).freeze();
+        assertTrue(group.isFrozen());
+        assertThrows(IllegalStateException.class, () -> group.addAll(new ZeroParamTestHandler()));
+    }
+
+    @Test
+    public void removeTest() {
+        final List<String> unregistered = new ArrayList<>();
+        final CommandGroup group = new CommandGroup(new Platform() {
+            @Override
+            public void registerHandler(final String firstCommand, final PlatformCommandHandler handler) {
+            }
+
+            @Override
+            public void unregisterHandler(final String firstCommand, final PlatformCommandHandler handler) {
+                unregistered.add(firstCommand);
+            }
+
+            @Override
+            public Map<String, CommandCompleter> defaultCompleters() {
+                return Collections.emptyMap();
+            }
+        });
+        final CommandHandler handler = data -> { };
+        group.add(handler, "warp set <name>", null);
+        group.add(handler, "warp admin reload", null);
+        group.add(handler, "home", null);
+        assertFalse(group.remove("warp unknown"));
+        assertTrue(group.remove("warp admin reload"));
+        assertNull(group.getRoot().walk("warp").getBranches().get(0).getChildren().get("admin"));
+        assertEquals(Collections.emptyList(), unregistered);
+        assertTrue(group.remove("warp"));
+        assertEquals(Collections.singletonList("warp"), unregistered);
+        assertEquals(1, group.getRoot().walkNodeTree().size());
+        assertThrows(IllegalStateException.class, () -> group.freeze().remove("home"));
+    }
+
+    @Test
+    public void removeTestRootAlias() {
+        final List<String> registered = new ArrayList<>();
+        final List<String> unregistered = new ArrayList<>();
+        final CommandGroup group = new CommandGroup(new Platform() {
+            @Override
+            public void registerHandler(final String firstCommand, final PlatformCommandHandler handler) {
+                registered.add(firstCommand);
+            }
+
+            @Override
+            public void unregisterHandler(final String firstCommand, final PlatformCommandHandler handler) {
+                unregistered.add(firstCommand);
+            }
+
+            @Override
+            public Map<String, CommandCompleter> defaultCompleters() {
+                return Collections.emptyMap();
+            }
+        });
+        group.add(data -> { }, "teleport here", null)
+                .addAlias("tp", "teleport here")
+                .setPermission("warp", "warp.use");
+        assertTrue(group.remove("tp"));
+        assertTrue(group.remove("warp"));
+        assertEquals(Collections.emptyList(), unregistered);
+        assertTrue(group.remove("teleport"));
+        assertEquals(Collections.singletonList("teleport"), registered);
+        assertEquals(Collections.singletonList("teleport"), unregistered);
+    }
+
+    @Test
+    public void replaceTestCommand() {
+        final List<String> values = new ArrayList<>();
+        final CommandGroup group = new CommandGroup(new TestPlatform())
+                .add(data -> values.add("old"), "warp set <name>", null)
+                .replace(Command.fromString(data -> values.add("new"), "warp set <name>", null));
+        group.dispatch(new CommandSenderImpl(), "warp set home");
+        assertEquals(Collections.singletonList("new"), values);
+        assertThrows(IllegalArgumentException.class,
+                () -> group.replace(Command.fromString(data -> { }, "warp unknown", null)));
+    }
+
+    @Test
+    public void replaceTestBranch() {
+        final List<String> values = new ArrayList<>();
+        final CommandGroup group = new CommandGroup(new TestPlatform())
+                .add(data -> values.add("set"), "warp set <name>", null)
+                .add(data -> values.add("list"), "warp list", null)
+                .setPermission("warp", "warp.use");
+        group.replace("warp", Arrays.asList(
+                Command.fromString(data -> values.add("create"), "warp create <name>", null),
+                Command.fromString(data -> values.add("delete"), "warp admin delete <name>", null)));
+        final BranchNode warp = group.getRoot().walk("warp").getBranches().get(0);
+        assertEquals(Optional.of("warp.use"), warp.getPermission());
+        assertEquals(Arrays.asList("admin", "create"), warp.childNamesStartingWith(""));
+        final CommandSenderImpl sender = new CommandSenderImpl();
+        sender.getPermissions().add("warp.use");
+        group.dispatch(sender, "warp list");
+        group.dispatch(sender, "warp create home");
+        group.dispatch(sender, "warp admin delete home");
+        assertEquals(Arrays.asList("create", "delete"), values);
+        assertThrows(IllegalArgumentException.class,
+                () -> group.replace("warp", Collections.singletonList(Command.fromString(data -> { }, "home", null))));
+        group.replace("warp", Collections.emptyList());
+        assertTrue(group.getRoot().getChildren().isEmpty());
+    }
+
+    @Test
+    public void addAliasTestCycle() {
+        final CommandGroup group = new CommandGroup(new TestPlatform())
+                .add(data -> { }, "warp set <name>", null)
+                .addAlias("warp a", "b");
+        assertThrows(IllegalArgumentException.class, () -> group.addAlias("warp b", "a"));
+        assertThrows(IllegalArgumentException.class, () -> group.addAlias("warp c", "c"));
+        assertThrows(IllegalArgumentException.class, () -> group.addAlias("warp s", "s set"));
+        assertFalse(group.getRoot().walk("warp").getBranches().get(0).getChildren().containsKey("b"));
+        assertDoesNotThrow(() -> group.addAlias("warp b", "set"));
+        assertDoesNotThrow(group::freeze);
+    }
+
+    @Test
+    public void addAliasTestMultiSection() {
+        final List<String> values = new ArrayList<>();
+        final CommandGroup group = new CommandGroup(new TestPlatform())
+                .add(data -> values.add(data.getOrFail("name")), "warp admin set <name>", null)
+                .addAlias("warp s", "admin set")
+                .addAlias("warp t", "s");
+        final CommandSenderImpl sender = new CommandSenderImpl();
+        group.dispatch(sender, "warp s home");
+        group.dispatch(sender, "warp t spawn");
+        assertEquals(Arrays.asList("home", "spawn"), values);
+        final BranchNode.WalkResult result = group.getRoot().walk("warp", "t", "spawn");
+        assertEquals(Arrays.asList("warp", "admin"), result.getBranches().stream().map(Node::getName).collect(Collectors.toList()));
+        assertEquals(result, FrozenTree.build(group.getRoot()).walk(Arrays.asList("warp", "t", "spawn")));
+        // Resolved again after the target is replaced
+        group.replace(Command.fromString(data -> values.add("new"), "warp admin set <name>", null));
+        group.dispatch(sender, "warp t spawn");
+        assertEquals("new", values.get(values.size() - 1));
+    }
+
+    @Test
+    public void frozenTreeTestWalk() {
+        final CommandGroup group = new CommandGroup(new TestPlatform());
+        group.addAll(new FooBarAndFooBuzzHandler());
+        group.addAll(new TryCompleteArgumentInTypingWordHandler(data -> { }));
+        group.addAlias("foo bu", "buzz");
+        final FrozenTree tree = FrozenTree.build(group.getRoot());
+        for (final List<String> line : Arrays.asList(
+                Arrays.asList("foo", "bar", "hoge"),
+                Arrays.asList("foo", "bu", "hoge"),
+                Arrays.asList("foo", "piyo"),
+                Collections.singletonList("foo"),
+                Collections.<String>emptyList())) {
+            assertEquals(group.getRoot().walk(line), tree.walk(line));
+        }
+    }
+
+    @Test
+    public void asyncCompleterTestCompleted() {
+        // Default deadline is short, so complete on the calling thread
+        final CommandGroup group = new CommandGroup(new TestPlatform()).setCompletionExecutor(Runnable::run);
+        group.addCompleter("async", (AsyncCommandCompleter) data ->
+                CompletableFuture.completedFuture(Collections.singletonList("foo")));
+        group.add(data -> { }, "foo <bar:async>", null);
+        final List<String> result =
+                group.complete(new CommandSenderImpl(), CompletingPosition.NEXT, Collections.singletonList("foo"));
+        assertEquals(Collections.singletonList("foo"), result);
+    }
+
+    @Test
+    public void asyncCompleterTestSlowCompleterDoesNotBlockLaterRequests() {
+        final CommandGroup group = new CommandGroup(new TestPlatform()).setCompletionExecutor(Runnable::run);
+        // Never completes, so it keeps the only slot of the sender
+        group.addCompleter("slow", AsyncCommandCompleter.withDeadline(data -> new CompletableFuture<>(), 200, TimeUnit.MILLISECONDS));
+        group.add(data -> { }, "foo <bar:slow>", null);
+        final CommandSenderImpl sender = new CommandSenderImpl();
+        assertTrue(group.complete(sender, CompletingPosition.CURRENT, Arrays.asList("foo", "a")).isEmpty());
+        final long start = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            assertTrue(group.complete(sender, CompletingPosition.CURRENT, Arrays.asList("foo", "ab")).isEmpty());
+        }
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(200));
+    }
+
+    @Test
+    public void asyncCompleterTestDeadlinePassed() {
+        final CommandGroup group = new CommandGroup(new TestPlatform());
+        group.addCompleter("async", AsyncCommandCompleter.withDeadline(data -> new CompletableFuture<>(), 10, TimeUnit.MILLISECONDS));
+        group.add(data -> { }, "foo <bar:async>", null);
+        final List<String> result =
+                group.complete(new CommandSenderImpl(), CompletingPosition.NEXT, Collections.singletonList("foo"));
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    public void asyncHandlerTestRunsOnExecutor() {
+        final List<Runnable> tasks = new ArrayList<>();
+        final List<CommandExecutionException> errors = new ArrayList<>();
+        final ErrorHandler errorHandler = ErrorHandler.builder()
+                .onExecutionFailed((sender, e) -> errors.add(e))
+                .build();
+        final CommandGroup group = new CommandGroup(new TestPlatform(), errorHandler).setExecutionExecutor(tasks::add);
+        group.add((AsyncCommandHandler) data -> {
+            throw new CommandExecutionException("failed");
+        }, "foo", null);
+        group.execute(new CommandSenderImpl(), Collections.singletonList("foo"));
+        assertEquals(1, tasks.size());
+        assertTrue(errors.isEmpty());
+        tasks.get(0).run();
+        assertEquals(1, errors.size());
+    }
+
+    @Test
+    public void asyncHandlerTestDisconnectedWhileRunning() {
+        final List<Runnable> tasks = new ArrayList<>();
+        final List<String> delivered = new ArrayList<>();
+        final List<CommandExecutionException> errors = new ArrayList<>();
+        final boolean[] connected = {true};
+        final CommandGroup group = new CommandGroup(new Platform() {
+            @Override
+            public void registerHandler(final String firstCommand, final PlatformCommandHandler handler) {
+            }
+
+            @Override
+            public Map<String, CommandCompleter> defaultCompleters() {
+                return Collections.emptyMap();
+            }
+
+            @Override
+            public boolean isConnected(final CommandSender sender) {
+                return connected[0];
+            }
+        }, ErrorHandler.builder().onExecutionFailed((sender, e) -> errors.add(e)).build()).setExecutionExecutor(tasks::add);
+        group.add((AsyncCommandHandler) data -> {
+            connected[0] = false;
+            data.runSync(sender -> delivered.add("result"));
+            throw new CommandExecutionException("failed");
+        }, "foo", null);
+        group.execute(new CommandSenderImpl(), Collections.singletonList("foo"));
+        tasks.get(0).run();
+        assertTrue(delivered.isEmpty());
+        assertTrue(errors.isEmpty());
+    }
+
+    @Test
+    public void asyncHandlerTestAnnotation() {
+        final List<Runnable> tasks = new ArrayList<>();
+        final CommandGroup group = new CommandGroup(new TestPlatform()).setExecutionExecutor(tasks::add);
+        group.addAll(new AsyncHandler());
+        group.execute(new CommandSenderImpl(), Collections.singletonList("foo"));
+        assertEquals(1, tasks.size());
+    }
+
+    public static final class AsyncHandler {
+        @Async
+        @Executor("foo")
+        public void foo(ExecutionData data) {
+        }
+    }
+
     public static final class TryCompleteArgumentInTypingWordHandler {
         private final Consumer<CompletionData> callback;
 
@@ -0,0 +1,42 @@
+package dev.shirokuro.commandutility;
+
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class CommandLineTests {
+
+    @Test
+    public void ofTestWithHead() {
+        final String[] args = {"set", "home", ""};
+        final CommandLine line = CommandLine.of("warp", args, 2);
+        assertEquals(Arrays.asList("warp", "set", "home"), line);
+        assertEquals(Arrays.asList("set", "home"), line.skip(1));
+        assertEquals(Collections.singletonList("home"), line.subList(1, 3).skip(1));
+    }
+
+    @Test
+    public void tokenizeTest() {
+        final CommandLine line = CommandLine.tokenize("  warp  set home ");
+        assertEquals(Arrays.asList("warp", "set", "home"), line);
+        assertEquals(Arrays.asList("set", "home"), line.skip(1));
+        assertTrue(CommandLine.tokenize("   ").isEmpty());
+    }
+
+    @Test
+    public void getTestOutOfBounds() {
+        final CommandLine line = CommandLine.of("a", "b").skip(1);
+        assertThrows(IndexOutOfBoundsException.class, () -> line.get(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> line.get(-1));
+    }
+
+    @Test
+    public void walkTestReturnsView() {
+        final BranchNode root = new BranchNode("root");
+        root.branch("warp").addChild(new CommandNode(null, "set", Command.fromString(data -> { }, "warp set <name>", null)));
+        final BranchNode.WalkResult result = root.walk(CommandLine.tokenize("warp set home"));
+        assertEquals(Collections.singletonList("home"), result.getUnreachablePaths());
+        assertTrue(result.getUnreachablePaths() instanceof CommandLine);
+    }
+}
@@ -0,0 +1,76 @@
+package dev.shirokuro.commandutility;
+
+import dev.shirokuro.commandutility.platform.CompletingPosition;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Collections;
+import javax.management.ObjectName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class CommandMetricsTests {
+
+    @Test
+    public void executeTestRecordsInvocations() {
+        final CommandMetrics metrics = new CommandMetrics();
+        final CommandGroup group = createGroup().setMetrics(metrics);
+        final CommandSenderImpl sender = new CommandSenderImpl();
+        group.execute(sender, Arrays.asList("test", "foo", "a"));
+        group.execute(sender, Arrays.asList("test", "foo", "b"));
+        group.execute(sender, Arrays.asList("test", "fail"));
+        assertEquals(Long.valueOf(2), metrics.getInvocationCounts().get("test foo"));
+        assertEquals(Long.valueOf(1), metrics.getInvocationCounts().get("test fail"));
+        assertEquals(3, metrics.getWalkLatency().getCount());
+        assertEquals(3, metrics.getParseLatency().getCount());
+        assertEquals(3, metrics.getHandlerLatency().getCount());
+        assertEquals(2, metrics.getHandlerLatencies().get("test foo").getCount());
+        assertEquals(Long.valueOf(1), metrics.getErrorCounts().get("onExecutionFailed"));
+    }
+
+    @Test
+    public void executeTestRecordsErrors() {
+        final CommandMetrics metrics = new CommandMetrics();
+        final CommandGroup group = createGroup().setMetrics(metrics);
+        final CommandSenderImpl sender = new CommandSenderImpl();
+        group.execute(sender, Arrays.asList("test", "unknown"));
+        group.execute(sender, Arrays.asList("test", "foo"));
+        assertEquals(Long.valueOf(1), metrics.getErrorCounts().get("onPreferredCommandNotFound"));
+        assertEquals(Long.valueOf(1), metrics.getErrorCounts().get("onInvalidArgs"));
+        assertTrue(metrics.getInvocationCounts().isEmpty());
+    }
+
+    @Test
+    public void completeTestRecordsCompleters() {
+        final CommandMetrics metrics = new CommandMetrics();
+        final CommandGroup group = createGroup().setMetrics(metrics);
+        final CommandSenderImpl sender = new CommandSenderImpl();
+        group.complete(sender, CompletingPosition.CURRENT, Arrays.asList("test", "foo", "a"));
+        group.complete(sender, CompletingPosition.CURRENT, Arrays.asList("test", "fail", "a"));
+        assertEquals(1, metrics.getCompletionLatencies().get("values").getCount());
+        assertEquals(1, metrics.getCompletionLatencies().get("test fail").getCount());
+    }
+
+    @Test
+    public void registerMBeanTest() throws Exception {
+        final CommandMetrics metrics = new CommandMetrics();
+        metrics.registerMBean("registerMBeanTest");
+        try {
+            final ObjectName name = new ObjectName(
+                    "dev.shirokuro.commandutility:type=CommandMetrics,name=\"registerMBeanTest\"");
+            assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+            assertNotNull(ManagementFactory.getPlatformMBeanServer().getAttribute(name, "WalkLatency"));
+            assertThrows(IllegalStateException.class, () -> metrics.registerMBean("registerMBeanTest"));
+        } finally {
+            metrics.unregisterMBean();
+        }
+    }
+
+    private static CommandGroup createGroup() {
+        return new CommandGroup(new TestPlatform())
+                .addCompleter("values", data -> Collections.singletonList("a"))
+                .add(data -> { }, "test foo <value:values>", null)
+                .add(data -> {
+                    throw new CommandExecutionException("fail");
+                }, "test fail [value]", null);
+    }
+}
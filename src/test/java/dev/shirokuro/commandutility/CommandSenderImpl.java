@@ -7,17 +7,38 @@ import org.bukkit.permissions.PermissionAttachment;
 import org.bukkit.permissions.PermissionAttachmentInfo;
 import org.bukkit.plugin.Plugin;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 public final class CommandSenderImpl implements CommandSender {
+
+    private final List<String> messages = new ArrayList<>();
+    private final Set<String> permissions = new HashSet<>();
+    private int permissionChecks;
+
+    public List<String> getMessages() {
+        return messages;
+    }
+
+    public Set<String> getPermissions() {
+        return permissions;
+    }
+
+    public int getPermissionChecks() {
+        return permissionChecks;
+    }
+
     @Override
     public void sendMessage(String message) {
-
+        messages.add(message);
     }
 
     @Override
     public void sendMessage(String[] messages) {
-
+        this.messages.addAll(Arrays.asList(messages));
     }
 
     @Override
@@ -42,12 +63,13 @@ public final class CommandSenderImpl implements CommandSender {
 
     @Override
     public boolean hasPermission(String name) {
-        return false;
+        permissionChecks++;
+        return permissions.contains(name);
     }
 
     @Override
     public boolean hasPermission(Permission perm) {
-        return false;
+        return hasPermission(perm.getName());
     }
 
     @Override
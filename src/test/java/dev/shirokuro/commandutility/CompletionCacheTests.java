@@ -0,0 +1,113 @@
+package dev.shirokuro.commandutility;
+
+import dev.shirokuro.commandutility.platform.CompletingPosition;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.bukkit.entity.Player;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class CompletionCacheTests {
+
+    private static final List<String> ITEMS = Arrays.asList("diamond", "diamond_sword", "dirt", "stone");
+
+    @Test
+    public void completeTestNarrowsCachedCandidates() {
+        final AtomicInteger calls = new AtomicInteger();
+        final CompletionCache cache = CompletionCache.builder().build();
+        final CommandGroup group = createGroup(calls, cache);
+        final CommandSenderImpl sender = new CommandSenderImpl();
+        assertEquals(Arrays.asList("diamond", "diamond_sword", "dirt"),
+                group.complete(sender, CompletingPosition.CURRENT, Arrays.asList("give", "di")));
+        assertEquals(Arrays.asList("diamond", "diamond_sword"),
+                group.complete(sender, CompletingPosition.CURRENT, Arrays.asList("give", "dia")));
+        assertEquals(1, calls.get());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void completeTestCallsCompleterForShorterPrefix() {
+        final AtomicInteger calls = new AtomicInteger();
+        final CommandGroup group = createGroup(calls, CompletionCache.builder().build());
+        final CommandSenderImpl sender = new CommandSenderImpl();
+        group.complete(sender, CompletingPosition.CURRENT, Arrays.asList("give", "dia"));
+        group.complete(sender, CompletingPosition.CURRENT, Arrays.asList("give", "d"));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void invalidateAllTest() {
+        final AtomicInteger calls = new AtomicInteger();
+        final CompletionCache cache = CompletionCache.builder().build();
+        final CommandGroup group = createGroup(calls, cache);
+        final CommandSenderImpl sender = new CommandSenderImpl();
+        group.complete(sender, CompletingPosition.CURRENT, Arrays.asList("give", "di"));
+        cache.invalidateAll();
+        group.complete(sender, CompletingPosition.CURRENT, Arrays.asList("give", "dia"));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void completeTestEvictsExpiredEntry() {
+        final AtomicInteger calls = new AtomicInteger();
+        final CompletionCache cache = CompletionCache.builder().ttl(0, TimeUnit.NANOSECONDS).build();
+        final CommandGroup group = createGroup(calls, cache);
+        final CommandSenderImpl sender = new CommandSenderImpl();
+        group.complete(sender, CompletingPosition.CURRENT, Arrays.asList("give", "di"));
+        assertEquals(1, cache.size());
+        group.complete(new CommandSenderImpl(), CompletingPosition.CURRENT, Arrays.asList("give", "di"));
+        assertEquals(2, cache.size());
+        group.complete(sender, CompletingPosition.CURRENT, Arrays.asList("give", "dia"));
+        assertEquals(3, calls.get());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void completeTestScopesPlayersByUniqueId() {
+        final AtomicInteger calls = new AtomicInteger();
+        final CommandGroup group = createGroup(calls, CompletionCache.builder().build());
+        final UUID uniqueId = UUID.randomUUID();
+        group.complete(player(uniqueId), CompletingPosition.CURRENT, Arrays.asList("give", "di"));
+        // Same player after reconnecting
+        group.complete(player(uniqueId), CompletingPosition.CURRENT, Arrays.asList("give", "dia"));
+        assertEquals(1, calls.get());
+        group.complete(player(UUID.randomUUID()), CompletingPosition.CURRENT, Arrays.asList("give", "dia"));
+        assertEquals(2, calls.get());
+    }
+
+    private static Player player(final UUID uniqueId) {
+        return (Player) Proxy.newProxyInstance(Player.class.getClassLoader(), new Class<?>[]{Player.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getUniqueId":
+                        return uniqueId;
+                    case "hasPermission":
+                        return true;
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+
+    private static CommandGroup createGroup(final AtomicInteger calls, final CompletionCache cache) {
+        return new CommandGroup(new TestPlatform())
+                .setCompletionCache(cache)
+                .addCompleter("items", data -> {
+                    calls.incrementAndGet();
+                    return ITEMS.stream()
+                            .filter(s -> s.startsWith(data.getCurrentValue()))
+                            .collect(Collectors.toList());
+                })
+                .add(data -> { }, "give <item:items>", null);
+    }
+}
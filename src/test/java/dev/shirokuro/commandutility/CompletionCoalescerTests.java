@@ -0,0 +1,146 @@
+package dev.shirokuro.commandutility;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class CompletionCoalescerTests {
+
+    private final Queue<Runnable> queue = new ArrayDeque<>();
+    private final java.util.concurrent.Executor executor = queue::add;
+
+    private void runQueued() {
+        Runnable task;
+        while ((task = queue.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private static final CommandNode COMMAND = new CommandNode(null, "give", Command.fromString(data -> { }, "give <item>", null));
+
+    private static CompletionData data(final CommandSenderImpl sender, final String currentValue) {
+        return new CompletionData(sender, COMMAND, "item", currentValue);
+    }
+
+    private static Supplier<CompletableFuture<List<String>>> task(
+            final AtomicInteger started,
+            final CompletableFuture<List<String>> future) {
+        return () -> {
+            started.incrementAndGet();
+            return future;
+        };
+    }
+
+    @Test
+    public void submitTestLatestWins() {
+        final CompletionCoalescer coalescer = new CompletionCoalescer(1);
+        final CommandSenderImpl sender = new CommandSenderImpl();
+        final AtomicInteger started = new AtomicInteger();
+        final CompletableFuture<List<String>> first = new CompletableFuture<>();
+        final CompletableFuture<List<String>> third = new CompletableFuture<>();
+        final CompletableFuture<List<String>> a = coalescer.submit(data(sender, ""), task(started, first), executor);
+        runQueued();
+        assertEquals(1, started.get());
+        final CompletableFuture<List<String>> b = coalescer.submit(data(sender, ""), task(started, new CompletableFuture<>()), executor);
+        final CompletableFuture<List<String>> c = coalescer.submit(data(sender, ""), task(started, third), executor);
+        // Running request is superseded, and pending request is replaced without running
+        assertNull(a.getNow(Collections.emptyList()));
+        assertNull(b.getNow(Collections.emptyList()));
+        // Waiting request is answered at once. No requests have completed yet
+        assertNull(c.getNow(Collections.emptyList()));
+        runQueued();
+        assertEquals(1, started.get());
+        first.complete(Collections.singletonList("stale"));
+        runQueued();
+        assertEquals(2, started.get());
+        third.complete(Collections.singletonList("latest"));
+        final CompletableFuture<List<String>> d = coalescer.submit(data(sender, ""), task(started, new CompletableFuture<>()), executor);
+        runQueued();
+        assertEquals(3, started.get());
+        assertFalse(d.isDone());
+    }
+
+    @Test
+    public void submitTestWaitingAnsweredWithLastCandidates() {
+        final CompletionCoalescer coalescer = new CompletionCoalescer(1);
+        final CommandSenderImpl sender = new CommandSenderImpl();
+        final AtomicInteger started = new AtomicInteger();
+        final CompletableFuture<List<String>> first = new CompletableFuture<>();
+        coalescer.submit(data(sender, "d"), task(started, first), executor);
+        runQueued();
+        first.complete(Arrays.asList("diamond", "dirt"));
+        // Slow completer keeps the slot
+        coalescer.submit(data(sender, "di"), task(started, new CompletableFuture<>()), executor);
+        runQueued();
+        assertEquals(Collections.singletonList("diamond"),
+                coalescer.submit(data(sender, "dia"), task(started, new CompletableFuture<>()), executor).getNow(null));
+        assertEquals(Arrays.asList("diamond", "dirt"),
+                coalescer.submit(data(sender, "d"), task(started, new CompletableFuture<>()), executor).getNow(null));
+        assertNull(coalescer.submit(data(sender, ""), task(started, new CompletableFuture<>()), executor).getNow(Collections.emptyList()));
+        runQueued();
+        assertEquals(2, started.get());
+    }
+
+    @Test
+    public void submitTestMaxConcurrent() {
+        final CompletionCoalescer coalescer = new CompletionCoalescer(2);
+        final CommandSenderImpl sender = new CommandSenderImpl();
+        final AtomicInteger started = new AtomicInteger();
+        final CompletableFuture<List<String>> second = new CompletableFuture<>();
+        final CompletableFuture<List<String>> a = coalescer.submit(data(sender, ""), task(started, new CompletableFuture<>()), executor);
+        runQueued();
+        final CompletableFuture<List<String>> b = coalescer.submit(data(sender, ""), task(started, second), executor);
+        runQueued();
+        assertEquals(2, started.get());
+        assertNull(a.getNow(Collections.emptyList()));
+        coalescer.submit(data(sender, ""), task(started, new CompletableFuture<>()), executor);
+        runQueued();
+        assertEquals(2, started.get());
+        assertNull(b.getNow(Collections.emptyList()));
+        second.complete(Collections.emptyList());
+        runQueued();
+        assertEquals(3, started.get());
+    }
+
+    @Test
+    public void submitTestSendersIndependent() {
+        final CompletionCoalescer coalescer = new CompletionCoalescer(1);
+        final AtomicInteger started = new AtomicInteger();
+        final CompletableFuture<List<String>> a =
+                coalescer.submit(data(new CommandSenderImpl(), ""), task(started, new CompletableFuture<>()), executor);
+        final CompletableFuture<List<String>> b =
+                coalescer.submit(data(new CommandSenderImpl(), ""), task(started, new CompletableFuture<>()), executor);
+        runQueued();
+        assertEquals(2, started.get());
+        assertFalse(a.isDone());
+        assertFalse(b.isDone());
+    }
+
+    @Test
+    public void submitTestWaitingRunsWhenSlotReleased() {
+        final CompletionCoalescer coalescer = new CompletionCoalescer(1);
+        final CommandSenderImpl sender = new CommandSenderImpl();
+        final AtomicInteger started = new AtomicInteger();
+        final CompletableFuture<List<String>> first = new CompletableFuture<>();
+        final CompletableFuture<List<String>> second = new CompletableFuture<>();
+        coalescer.submit(data(sender, ""), task(started, first), executor);
+        runQueued();
+        coalescer.submit(data(sender, "d"), task(started, second), executor);
+        first.complete(Collections.emptyList());
+        runQueued();
+        assertEquals(2, started.get());
+        second.complete(Collections.singletonList("dirt"));
+        // Candidates of the waiting request are kept for the next one
+        coalescer.submit(data(sender, "d"), task(started, new CompletableFuture<>()), executor);
+        runQueued();
+        assertEquals(Collections.singletonList("dirt"),
+                coalescer.submit(data(sender, "di"), task(started, new CompletableFuture<>()), executor).getNow(null));
+    }
+}
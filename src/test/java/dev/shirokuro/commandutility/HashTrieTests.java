@@ -0,0 +1,112 @@
+package dev.shirokuro.commandutility;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class HashTrieTests {
+
+    @Test
+    public void putTestSharesPrevious() {
+        final HashTrie<Integer> empty = HashTrie.empty(false);
+        final HashTrie<Integer> one = empty.put("warp", 1);
+        final HashTrie<Integer> two = one.put("home", 2);
+        assertEquals(0, empty.size());
+        assertNull(empty.get("warp"));
+        assertEquals(1, one.size());
+        assertNull(one.get("home"));
+        assertEquals(2, two.size());
+        assertEquals(Integer.valueOf(1), two.get("warp"));
+        assertEquals(Integer.valueOf(2), two.get("home"));
+        assertEquals(Integer.valueOf(3), two.put("warp", 3).get("warp"));
+        assertEquals(2, two.put("warp", 3).size());
+    }
+
+    @Test
+    public void putTestCollision() {
+        // "Aa" and "BB" have same hash code
+        final HashTrie<Integer> trie = HashTrie.<Integer>empty(false).put("Aa", 1).put("BB", 2).put("AaBB", 3).put("BBAa", 4);
+        assertEquals(4, trie.size());
+        assertEquals(Integer.valueOf(1), trie.get("Aa"));
+        assertEquals(Integer.valueOf(2), trie.get("BB"));
+        assertEquals(Integer.valueOf(4), trie.get("BBAa"));
+        final HashTrie<Integer> removed = trie.remove("Aa");
+        assertEquals(3, removed.size());
+        assertNull(removed.get("Aa"));
+        assertEquals(Integer.valueOf(2), removed.get("BB"));
+        assertSame(removed, removed.remove("Aa"));
+    }
+
+    @Test
+    public void getTestIgnoreCase() {
+        final HashTrie<Integer> trie = HashTrie.<Integer>empty(true).put("Warp", 1);
+        assertEquals(Integer.valueOf(1), trie.get("wARP"));
+        assertEquals(1, trie.put("WARP", 2).size());
+        assertEquals(0, trie.remove("warp").size());
+        assertNull(HashTrie.<Integer>empty(false).put("Warp", 1).get("warp"));
+    }
+
+    @Test
+    public void putTestSameAsHashMap() {
+        final Random random = new Random(42);
+        final Map<String, Integer> expected = new HashMap<>();
+        HashTrie<Integer> trie = HashTrie.empty(false);
+        for (int i = 0; i < 20000; i++) {
+            final String key = "k" + random.nextInt(2000);
+            if (random.nextInt(3) == 0) {
+                expected.remove(key);
+                trie = trie.remove(key);
+            } else {
+                expected.put(key, i);
+                trie = trie.put(key, i);
+            }
+            assertEquals(expected.size(), trie.size());
+        }
+        for (int i = 0; i < 2000; i++) {
+            assertEquals(expected.get("k" + i), trie.get("k" + i));
+        }
+        final List<Integer> values = new ArrayList<>();
+        trie.forEachValue(values::add);
+        assertEquals(expected.size(), values.size());
+        assertTrue(values.containsAll(expected.values()));
+    }
+
+    @Test
+    public void putAllTestSameAsHashMap() {
+        final Random random = new Random(7);
+        final List<String> names = new ArrayList<>();
+        final List<Integer> values = new ArrayList<>();
+        final Map<String, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            final String name = "k" + random.nextInt(3000);
+            names.add(name);
+            values.add(i);
+            expected.put(name, i);
+        }
+        // Colliding and duplicated names
+        names.addAll(Arrays.asList("Aa", "BB", "Aa"));
+        values.addAll(Arrays.asList(1, 2, 3));
+        expected.put("Aa", 3);
+        expected.put("BB", 2);
+        final HashTrie<Integer> trie = HashTrie.<Integer>empty(false).putAll(names, values);
+        assertEquals(expected.size(), trie.size());
+        expected.forEach((name, value) -> assertEquals(value, trie.get(name), name));
+        assertEquals(expected.size() - 1, trie.remove("Aa").size());
+        final HashTrie<Integer> more = trie.putAll(Arrays.asList("k1", "new"), Arrays.asList(-1, -2));
+        assertEquals(Integer.valueOf(-1), more.get("k1"));
+        assertEquals(Integer.valueOf(-2), more.get("new"));
+    }
+
+    @Test
+    public void putAllTestIgnoreCase() {
+        final HashTrie<Integer> trie = HashTrie.<Integer>empty(true).putAll(Arrays.asList("Warp", "home", "WARP"), Arrays.asList(1, 2, 3));
+        assertEquals(2, trie.size());
+        assertEquals(Integer.valueOf(3), trie.get("warp"));
+        assertEquals(Integer.valueOf(2), trie.get("HOME"));
+    }
+}
@@ -0,0 +1,85 @@
+package dev.shirokuro.commandutility;
+
+import java.util.Arrays;
+import java.util.List;
+import org.bukkit.ChatColor;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class HelpCommandHandlerTests {
+
+    private static CommandGroup group() {
+        return new CommandGroup(new TestPlatform())
+                .add(new HelpCommandHandler("Help", null, null, 2), "help [query]", null)
+                .add(data -> { }, "warp set <name>", "Sets warp")
+                .add(data -> { }, "warp delete <name>", null)
+                .add(data -> { }, "home", null);
+    }
+
+    private static String entry(final String sections) {
+        return ChatColor.GRAY + "/" + sections + ChatColor.RESET;
+    }
+
+    private static String param(final String name) {
+        return ChatColor.GOLD + "<" + name + ">" + ChatColor.RESET;
+    }
+
+    private static String pageLine(final int page, final int pages) {
+        return ChatColor.GRAY + "Page " + page + "/" + pages + ChatColor.RESET;
+    }
+
+    @Test
+    public void executeTestPages() {
+        final CommandGroup group = group();
+        final CommandSenderImpl sender = new CommandSenderImpl();
+        group.dispatch(sender, "help");
+        group.dispatch(sender, "help 2");
+        group.dispatch(sender, "help 3");
+        final List<String> messages = sender.getMessages();
+        assertEquals(3, messages.size());
+        assertEquals(String.join("\n", "Help", entry("help") + " " + ChatColor.YELLOW + "[query]" + ChatColor.RESET,
+                entry("home"), pageLine(1, 2)), messages.get(0));
+        assertEquals(String.join("\n", "Help", entry("warp delete") + " " + param("name"),
+                entry("warp set") + " " + param("name"), "  - Sets warp", pageLine(2, 2)), messages.get(1));
+        assertEquals("Page 3 does not exist. Pages: 1-2", messages.get(2));
+    }
+
+    @Test
+    public void executeTestSubtree() {
+        final CommandGroup group = group();
+        final CommandSenderImpl sender = new CommandSenderImpl();
+        group.dispatch(sender, "help warp");
+        group.dispatch(sender, "help warp 1");
+        group.dispatch(sender, "help warp set");
+        group.dispatch(sender, "help spawn");
+        assertEquals(Arrays.asList(
+                String.join("\n", "Help", entry("warp delete") + " " + param("name"),
+                        entry("warp set") + " " + param("name"), "  - Sets warp"),
+                String.join("\n", "Help", entry("warp delete") + " " + param("name"),
+                        entry("warp set") + " " + param("name"), "  - Sets warp"),
+                String.join("\n", "Help", entry("warp set") + " " + param("name"), "  - Sets warp"),
+                "No commands found for 'spawn'"), sender.getMessages());
+    }
+
+    @Test
+    public void executeTestCacheInvalidated() {
+        final CommandGroup group = group();
+        final CommandSenderImpl sender = new CommandSenderImpl();
+        group.dispatch(sender, "help warp");
+        group.add(data -> { }, "warp list", null);
+        group.dispatch(sender, "help warp 2");
+        assertEquals(String.join("\n", "Help", entry("warp set") + " " + param("name"), "  - Sets warp",
+                pageLine(2, 2)), sender.getMessages().get(1));
+    }
+
+    @Test
+    public void executeTestAncestorPermissionChanged() {
+        final CommandGroup group = group().add(data -> { }, "warp admin reload", null);
+        final CommandSenderImpl sender = new CommandSenderImpl();
+        group.dispatch(sender, "help warp admin");
+        group.setPermission("warp", "warp.use");
+        group.dispatch(sender, "help warp admin");
+        assertEquals(Arrays.asList(String.join("\n", "Help", entry("warp admin reload")),
+                "No commands found for 'warp admin'"), sender.getMessages());
+    }
+}
@@ -0,0 +1,91 @@
+package dev.shirokuro.commandutility;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class ParsedArgsTests {
+
+    private static final ParamKey<String> FOO = ParamKey.of("foo");
+    private static final ParamKey<Integer> AMOUNT = ParamKey.of("amount", Integer.class);
+
+    @Test
+    public void parseTestJoinsRestArgs() throws Command.ArgumentNotEnoughException {
+        final Command command = Command.fromString(data -> { }, "cmd <foo> <bar>", null);
+        final ParsedArgs args = command.parse(Arrays.asList("val1", "val2", "val3"), false);
+        assertEquals("val1", args.get(0));
+        assertEquals("val2 val3", args.get("bar"));
+        assertEquals("val1", args.get(FOO));
+    }
+
+    @Test
+    public void parseTestMissingOptionalArgs() throws Command.ArgumentNotEnoughException {
+        final Command command = Command.fromString(data -> { }, "cmd [foo] [bar]", null);
+        final ParsedArgs args = command.parse(Collections.singletonList("val1"), false);
+        assertEquals(2, args.size());
+        assertNull(args.get("bar"));
+        final Map<String, String> map = args.asMap();
+        assertEquals(Collections.singletonMap("foo", "val1"), map);
+        assertSame(map, args.asMap());
+    }
+
+    @Test
+    public void getTestParamKeyOfOtherCommand() throws Command.ArgumentNotEnoughException {
+        final Command first = Command.fromString(data -> { }, "cmd <foo> <bar>", null);
+        final Command second = Command.fromString(data -> { }, "cmd <bar> <foo>", null);
+        assertEquals("a", first.parse(Arrays.asList("a", "b"), false).get(FOO));
+        assertEquals("b", second.parse(Arrays.asList("a", "b"), false).get(FOO));
+        assertEquals("a", first.parse(Arrays.asList("a", "b"), false).get(FOO));
+    }
+
+    @Test
+    public void getTestInlineParamKeysShareBinding() throws Command.ArgumentNotEnoughException {
+        final Command command = Command.fromString(data -> { }, "cmd <foo> <bar>", null);
+        final ParsedArgs args = command.parse(Arrays.asList("a", "b"), false);
+        final ParamKey.Binding binding = command.bindingOf("foo");
+        for (int i = 0; i < 10000; i++) {
+            final ParamKey<String> key = ParamKey.of("foo");
+            assertEquals("a", args.get(key));
+            // Resolved to the binding created by the command, so neither the key nor the command grows
+            assertSame(binding, key.bindingIn(command));
+        }
+    }
+
+    @Test
+    public void getTestParamKeyNotExists() throws Command.ArgumentNotEnoughException {
+        final Command command = Command.fromString(data -> { }, "cmd <bar>", null);
+        final ParsedArgs args = command.parse(Collections.singletonList("a"), false);
+        assertThrows(IllegalArgumentException.class, () -> args.get(FOO));
+    }
+
+    @Test
+    public void executeTestParamKey() {
+        final List<Object> values = new ArrayList<>();
+        final CommandGroup group = new CommandGroup(new TestPlatform())
+                .add(data -> {
+                    values.add(data.getOrFail(AMOUNT));
+                    values.add(data.getOrNull(FOO));
+                }, "give <amount:int> [foo]", null);
+        group.execute(new CommandSenderImpl(), Arrays.asList("give", "3"));
+        assertEquals(Arrays.asList(3, null), values);
+    }
+
+    @Test
+    public void executionDataTestKeepsExtraArgsOfMap() {
+        final Command command = Command.fromString(data -> { }, "cmd <foo>", null);
+        final Map<String, String> map = new HashMap<>();
+        map.put("foo", "a");
+        map.put("extra", "b");
+        final ExecutionData data = new ExecutionData(
+                new CommandGroup(new TestPlatform()), new CommandSenderImpl(), new CommandNode(null, "cmd", command), map);
+        map.clear();
+        assertEquals(2, data.getArgs().size());
+        assertEquals("b", data.getOrFail("extra"));
+        assertEquals("a", data.getOrFail(FOO));
+    }
+}
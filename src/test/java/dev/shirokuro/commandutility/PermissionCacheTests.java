@@ -0,0 +1,129 @@
+package dev.shirokuro.commandutility;
+
+import com.google.common.collect.ImmutableSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import dev.shirokuro.commandutility.platform.CompletingPosition;
+import org.bukkit.ChatColor;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class PermissionCacheTests {
+
+    @Test
+    public void hasPermissionTest() {
+        final PermissionCache cache = new PermissionCache();
+        cache.register("a");
+        cache.register("b");
+        final CommandSenderImpl sender = new CommandSenderImpl();
+        sender.getPermissions().add("a");
+        sender.getPermissions().add("c");
+        assertTrue(cache.hasPermission(sender, "a"));
+        assertFalse(cache.hasPermission(sender, "b"));
+        assertTrue(cache.hasPermission(sender, "c"));
+        assertTrue(cache.hasPermission(sender, null));
+        assertEquals(ImmutableSet.of("a"), cache.getAllowed(sender));
+    }
+
+    @Test
+    public void hasPermissionTestCached() {
+        final PermissionCache cache = new PermissionCache();
+        cache.register("a");
+        cache.register("b");
+        final CommandSenderImpl sender = new CommandSenderImpl();
+        cache.getAllowed(sender);
+        final int checks = sender.getPermissionChecks();
+        for (int i = 0; i < 10; i++) {
+            cache.hasPermission(sender, "a");
+            cache.hasPermission(sender, "b");
+        }
+        assertEquals(checks, sender.getPermissionChecks());
+    }
+
+    @Test
+    public void hasPermissionTestInvalidated() {
+        final PermissionCache cache = new PermissionCache();
+        cache.register("a");
+        final CommandSenderImpl sender = new CommandSenderImpl();
+        assertFalse(cache.hasPermission(sender, "a"));
+        sender.getPermissions().add("a");
+        assertFalse(cache.hasPermission(sender, "a"));
+        cache.invalidate(sender);
+        assertTrue(cache.hasPermission(sender, "a"));
+    }
+
+    @Test
+    public void hasPermissionTestExpired() {
+        final PermissionCache cache = new PermissionCache().setExpireAfter(0, TimeUnit.SECONDS);
+        cache.register("a");
+        final CommandSenderImpl sender = new CommandSenderImpl();
+        assertFalse(cache.hasPermission(sender, "a"));
+        sender.getPermissions().add("a");
+        assertTrue(cache.hasPermission(sender, "a"));
+    }
+
+    @Test
+    public void getAllowedTestRegisteredLater() {
+        final PermissionCache cache = new PermissionCache();
+        final CommandSenderImpl sender = new CommandSenderImpl();
+        sender.getPermissions().add("a");
+        assertEquals(Collections.emptySet(), cache.getAllowed(sender));
+        cache.register("a");
+        assertEquals(ImmutableSet.of("a"), cache.getAllowed(sender));
+    }
+
+    @Test
+    public void dispatchTestPermissionDenied() {
+        final int[] executed = new int[1];
+        final CommandGroup group = new CommandGroup(new TestPlatform())
+                .add(data -> executed[0]++, "warp set <name>", null, "warp.set")
+                .add(data -> executed[0]++, "warp delete <name>", null)
+                .setPermission("warp", "warp.use");
+        final CommandSenderImpl sender = new CommandSenderImpl();
+        group.dispatch(sender, "warp set home");
+        group.dispatch(sender, "warp delete home");
+        assertEquals(0, executed[0]);
+        assertEquals(Arrays.asList("You don't have permission.", "You don't have permission."), sender.getMessages());
+        sender.getPermissions().add("warp.use");
+        group.getPermissionCache().invalidate(sender);
+        group.dispatch(sender, "warp set home");
+        group.dispatch(sender, "warp delete home");
+        assertEquals(1, executed[0]);
+    }
+
+    @Test
+    public void completeTestPruned() {
+        final CommandGroup group = new CommandGroup(new TestPlatform())
+                .add(data -> { }, "warp set <name>", null, "warp.set")
+                .add(data -> { }, "warp delete <name>", null)
+                .add(data -> { }, "admin reload", null)
+                .setPermission("admin", "admin");
+        final CommandSenderImpl sender = new CommandSenderImpl();
+        assertEquals(Collections.singletonList("delete"),
+                group.complete(sender, CompletingPosition.NEXT,
+                        Collections.singletonList("warp")));
+        assertEquals(Collections.emptyList(),
+                group.complete(sender, CompletingPosition.NEXT,
+                        Collections.singletonList("admin")));
+    }
+
+    @Test
+    public void helpTestPruned() {
+        final CommandGroup group = new CommandGroup(new TestPlatform())
+                .add(new HelpCommandHandler(), "help [query]", null)
+                .add(data -> { }, "warp set <name>", null, "warp.set")
+                .add(data -> { }, "admin reload", null)
+                .setPermission("admin", "admin");
+        final CommandSenderImpl sender = new CommandSenderImpl();
+        group.dispatch(sender, "help");
+        group.dispatch(sender, "help admin");
+        sender.getPermissions().add("admin");
+        group.getPermissionCache().invalidate(sender);
+        group.dispatch(sender, "help admin");
+        assertEquals(Arrays.asList(
+                ChatColor.GRAY + "/help" + ChatColor.RESET + " " + ChatColor.YELLOW + "[query]" + ChatColor.RESET,
+                "No commands found for 'admin'",
+                ChatColor.GRAY + "/admin reload" + ChatColor.RESET), sender.getMessages());
+    }
+}
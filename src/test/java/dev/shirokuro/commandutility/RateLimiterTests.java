@@ -0,0 +1,136 @@
+package dev.shirokuro.commandutility;
+
+import dev.shirokuro.commandutility.annotation.Cooldown;
+import dev.shirokuro.commandutility.annotation.Executor;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.bukkit.entity.Player;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class RateLimiterTests {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private static Player player(final UUID uniqueId) {
+        return (Player) Proxy.newProxyInstance(Player.class.getClassLoader(), new Class<?>[]{Player.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getUniqueId":
+                        return uniqueId;
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+
+    @Test
+    public void tryAcquireTestCooldown() {
+        final RateLimiter limiter = new RateLimiter(RateLimit.cooldown(10, TimeUnit.SECONDS));
+        final CommandSenderImpl sender = new CommandSenderImpl();
+        assertEquals(0, limiter.tryAcquire(sender, 0));
+        assertEquals(5 * SECOND, limiter.tryAcquire(sender, 5 * SECOND));
+        assertEquals(0, limiter.tryAcquire(new CommandSenderImpl(), 5 * SECOND));
+        assertEquals(0, limiter.tryAcquire(sender, 10 * SECOND));
+    }
+
+    @Test
+    public void tryAcquireTestManyConsoleSenders() {
+        final RateLimiter limiter = new RateLimiter(RateLimit.cooldown(10, TimeUnit.SECONDS));
+        // Each sender that is not a player has its own bucket
+        final List<CommandSenderImpl> senders = new ArrayList<>();
+        for (int i = 0; i < 100000; i++) {
+            final CommandSenderImpl sender = new CommandSenderImpl();
+            senders.add(sender);
+            assertEquals(0, limiter.tryAcquire(sender, 0));
+        }
+        assertEquals(10 * SECOND, limiter.tryAcquire(senders.get(0), 0));
+    }
+
+    @Test
+    public void tryAcquireTestBurst() {
+        final RateLimiter limiter = new RateLimiter(RateLimit.of(3, 3, TimeUnit.SECONDS));
+        final CommandSenderImpl sender = new CommandSenderImpl();
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire(sender, 0));
+        }
+        assertEquals(SECOND, limiter.tryAcquire(sender, 0));
+        assertEquals(0, limiter.tryAcquire(sender, SECOND));
+        assertEquals(SECOND, limiter.tryAcquire(sender, SECOND));
+    }
+
+    @Test
+    public void waitTimeTestNotTaken() {
+        final RateLimiter limiter = new RateLimiter(RateLimit.cooldown(1, TimeUnit.SECONDS));
+        final CommandSenderImpl sender = new CommandSenderImpl();
+        assertEquals(0, limiter.waitTime(sender, 0));
+        assertEquals(0, limiter.tryAcquire(sender, 0));
+        assertEquals(SECOND, limiter.waitTime(sender, 0));
+    }
+
+    @Test
+    public void tryAcquireTestManyPlayers() {
+        final RateLimiter limiter = new RateLimiter(RateLimit.cooldown(1, TimeUnit.SECONDS));
+        final List<Player> players = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            players.add(player(new UUID(i, -i)));
+        }
+        for (final Player player : players) {
+            assertEquals(0, limiter.tryAcquire(player, 0));
+        }
+        for (final Player player : players) {
+            assertEquals(SECOND, limiter.tryAcquire(player, 0));
+            // Same UUID shares the bucket
+            assertEquals(SECOND, limiter.waitTime(player(player.getUniqueId()), 0));
+        }
+        // Full buckets are dropped as new players are added
+        for (int i = 1000; i < 2000; i++) {
+            assertEquals(0, limiter.tryAcquire(player(new UUID(i, -i)), 2 * SECOND));
+        }
+        for (final Player player : players) {
+            assertEquals(0, limiter.tryAcquire(player, 2 * SECOND));
+        }
+    }
+
+    @Test
+    public void dispatchTestRateLimited() {
+        final int[] executed = new int[1];
+        final CommandGroup group = new CommandGroup(new TestPlatform())
+                .add(Command.fromString(data -> executed[0]++, "warp set <name>", null)
+                        .withRateLimit(RateLimit.cooldown(10, TimeUnit.SECONDS)))
+                .add(data -> executed[0]++, "warp delete <name>", null)
+                .setRateLimit("warp", RateLimit.of(3, 1, TimeUnit.MINUTES));
+        final CommandSenderImpl sender = new CommandSenderImpl();
+        group.dispatch(sender, "warp set home");
+        group.dispatch(sender, "warp set home");
+        group.dispatch(sender, "warp delete home");
+        group.dispatch(sender, "warp delete home");
+        group.dispatch(sender, "warp delete home");
+        assertEquals(3, executed[0]);
+        assertEquals(Arrays.asList(
+                "You must wait 10 seconds before using this command again.",
+                "You must wait 20 seconds before using this command again."), sender.getMessages());
+    }
+
+    @Test
+    public void addAllTestCooldown() {
+        final CommandGroup group = new CommandGroup(new TestPlatform()).addAll(new AnnotationCooldown());
+        final Command command = group.getRoot().walk(Arrays.asList("home")).getCommand().get().getCommand();
+        assertEquals(RateLimit.of(2, 30, TimeUnit.SECONDS), command.getRateLimit().orElse(null));
+    }
+
+    public static final class AnnotationCooldown {
+        @Executor("home")
+        @Cooldown(value = 30, permits = 2)
+        public void home(final ExecutionData data) {
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package dev.shirokuro.commandutility;
+
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class ReflectedCommandHandlerTests {
+
+    @Test
+    public void executeTestPublicClass() throws Exception {
+        final PublicHandler caller = new PublicHandler();
+        final ReflectedCommandHandler handler = new ReflectedCommandHandler(caller,
+                PublicHandler.class.getMethod("execute", ExecutionData.class),
+                PublicHandler.class.getMethod("complete", CompletionData.class));
+        handler.execute(null);
+        assertEquals(1, caller.executed);
+        assertEquals(Collections.singletonList("foo"), handler.complete(null));
+    }
+
+    @Test
+    public void executeTestNonPublicClass() throws Exception {
+        final NonPublicHandler caller = new NonPublicHandler();
+        final ReflectedCommandHandler handler = new ReflectedCommandHandler(caller,
+                NonPublicHandler.class.getMethod("execute", ExecutionData.class),
+                null);
+        handler.execute(null);
+        assertEquals(1, caller.executed);
+        assertEquals(Collections.emptyList(), handler.complete(null));
+    }
+
+    @Test
+    public void executeTestThrowsCommandExecutionException() throws Exception {
+        final ReflectedCommandHandler handler = new ReflectedCommandHandler(new PublicHandler(),
+                PublicHandler.class.getMethod("fail", ExecutionData.class),
+                null);
+        assertThrows(CommandExecutionException.class, () -> handler.execute(null));
+    }
+
+    public static final class PublicHandler {
+        private int executed;
+
+        public void execute(ExecutionData data) {
+            executed++;
+        }
+
+        public List<String> complete(CompletionData data) {
+            return Collections.singletonList("foo");
+        }
+
+        public void fail(ExecutionData data) throws CommandExecutionException {
+            throw new CommandExecutionException("fail");
+        }
+    }
+
+    private static final class NonPublicHandler {
+        private int executed;
+
+        public void execute(ExecutionData data) {
+            executed++;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package dev.shirokuro.commandutility.platform;
+
+import be.seeseemelk.mockbukkit.MockBukkit;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.UUID;
+import org.bukkit.entity.Player;
+import org.bukkit.event.server.PluginDisableEvent;
+import org.bukkit.plugin.Plugin;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class OnlinePlayerIndexTests {
+
+    private static Player player(final String name) {
+        final UUID uniqueId = UUID.randomUUID();
+        return (Player) Proxy.newProxyInstance(Player.class.getClassLoader(), new Class<?>[]{Player.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getName":
+                        return name;
+                    case "getUniqueId":
+                        return uniqueId;
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+
+    @Test
+    public void namesStartingWithTest() {
+        final OnlinePlayerIndex index = new OnlinePlayerIndex();
+        index.add(player("steve"));
+        index.add(player("Alex"));
+        index.add(player("Stella"));
+        index.add(player("bob"));
+        assertEquals(Arrays.asList("Stella", "steve"), index.namesStartingWith("st"));
+        assertEquals(Arrays.asList("Alex", "bob", "Stella", "steve"), index.namesStartingWith(""));
+        assertEquals(Collections.emptyList(), index.namesStartingWith("z"));
+        assertEquals(Collections.emptyList(), index.namesStartingWith("stevee"));
+    }
+
+    @Test
+    public void getTest() {
+        final OnlinePlayerIndex index = new OnlinePlayerIndex();
+        final Player steve = player("steve");
+        final Player stevenson = player("Stevenson");
+        index.add(stevenson);
+        index.add(steve);
+        assertSame(steve, index.getExact("STEVE"));
+        assertNull(index.getExact("stev"));
+        assertSame(steve, index.getByPrefix("stev"));
+        assertSame(stevenson, index.getByPrefix("steven"));
+        assertNull(index.getByPrefix("alex"));
+        assertSame(stevenson, index.get(stevenson.getUniqueId()));
+    }
+
+    @Test
+    public void removeTest() {
+        final OnlinePlayerIndex index = new OnlinePlayerIndex();
+        final Player steve = player("steve");
+        index.add(steve);
+        index.add(steve);
+        index.add(player("alex"));
+        assertEquals(2, index.size());
+        index.remove(steve);
+        index.remove(steve);
+        assertEquals(1, index.size());
+        assertNull(index.getExact("steve"));
+        assertNull(index.get(steve.getUniqueId()));
+        assertEquals(Collections.singletonList("alex"), index.namesStartingWith(""));
+    }
+
+    @Test
+    public void stopTestOnPluginDisable() {
+        MockBukkit.mock();
+        try {
+            final Plugin plugin = MockBukkit.createMockPlugin();
+            final OnlinePlayerIndex index = new OnlinePlayerIndex();
+            index.start(plugin);
+            assertTrue(index.isStarted());
+            index.add(player("steve"));
+            index.onPluginDisable(new PluginDisableEvent(plugin));
+            assertFalse(index.isStarted());
+            assertEquals(0, index.size());
+            // Other plugins don't stop it
+            index.start(plugin);
+            index.stop((Plugin) Proxy.newProxyInstance(Plugin.class.getClassLoader(), new Class<?>[]{Plugin.class},
+                (proxy, method, args) -> method.getName().equals("hashCode") ? System.identityHashCode(proxy) : proxy == args[0]));
+            assertTrue(index.isStarted());
+        } finally {
+            MockBukkit.unmock();
+        }
+    }
+}